@@ -36,6 +36,7 @@ function makeList(
     id: 1,
     name: 'Test List',
     createdAt: '2026-01-15T00:00:00Z',
+    updatedAt: '2026-01-15T00:00:00Z',
     recipes: [{ id: 10, url: 'https://example.com', title: 'Soup', ingredientCount: 2, createdAt: '2026-01-15T00:00:00Z' }],
     items: [
       { id: 1, name: 'Flour', quantity: '2', unit: 'cups' },
@@ -38,7 +38,19 @@ export interface RecipeDetailResponse {
   url: string;
   title: string;
   createdAt: string;
+  updatedAt: string | null;
   ingredients: IngredientResponse[];
+  details: RecipeDetails;
+}
+
+export interface RecipeDetails {
+  recipeYield: string | null;
+  prepTimeMinutes: number | null;
+  cookTimeMinutes: number | null;
+  totalTimeMinutes: number | null;
+  instructions: string[];
+  nutrition: Record<string, string>;
+  imageUrls: string[];
 }
 
 export interface ShoppingListResponse {
@@ -60,6 +72,7 @@ export interface ShoppingListDetailResponse {
   id: number;
   name: string;
   createdAt: string;
+  updatedAt: string;
   recipes: RecipeResponse[];
   items: ShoppingListItemResponse[];
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.cache;
+
+import com.recipesniper.repository.RecipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory Bloom filter of the canonical URLs of stored recipes, so bulk
+ * imports can skip the database for URLs that are certainly new. A negative
+ * answer is definite; a positive one has to be confirmed against the
+ * database.
+ *
+ * <p>Bloom filters cannot forget, so deletions only make the filter less
+ * precise. Once deletions or insertions since the last build pass a share of
+ * its capacity, {@link #rebuildIfStale()} reloads it from the database.
+ */
+@Component
+public class CanonicalUrlFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(CanonicalUrlFilter.class);
+
+    private final RecipeRepository recipeRepository;
+    private final long minimumCapacity;
+    private final double falsePositiveRate;
+    private final Object rebuildLock = new Object();
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong deletions = new AtomicLong();
+
+    private volatile BloomFilter filter;
+    private volatile Queue<String> addedDuringRebuild;
+
+    public CanonicalUrlFilter(RecipeRepository recipeRepository,
+                              @Value("${recipesniper.import.bloom.expected-insertions:100000}") long minimumCapacity,
+                              @Value("${recipesniper.import.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.recipeRepository = recipeRepository;
+        this.minimumCapacity = minimumCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(minimumCapacity, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            Queue<String> added = new ConcurrentLinkedQueue<>();
+            addedDuringRebuild = added;
+            List<String> urls = recipeRepository.findAllCanonicalUrls();
+            BloomFilter rebuilt = new BloomFilter(Math.max(minimumCapacity, urls.size() * 2L), falsePositiveRate);
+            urls.forEach(rebuilt::put);
+            added.forEach(rebuilt::put);
+            filter = rebuilt;
+            addedDuringRebuild = null;
+            added.forEach(rebuilt::put);
+            insertions.set(urls.size());
+            deletions.set(0);
+            log.info("Built canonical URL filter over {} recipes", urls.size());
+        }
+    }
+
+    /**
+     * Rebuilds when deletions exceed a tenth of the filter's capacity or
+     * insertions exceed the capacity itself.
+     */
+    public void rebuildIfStale() {
+        long capacity = filter.capacity();
+        if (deletions.get() > capacity / 10 || insertions.get() > capacity) {
+            rebuild();
+        }
+    }
+
+    public boolean mightContain(String canonicalUrl) {
+        return filter.mightContain(canonicalUrl);
+    }
+
+    public void add(String canonicalUrl) {
+        filter.put(canonicalUrl);
+        Queue<String> added = addedDuringRebuild;
+        if (added != null) {
+            added.add(canonicalUrl);
+        }
+        insertions.incrementAndGet();
+    }
+
+    public void recordDeletion() {
+        deletions.incrementAndGet();
+    }
+}
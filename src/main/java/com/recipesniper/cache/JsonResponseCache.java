@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache of fully serialized JSON response bodies for hot read endpoints. Each
+ * entry holds the UTF-8 bytes produced by the application's {@link JsonMapper}
+ * together with a strong ETag derived from those bytes and the resource's
+ * last-modified time, so a repeat read is a map lookup and a buffer copy and a
+ * conditional read needs no serialization at all. Bounded by total body size.
+ */
+@Component
+public class JsonResponseCache {
+
+    static final String CACHE_NAME = "jsonResponses";
+
+    private static final String RECIPE_PREFIX = "recipe:";
+    private static final String SHOPPING_LIST_PREFIX = "shopping-list:";
+
+    public record CachedJson(byte[] body, String etag, Instant lastModified) {
+    }
+
+    private final JsonMapper jsonMapper;
+    private final Cache<String, CachedJson> cache;
+
+    public JsonResponseCache(JsonMapper jsonMapper,
+                             @Value("${recipesniper.cache.json.maximum-size:64MB}") DataSize maximumSize,
+                             MeterRegistry meterRegistry) {
+        this.jsonMapper = jsonMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((String key, CachedJson value) -> value.body().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public static String recipeKey(Long id) {
+        return RECIPE_PREFIX + id;
+    }
+
+    public static String shoppingListKey(Long id) {
+        return SHOPPING_LIST_PREFIX + id;
+    }
+
+    public <T> CachedJson get(String key, Supplier<T> loader, Function<T, LocalDateTime> lastModified) {
+        return cache.get(key, k -> {
+            T value = loader.get();
+            return serialize(value, lastModified.apply(value));
+        });
+    }
+
+    public void invalidate(String key) {
+        AfterCommit.invalidate(() -> cache.invalidate(key));
+    }
+
+    /**
+     * Drops every cached shopping list. Used when a change to a recipe may be
+     * visible through any list that contains it.
+     */
+    public void invalidateShoppingLists() {
+        AfterCommit.invalidate(() -> cache.asMap().keySet().removeIf(k -> k.startsWith(SHOPPING_LIST_PREFIX)));
+    }
+
+    private CachedJson serialize(Object value, LocalDateTime lastModified) {
+        byte[] body = jsonMapper.writeValueAsBytes(value);
+        Instant modified = lastModified != null
+                ? lastModified.atZone(ZoneId.systemDefault()).toInstant()
+                : Instant.now();
+        return new CachedJson(body, etagOf(body), modified);
+    }
+
+    static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
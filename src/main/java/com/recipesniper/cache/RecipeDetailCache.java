@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.recipesniper.dto.RecipeDetailResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of {@link RecipeDetailResponse} keyed by recipe id.
+ * Recipes are immutable after import, so entries only need to be dropped when
+ * a recipe is deleted or re-scraped.
+ */
+@Component
+public class RecipeDetailCache {
+
+    static final String CACHE_NAME = "recipeDetails";
+
+    private final Cache<Long, RecipeDetailResponse> cache;
+
+    public RecipeDetailCache(@Value("${recipesniper.cache.recipe-detail.maximum-size:10000}") long maximumSize,
+                             @Value("${recipesniper.cache.recipe-detail.expire-after-access:1h}") Duration expireAfterAccess,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public RecipeDetailResponse get(Long id, Function<Long, RecipeDetailResponse> loader) {
+        return cache.get(id, loader);
+    }
+
+    public void invalidate(Long id) {
+        AfterCommit.invalidate(() -> cache.invalidate(id));
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks a version for each collection resource so list endpoints can answer
+ * conditional requests without querying the database. Every mutation of a
+ * collection goes through the services, which bump the matching version; the
+ * startup time is folded into the ETag so validators issued before a restart
+ * are never mistaken for current ones.
+ */
+@Component
+public class ResourceVersions {
+
+    public record Validator(String etag, Instant lastModified) {
+    }
+
+    private record Version(long counter, Instant lastModified) {
+    }
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicReference<Version> recipes = new AtomicReference<>(initial());
+    private final AtomicReference<Version> shoppingLists = new AtomicReference<>(initial());
+
+    public Validator recipes() {
+        return validator("recipes", recipes.get());
+    }
+
+    public Validator shoppingLists() {
+        return validator("shopping-lists", shoppingLists.get());
+    }
+
+    public void recipesChanged() {
+        AfterCommit.invalidate(() -> bump(recipes));
+    }
+
+    public void shoppingListsChanged() {
+        AfterCommit.invalidate(() -> bump(shoppingLists));
+    }
+
+    private Validator validator(String name, Version version) {
+        return new Validator("\"" + name + "-" + epoch + "-" + version.counter() + "\"", version.lastModified());
+    }
+
+    private static void bump(AtomicReference<Version> version) {
+        version.updateAndGet(v -> new Version(v.counter() + 1, now()));
+    }
+
+    private static Version initial() {
+        return new Version(0, now());
+    }
+
+    private static Instant now() {
+        // HTTP dates carry whole seconds
+        return Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fetch profiles for the scraper. {@code defaults} applies to every host;
+ * entries under {@code hosts} override it field by field for a host and its
+ * subdomains. Host names contain dots, so in YAML the keys need brackets:
+ *
+ * <pre>
+ * recipesniper:
+ *   scrape:
+ *     defaults:
+ *       max-concurrent: 4
+ *     hosts:
+ *       "[slow-recipes.example]":
+ *         request-timeout: 60s
+ *         max-concurrent: 1
+ *         http-version: http-1-1
+ *         headers:
+ *           Accept-Language: de-DE
+ * </pre>
+ */
+@ConfigurationProperties("recipesniper.scrape")
+public class ScrapeProperties {
+
+    private final FetchProfile defaults = FetchProfile.builtIn();
+    private final Map<String, FetchProfile> hosts = new LinkedHashMap<>();
+    private Duration negativeCacheTtl = Duration.ofMinutes(10);
+    private long negativeCacheMaximumSize = 10_000;
+
+    public FetchProfile getDefaults() {
+        return defaults;
+    }
+
+    public Map<String, FetchProfile> getHosts() {
+        return hosts;
+    }
+
+    /**
+     * How long a URL that answered with a client error (other than 408 and
+     * 429) is refused without asking the origin again.
+     */
+    public Duration getNegativeCacheTtl() {
+        return negativeCacheTtl;
+    }
+
+    public void setNegativeCacheTtl(Duration negativeCacheTtl) {
+        this.negativeCacheTtl = negativeCacheTtl;
+    }
+
+    public long getNegativeCacheMaximumSize() {
+        return negativeCacheMaximumSize;
+    }
+
+    public void setNegativeCacheMaximumSize(long negativeCacheMaximumSize) {
+        this.negativeCacheMaximumSize = negativeCacheMaximumSize;
+    }
+
+    /**
+     * Resolves the profile for a host: the most specific matching entry in
+     * {@code hosts}, walking up the parent domains, merged onto the defaults.
+     */
+    public FetchProfile profileFor(String host) {
+        String name = host.toLowerCase(Locale.ROOT);
+        while (true) {
+            FetchProfile profile = hosts.get(name);
+            if (profile != null) {
+                return profile.mergedOnto(defaults);
+            }
+            int dot = name.indexOf('.');
+            if (dot < 0) {
+                return defaults;
+            }
+            name = name.substring(dot + 1);
+        }
+    }
+
+    public static class FetchProfile {
+
+        private Duration connectTimeout;
+        private Duration requestTimeout;
+        private Integer maxConcurrent;
+        private Duration acquireTimeout;
+        private HttpClient.Version httpVersion;
+        private Map<String, String> headers = new LinkedHashMap<>();
+        private Integer breakerFailureThreshold;
+        private Duration breakerOpenDuration;
+        private Integer maxAttempts;
+        private Duration retryBackoff;
+        private Duration retryMaxBackoff;
+        private Double retryBudgetRatio;
+        private Integer retryBudgetReserve;
+        private Boolean hedgeRequests;
+        private Duration hedgeMinDelay;
+
+        static FetchProfile builtIn() {
+            FetchProfile profile = new FetchProfile();
+            profile.connectTimeout = Duration.ofSeconds(15);
+            profile.requestTimeout = Duration.ofSeconds(30);
+            profile.maxConcurrent = 4;
+            profile.acquireTimeout = Duration.ofSeconds(5);
+            profile.httpVersion = HttpClient.Version.HTTP_2;
+            profile.breakerFailureThreshold = 5;
+            profile.breakerOpenDuration = Duration.ofSeconds(30);
+            profile.maxAttempts = 3;
+            profile.retryBackoff = Duration.ofMillis(200);
+            profile.retryMaxBackoff = Duration.ofSeconds(5);
+            profile.retryBudgetRatio = 0.2;
+            profile.retryBudgetReserve = 10;
+            profile.hedgeRequests = false;
+            profile.hedgeMinDelay = Duration.ofMillis(100);
+            return profile;
+        }
+
+        FetchProfile mergedOnto(FetchProfile base) {
+            FetchProfile merged = new FetchProfile();
+            merged.connectTimeout = connectTimeout != null ? connectTimeout : base.connectTimeout;
+            merged.requestTimeout = requestTimeout != null ? requestTimeout : base.requestTimeout;
+            merged.maxConcurrent = maxConcurrent != null ? maxConcurrent : base.maxConcurrent;
+            merged.acquireTimeout = acquireTimeout != null ? acquireTimeout : base.acquireTimeout;
+            merged.httpVersion = httpVersion != null ? httpVersion : base.httpVersion;
+            merged.headers.putAll(base.headers);
+            merged.headers.putAll(headers);
+            merged.breakerFailureThreshold = breakerFailureThreshold != null
+                    ? breakerFailureThreshold : base.breakerFailureThreshold;
+            merged.breakerOpenDuration = breakerOpenDuration != null ? breakerOpenDuration : base.breakerOpenDuration;
+            merged.maxAttempts = maxAttempts != null ? maxAttempts : base.maxAttempts;
+            merged.retryBackoff = retryBackoff != null ? retryBackoff : base.retryBackoff;
+            merged.retryMaxBackoff = retryMaxBackoff != null ? retryMaxBackoff : base.retryMaxBackoff;
+            merged.retryBudgetRatio = retryBudgetRatio != null ? retryBudgetRatio : base.retryBudgetRatio;
+            merged.retryBudgetReserve = retryBudgetReserve != null ? retryBudgetReserve : base.retryBudgetReserve;
+            merged.hedgeRequests = hedgeRequests != null ? hedgeRequests : base.hedgeRequests;
+            merged.hedgeMinDelay = hedgeMinDelay != null ? hedgeMinDelay : base.hedgeMinDelay;
+            return merged;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        public void setRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+
+        /**
+         * Requests allowed in flight to the host at once; further scrapes wait
+         * up to {@code acquireTimeout} for a slot and then fail.
+         */
+        public Integer getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(Integer maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public Duration getAcquireTimeout() {
+            return acquireTimeout;
+        }
+
+        public void setAcquireTimeout(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        /**
+         * HTTP_2 still falls back to HTTP/1.1 when the server does not offer
+         * it; HTTP_1_1 is for hosts whose HTTP/2 support is broken.
+         */
+        public HttpClient.Version getHttpVersion() {
+            return httpVersion;
+        }
+
+        public void setHttpVersion(HttpClient.Version httpVersion) {
+            this.httpVersion = httpVersion;
+        }
+
+        /**
+         * Extra request headers, replacing the built-in ones of the same name.
+         */
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        public void setHeaders(Map<String, String> headers) {
+            this.headers = headers;
+        }
+
+        /**
+         * Consecutive failures (connection errors, timeouts, 403, 429 and 5xx)
+         * after which the host's circuit breaker opens.
+         */
+        public Integer getBreakerFailureThreshold() {
+            return breakerFailureThreshold;
+        }
+
+        public void setBreakerFailureThreshold(Integer breakerFailureThreshold) {
+            this.breakerFailureThreshold = breakerFailureThreshold;
+        }
+
+        /**
+         * How long an open breaker refuses downloads before letting a probe through.
+         */
+        public Duration getBreakerOpenDuration() {
+            return breakerOpenDuration;
+        }
+
+        public void setBreakerOpenDuration(Duration breakerOpenDuration) {
+            this.breakerOpenDuration = breakerOpenDuration;
+        }
+
+        /**
+         * Attempts per download, including the first. Connection errors,
+         * timeouts, 429 and 500/502/503/504 are retried.
+         */
+        public Integer getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(Integer maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        /**
+         * Base of the exponential backoff; each wait is drawn uniformly from
+         * zero up to {@code retryBackoff * 2^(attempt - 1)}, capped at
+         * {@code retryMaxBackoff}.
+         */
+        public Duration getRetryBackoff() {
+            return retryBackoff;
+        }
+
+        public void setRetryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+        }
+
+        /**
+         * Longest wait between attempts. A Retry-After asking for more than
+         * this ends the download instead.
+         */
+        public Duration getRetryMaxBackoff() {
+            return retryMaxBackoff;
+        }
+
+        public void setRetryMaxBackoff(Duration retryMaxBackoff) {
+            this.retryMaxBackoff = retryMaxBackoff;
+        }
+
+        /**
+         * Retries and hedges the host earns per first attempt.
+         */
+        public Double getRetryBudgetRatio() {
+            return retryBudgetRatio;
+        }
+
+        public void setRetryBudgetRatio(Double retryBudgetRatio) {
+            this.retryBudgetRatio = retryBudgetRatio;
+        }
+
+        /**
+         * Retries and hedges the host may spend in a burst.
+         */
+        public Integer getRetryBudgetReserve() {
+            return retryBudgetReserve;
+        }
+
+        public void setRetryBudgetReserve(Integer retryBudgetReserve) {
+            this.retryBudgetReserve = retryBudgetReserve;
+        }
+
+        /**
+         * Sends a second copy of a request that has not produced headers
+         * within the host's recent 95th percentile, and uses whichever
+         * answers first.
+         */
+        public Boolean getHedgeRequests() {
+            return hedgeRequests;
+        }
+
+        public void setHedgeRequests(Boolean hedgeRequests) {
+            this.hedgeRequests = hedgeRequests;
+        }
+
+        /**
+         * Floor for the hedging delay, so a very fast host is not hedged on noise.
+         */
+        public Duration getHedgeMinDelay() {
+            return hedgeMinDelay;
+        }
+
+        public void setHedgeMinDelay(Duration hedgeMinDelay) {
+            this.hedgeMinDelay = hedgeMinDelay;
+        }
+    }
+}
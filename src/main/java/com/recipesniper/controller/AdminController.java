@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.controller;
+
+import com.recipesniper.dto.PageTierStatsResponse;
+import com.recipesniper.dto.ReextractionStatusResponse;
+import com.recipesniper.service.PageTieringService;
+import com.recipesniper.service.ReextractionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final ReextractionService reextractionService;
+    private final PageTieringService pageTieringService;
+
+    public AdminController(ReextractionService reextractionService, PageTieringService pageTieringService) {
+        this.reextractionService = reextractionService;
+        this.pageTieringService = pageTieringService;
+    }
+
+    @PostMapping("/reextraction")
+    public ResponseEntity<ReextractionStatusResponse> startReextraction() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reextractionService.start());
+    }
+
+    @GetMapping("/reextraction")
+    public ResponseEntity<ReextractionStatusResponse> getReextraction() {
+        return ResponseEntity.of(reextractionService.getStatus());
+    }
+
+    @GetMapping("/page-tiers")
+    public ResponseEntity<PageTierStatsResponse> getPageTiers() {
+        return ResponseEntity.ok(pageTieringService.stats());
+    }
+
+    @PostMapping("/page-tiers/cold")
+    public ResponseEntity<PageTierStatsResponse> moveColdPages() {
+        pageTieringService.moveColdPages();
+        return ResponseEntity.ok(pageTieringService.stats());
+    }
+
+    /**
+     * Moves one recipe's page, or with no {@code recipeId} every page, back
+     * from cold storage into the database.
+     */
+    @PostMapping("/page-tiers/restore")
+    public ResponseEntity<PageTierStatsResponse> restorePages(@RequestParam(required = false) Long recipeId) {
+        if (recipeId != null) {
+            pageTieringService.restore(recipeId);
+        } else {
+            pageTieringService.restoreAll();
+        }
+        return ResponseEntity.ok(pageTieringService.stats());
+    }
+}
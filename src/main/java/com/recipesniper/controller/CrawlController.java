@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.controller;
+
+import com.recipesniper.dto.CrawlStatusResponse;
+import com.recipesniper.dto.StartCrawlRequest;
+import com.recipesniper.service.SitemapCrawler;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/crawls")
+public class CrawlController {
+
+    private final SitemapCrawler sitemapCrawler;
+
+    public CrawlController(SitemapCrawler sitemapCrawler) {
+        this.sitemapCrawler = sitemapCrawler;
+    }
+
+    @PostMapping
+    public ResponseEntity<CrawlStatusResponse> startCrawl(@Valid @RequestBody StartCrawlRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(sitemapCrawler.startCrawl(request.url()));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<CrawlStatusResponse>> getCrawls() {
+        return ResponseEntity.ok(sitemapCrawler.getCrawls());
+    }
+}
@@ -19,23 +19,44 @@
 
 package com.recipesniper.controller;
 
+import com.recipesniper.cache.JsonResponseCache;
+import com.recipesniper.cache.JsonResponseCache.CachedJson;
+import com.recipesniper.cache.ResourceVersions;
+import com.recipesniper.cache.ResourceVersions.Validator;
 import com.recipesniper.dto.AddRecipeRequest;
+import com.recipesniper.dto.BulkImportRequest;
+import com.recipesniper.dto.BulkImportResponse;
 import com.recipesniper.dto.RecipeDetailResponse;
 import com.recipesniper.dto.RecipeResponse;
+import com.recipesniper.service.BulkImportService;
+import com.recipesniper.service.PageArchive;
+import com.recipesniper.service.PageArchive.ArchivedFile;
 import com.recipesniper.service.RecipeService;
 import jakarta.validation.Valid;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
 
 @RestController
@@ -43,9 +64,18 @@ import java.util.List;
 public class RecipeController {
 
     private final RecipeService recipeService;
+    private final BulkImportService bulkImportService;
+    private final JsonResponseCache jsonResponseCache;
+    private final ResourceVersions resourceVersions;
 
-    public RecipeController(RecipeService recipeService) {
+    public RecipeController(RecipeService recipeService,
+                            BulkImportService bulkImportService,
+                            JsonResponseCache jsonResponseCache,
+                            ResourceVersions resourceVersions) {
         this.recipeService = recipeService;
+        this.bulkImportService = bulkImportService;
+        this.jsonResponseCache = jsonResponseCache;
+        this.resourceVersions = resourceVersions;
     }
 
     @PostMapping
@@ -55,9 +85,18 @@ public class RecipeController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkImportResponse> importRecipes(@Valid @RequestBody BulkImportRequest request) {
+        return ResponseEntity.ok(bulkImportService.importUrls(request.urls()));
+    }
+
     @GetMapping
     public ResponseEntity<List<RecipeResponse>> getAllRecipes(
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search, WebRequest request) {
+        Validator validator = resourceVersions.recipes();
+        if (request.checkNotModified(validator.etag(), validator.lastModified().toEpochMilli())) {
+            return null;
+        }
         if (search != null && !search.isBlank()) {
             return ResponseEntity.ok(recipeService.searchRecipes(search));
         }
@@ -65,8 +104,96 @@ public class RecipeController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<RecipeDetailResponse> getRecipeById(@PathVariable Long id) {
-        return ResponseEntity.ok(recipeService.getRecipeById(id));
+    public ResponseEntity<byte[]> getRecipeById(@PathVariable Long id, WebRequest request) {
+        CachedJson json = jsonResponseCache.get(JsonResponseCache.recipeKey(id),
+                () -> recipeService.getRecipeById(id),
+                recipe -> recipe.updatedAt() != null ? recipe.updatedAt() : recipe.createdAt());
+        if (request.checkNotModified(json.etag(), json.lastModified().toEpochMilli())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json.body());
+    }
+
+    /**
+     * Serves the archived copy of a recipe's page straight from disk. A page
+     * stored plain honours Range requests; one stored gzipped is sent as is to
+     * clients that accept gzip, and inflated on the fly (without ranges) for
+     * those that don't. The page is sandboxed so its scripts cannot run on
+     * this origin.
+     */
+    @GetMapping("/{id}/source")
+    public ResponseEntity<?> getRecipeSource(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                             String acceptEncoding,
+                                             WebRequest request) throws IOException {
+        ArchivedFile page = recipeService.getArchivedPage(id);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(page.path(), BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            // Removed since it was found; a missing local copy is not an upstream failure
+            throw new IllegalArgumentException("No archived page for recipe: " + id, e);
+        }
+        boolean sendGzip = page.compressed() && acceptsGzip(acceptEncoding);
+        String etag = "\"" + Long.toHexString(attributes.size()) + "-"
+                + Long.toHexString(attributes.lastModifiedTime().toMillis())
+                + (page.compressed() && !sendGzip ? "-identity" : "") + "\"";
+        if (request.checkNotModified(etag, attributes.lastModifiedTime().toMillis())) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(htmlType(page.charset()))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header("Content-Security-Policy", "sandbox");
+        if (!page.compressed()) {
+            return response.body(new FileSystemResource(page.path()));
+        }
+        if (sendGzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(new FileSystemResource(page.path()));
+        }
+        InputStream body;
+        try {
+            body = PageArchive.open(page.path());
+        } catch (NoSuchFileException e) {
+            throw new IllegalArgumentException("No archived page for recipe: " + id, e);
+        }
+        return response.header(HttpHeaders.ACCEPT_RANGES, "none").body(new InputStreamResource(body));
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                refused |= parts[i].replace(" ", "").matches("(?i)q=0(\\.0{0,3})?");
+            }
+            if (name.equalsIgnoreCase("gzip")) {
+                return !refused;
+            }
+            wildcard |= name.equals("*") && !refused;
+        }
+        return wildcard;
+    }
+
+    private static MediaType htmlType(String charset) {
+        if (charset != null) {
+            try {
+                return new MediaType(MediaType.TEXT_HTML, Charset.forName(charset));
+            } catch (IllegalArgumentException e) {
+                // unknown charset: let the browser sniff it from the page
+            }
+        }
+        return MediaType.TEXT_HTML;
     }
 
     @DeleteMapping("/{id}")
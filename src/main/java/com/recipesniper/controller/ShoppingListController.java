@@ -19,6 +19,10 @@
 
 package com.recipesniper.controller;
 
+import com.recipesniper.cache.JsonResponseCache;
+import com.recipesniper.cache.JsonResponseCache.CachedJson;
+import com.recipesniper.cache.ResourceVersions;
+import com.recipesniper.cache.ResourceVersions.Validator;
 import com.recipesniper.dto.AddRecipesToShoppingListRequest;
 import com.recipesniper.dto.CreateShoppingListRequest;
 import com.recipesniper.dto.ShoppingListDetailResponse;
@@ -27,6 +31,7 @@ import com.recipesniper.dto.UpdateShoppingListRequest;
 import com.recipesniper.service.ShoppingListService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -36,6 +41,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -44,9 +50,15 @@ import java.util.List;
 public class ShoppingListController {
 
     private final ShoppingListService shoppingListService;
+    private final JsonResponseCache jsonResponseCache;
+    private final ResourceVersions resourceVersions;
 
-    public ShoppingListController(ShoppingListService shoppingListService) {
+    public ShoppingListController(ShoppingListService shoppingListService,
+                                  JsonResponseCache jsonResponseCache,
+                                  ResourceVersions resourceVersions) {
         this.shoppingListService = shoppingListService;
+        this.jsonResponseCache = jsonResponseCache;
+        this.resourceVersions = resourceVersions;
     }
 
     @PostMapping
@@ -58,13 +70,24 @@ public class ShoppingListController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ShoppingListResponse>> getAllShoppingLists() {
+    public ResponseEntity<List<ShoppingListResponse>> getAllShoppingLists(WebRequest request) {
+        Validator validator = resourceVersions.shoppingLists();
+        if (request.checkNotModified(validator.etag(), validator.lastModified().toEpochMilli())) {
+            return null;
+        }
         return ResponseEntity.ok(shoppingListService.getAllShoppingLists());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ShoppingListDetailResponse> getShoppingListById(@PathVariable Long id) {
-        return ResponseEntity.ok(shoppingListService.getShoppingListById(id));
+    public ResponseEntity<byte[]> getShoppingListById(@PathVariable Long id, WebRequest request) {
+        CachedJson json = jsonResponseCache.get(JsonResponseCache.shoppingListKey(id),
+                () -> shoppingListService.getShoppingListById(id), ShoppingListDetailResponse::updatedAt);
+        if (request.checkNotModified(json.etag(), json.lastModified().toEpochMilli())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json.body());
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * @param sitemaps       sitemaps read so far, including indexes
+ * @param failedSitemaps sitemaps that could not be fetched or parsed
+ * @param urlsSeen       page URLs listed by those sitemaps
+ * @param recipeUrls     page URLs that passed the recipe URL filter
+ * @param skipped        recipe URLs that were already imported, repeated or invalid
+ */
+public record CrawlStatusResponse(
+        String host,
+        String state,
+        int sitemaps,
+        int failedSitemaps,
+        int urlsSeen,
+        int recipeUrls,
+        int skipped,
+        int imported,
+        int failed,
+        String error,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {
+}
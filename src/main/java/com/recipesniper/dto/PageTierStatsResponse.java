@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.dto;
+
+/**
+ * Where stored pages are kept.
+ *
+ * @param hotPages     pages stored in their recipe's row
+ * @param hotChars     their total length in characters
+ * @param coldPages    pages moved to cold segment files
+ * @param segments     number of segment files
+ * @param segmentBytes size of the segment files on disk, including records
+ *                     of pages since restored
+ */
+public record PageTierStatsResponse(
+        long hotPages,
+        long hotChars,
+        long coldPages,
+        int segments,
+        long segmentBytes
+) {
+}
@@ -27,6 +27,8 @@ public record RecipeDetailResponse(
         String url,
         String title,
         LocalDateTime createdAt,
-        List<IngredientResponse> ingredients
+        LocalDateTime updatedAt,
+        List<IngredientResponse> ingredients,
+        RecipeDetails details
 ) {
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parts of a Schema.org Recipe beyond its ingredients. Times are in
+ * minutes; nutrition is keyed by the Schema.org property name, such as
+ * {@code calories} or {@code fatContent}, with the page's text as the value.
+ */
+public record RecipeDetails(
+        String recipeYield,
+        Integer prepTimeMinutes,
+        Integer cookTimeMinutes,
+        Integer totalTimeMinutes,
+        List<String> instructions,
+        Map<String, String> nutrition,
+        List<String> imageUrls
+) {
+
+    public static final RecipeDetails EMPTY = new RecipeDetails(null, null, null, null, null, null, null);
+
+    public RecipeDetails {
+        instructions = instructions == null ? List.of() : List.copyOf(instructions);
+        nutrition = nutrition == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(nutrition));
+        imageUrls = imageUrls == null ? List.of() : List.copyOf(imageUrls);
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return equals(EMPTY);
+    }
+}
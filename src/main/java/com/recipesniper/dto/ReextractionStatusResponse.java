@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * @param extractorVersion the extractor version recipes are brought up to
+ * @param kept             recipes whose stored ingredients were kept because
+ *                         the extractor found none in the page
+ * @param missing          recipes with no stored page to re-extract from
+ */
+public record ReextractionStatusResponse(
+        String state,
+        int extractorVersion,
+        int total,
+        int processed,
+        int updated,
+        int unchanged,
+        int kept,
+        int missing,
+        double recipesPerSecond,
+        String error,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {
+}
@@ -26,6 +26,7 @@ public record ShoppingListDetailResponse(
         Long id,
         String name,
         LocalDateTime createdAt,
+        LocalDateTime updatedAt,
         List<RecipeResponse> recipes,
         List<ShoppingListItemResponse> items
 ) {
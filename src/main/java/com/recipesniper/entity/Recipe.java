@@ -19,25 +19,33 @@
 
 package com.recipesniper.entity;
 
+import com.recipesniper.dto.RecipeDetails;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Lob;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "recipe")
+@Table(name = "recipe",
+        uniqueConstraints = @UniqueConstraint(name = Recipe.CANONICAL_URL_CONSTRAINT, columnNames = "canonical_url"),
+        indexes = @Index(name = "idx_recipe_content_hash", columnList = "content_hash"))
 public class Recipe {
 
+    public static final String CANONICAL_URL_CONSTRAINT = "uk_recipe_canonical_url";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -45,6 +53,13 @@ public class Recipe {
     @Column(nullable = false)
     private String url;
 
+    /**
+     * The deduplication key; null only for recipes imported before it existed
+     * that lost out to a newer import of the same page.
+     */
+    @Column(name = "canonical_url")
+    private String canonicalUrl;
+
     @Column(nullable = false)
     private String title;
 
@@ -52,9 +67,52 @@ public class Recipe {
     @Column(columnDefinition = "CLOB")
     private String rawHtml;
 
+    /**
+     * Where {@code rawHtml} was moved when the page went to cold storage, see
+     * {@code ColdPageStore}; null while the page is stored in this row.
+     */
+    @Column(name = "raw_html_ref", length = 64)
+    private String rawHtmlRef;
+
+    /**
+     * SHA-256 of the page as last fetched, used to skip re-extraction when a
+     * re-crawl finds the page unchanged or another URL serves the same bytes.
+     */
+    @Column(length = 64)
+    private String contentHash;
+
+    /**
+     * The {@code IngredientExtractionService.VERSION} that produced the
+     * ingredients; null for recipes extracted before versions were recorded.
+     */
+    private Integer extractorVersion;
+
+    /**
+     * Everything extracted besides the ingredients, such as times, yield and
+     * instructions.
+     */
+    @Lob
+    @Column(columnDefinition = "CLOB")
+    @Convert(converter = RecipeDetailsConverter.class)
+    private RecipeDetails details;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    private LocalDateTime lastCrawledAt;
+
+    /**
+     * When a re-crawl or re-extraction last changed the recipe.
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * When a re-crawl last replaced {@code rawHtml}; null while it still holds
+     * the page fetched on import. Unlike {@code updatedAt}, nothing the API
+     * returns changes with it.
+     */
+    private LocalDateTime pageStoredAt;
+
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<RecipeIngredient> ingredients = new ArrayList<>();
 
@@ -79,6 +137,14 @@ public class Recipe {
         this.url = url;
     }
 
+    public String getCanonicalUrl() {
+        return canonicalUrl;
+    }
+
+    public void setCanonicalUrl(String canonicalUrl) {
+        this.canonicalUrl = canonicalUrl;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -95,6 +161,38 @@ public class Recipe {
         this.rawHtml = rawHtml;
     }
 
+    public String getRawHtmlRef() {
+        return rawHtmlRef;
+    }
+
+    public void setRawHtmlRef(String rawHtmlRef) {
+        this.rawHtmlRef = rawHtmlRef;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public Integer getExtractorVersion() {
+        return extractorVersion;
+    }
+
+    public void setExtractorVersion(Integer extractorVersion) {
+        this.extractorVersion = extractorVersion;
+    }
+
+    public RecipeDetails getDetails() {
+        return details != null ? details : RecipeDetails.EMPTY;
+    }
+
+    public void setDetails(RecipeDetails details) {
+        this.details = details;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -103,6 +201,30 @@ public class Recipe {
         this.createdAt = createdAt;
     }
 
+    public LocalDateTime getLastCrawledAt() {
+        return lastCrawledAt;
+    }
+
+    public void setLastCrawledAt(LocalDateTime lastCrawledAt) {
+        this.lastCrawledAt = lastCrawledAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getPageStoredAt() {
+        return pageStoredAt;
+    }
+
+    public void setPageStoredAt(LocalDateTime pageStoredAt) {
+        this.pageStoredAt = pageStoredAt;
+    }
+
     public List<RecipeIngredient> getIngredients() {
         return ingredients;
     }
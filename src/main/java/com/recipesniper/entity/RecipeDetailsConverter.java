@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipesniper.dto.RecipeDetails;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link RecipeDetails} as one JSON document, so a recipe's details
+ * load with its row and insert with it in the same batch, rather than
+ * spreading over several collection tables that would each need a join or a
+ * query of their own.
+ */
+@Converter
+public class RecipeDetailsConverter implements AttributeConverter<RecipeDetails, String> {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public String convertToDatabaseColumn(RecipeDetails details) {
+        if (details == null || details.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(details);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize recipe details", e);
+        }
+    }
+
+    @Override
+    public RecipeDetails convertToEntityAttribute(String json) {
+        if (json == null) {
+            return RecipeDetails.EMPTY;
+        }
+        try {
+            return objectMapper.readValue(json, RecipeDetails.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot read recipe details", e);
+        }
+    }
+}
@@ -50,6 +50,8 @@ public class ShoppingList {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    private LocalDateTime updatedAt;
+
     @ManyToMany
     @JoinTable(
             name = "shopping_list_recipe",
@@ -64,6 +66,7 @@ public class ShoppingList {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
     }
 
     public Long getId() {
@@ -90,6 +93,14 @@ public class ShoppingList {
         this.createdAt = createdAt;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public List<Recipe> getRecipes() {
         return recipes;
     }
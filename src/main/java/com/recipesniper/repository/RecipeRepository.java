@@ -19,14 +19,159 @@
 
 package com.recipesniper.repository;
 
+import com.recipesniper.dto.RecipeResponse;
 import com.recipesniper.entity.Recipe;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
 
     List<Recipe> findByTitleContainingIgnoreCase(String title);
+
+    @EntityGraph(attributePaths = "ingredients")
+    Optional<Recipe> findWithIngredientsById(Long id);
+
+    @EntityGraph(attributePaths = "ingredients")
+    Optional<Recipe> findFirstByUrlOrderByIdDesc(String url);
+
+    @EntityGraph(attributePaths = "ingredients")
+    Optional<Recipe> findByCanonicalUrl(String canonicalUrl);
+
+    @EntityGraph(attributePaths = "ingredients")
+    Optional<Recipe> findFirstByContentHashAndExtractorVersionOrderByIdDesc(String contentHash,
+                                                                           Integer extractorVersion);
+
+    boolean existsByCanonicalUrl(String canonicalUrl);
+
+    @Query("select r.url from Recipe r where r.id = :id")
+    Optional<String> findUrlById(@Param("id") Long id);
+
+    @Query("select distinct r.url from Recipe r")
+    List<String> findAllUrls();
+
+    List<Recipe> findByCanonicalUrlIsNullOrderByIdDesc();
+
+    @Query("select r.canonicalUrl from Recipe r where r.canonicalUrl is not null")
+    List<String> findAllCanonicalUrls();
+
+    @Query("select r.canonicalUrl from Recipe r where r.canonicalUrl in :canonicalUrls")
+    List<String> findExistingCanonicalUrls(@Param("canonicalUrls") Collection<String> canonicalUrls);
+
+    /**
+     * Returns the recipes last fetched before {@code staleBefore}, stalest
+     * first, each with the number of shopping lists it is on.
+     */
+    @Query("""
+            select new com.recipesniper.repository.RecrawlCandidate(
+                    r.id, r.url, r.contentHash, coalesce(r.lastCrawledAt, r.createdAt),
+                    (select count(l) from ShoppingList l join l.recipes lr where lr = r))
+            from Recipe r
+            where coalesce(r.lastCrawledAt, r.createdAt) < :staleBefore
+            order by coalesce(r.lastCrawledAt, r.createdAt), r.id
+            """)
+    List<RecrawlCandidate> findRecrawlCandidates(@Param("staleBefore") LocalDateTime staleBefore, Pageable pageable);
+
+    @Query("""
+            select r.id from Recipe r
+            where r.extractorVersion is null or r.extractorVersion < :version
+            order by r.id
+            """)
+    List<Long> findIdsExtractedBefore(@Param("version") int version);
+
+    @Query("""
+            select new com.recipesniper.repository.StoredPage(r.id, r.url, r.rawHtml, r.rawHtmlRef)
+            from Recipe r where r.id in :ids
+            """)
+    List<StoredPage> findStoredPages(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Returns pages still stored in their recipe's row whose recipe has not
+     * changed, and whose page has not been replaced, since {@code unchangedSince},
+     * in id order after {@code afterId}.
+     */
+    @Query("""
+            select new com.recipesniper.repository.HotPage(r.id, r.contentHash, r.rawHtml)
+            from Recipe r
+            where r.rawHtml is not null and r.id > :afterId
+                    and coalesce(r.updatedAt, r.createdAt) < :unchangedSince
+                    and (r.pageStoredAt is null or r.pageStoredAt < :unchangedSince)
+            order by r.id
+            """)
+    List<HotPage> findHotPages(@Param("unchangedSince") LocalDateTime unchangedSince, @Param("afterId") long afterId,
+                               Pageable pageable);
+
+    /**
+     * Returns pages in cold storage, in id order after {@code afterId}.
+     */
+    @Query("""
+            select new com.recipesniper.repository.StoredPage(r.id, r.url, r.rawHtml, r.rawHtmlRef)
+            from Recipe r
+            where r.rawHtmlRef is not null and r.id > :afterId
+            order by r.id
+            """)
+    List<StoredPage> findColdPages(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Replaces a recipe's page with its cold storage reference, unless a
+     * re-crawl has changed the page since it was read.
+     */
+    @Modifying
+    @Query("""
+            update Recipe r set r.rawHtml = null, r.rawHtmlRef = :ref
+            where r.id = :id and r.rawHtml is not null
+                    and (r.contentHash = :contentHash or (r.contentHash is null and :contentHash is null))
+            """)
+    int moveToColdStorage(@Param("id") Long id, @Param("contentHash") String contentHash, @Param("ref") String ref);
+
+    @Modifying
+    @Query("update Recipe r set r.rawHtml = :rawHtml, r.rawHtmlRef = null where r.id = :id and r.rawHtmlRef = :ref")
+    int restoreFromColdStorage(@Param("id") Long id, @Param("ref") String ref, @Param("rawHtml") String rawHtml);
+
+    long countByRawHtmlIsNotNull();
+
+    long countByRawHtmlRefIsNotNull();
+
+    @Query("select coalesce(sum(length(r.rawHtml)), 0) from Recipe r where r.rawHtml is not null")
+    long sumRawHtmlLength();
+
+    /**
+     * Returns the segment files that cold pages are stored in.
+     */
+    @Query("""
+            select distinct substring(r.rawHtmlRef, 1, locate(':', r.rawHtmlRef) - 1)
+            from Recipe r where r.rawHtmlRef is not null
+            """)
+    List<String> findColdSegments();
+
+    @EntityGraph(attributePaths = "ingredients")
+    List<Recipe> findWithIngredientsByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("update Recipe r set r.lastCrawledAt = :crawledAt where r.id = :id")
+    int markCrawled(@Param("id") Long id, @Param("crawledAt") LocalDateTime crawledAt);
+
+    /**
+     * Returns summaries of the recipes attached to a shopping list, with the
+     * ingredient count computed in the database rather than by initializing
+     * each recipe's ingredient collection.
+     */
+    @Query("""
+            select new com.recipesniper.dto.RecipeResponse(
+                    r.id, r.url, r.title, size(r.ingredients), r.createdAt)
+            from ShoppingList l join l.recipes r
+            where l.id = :shoppingListId
+            order by r.id
+            """)
+    List<RecipeResponse> findSummariesByShoppingListId(@Param("shoppingListId") Long shoppingListId);
 }
@@ -20,9 +20,21 @@
 package com.recipesniper.repository;
 
 import com.recipesniper.entity.ShoppingList;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface ShoppingListRepository extends JpaRepository<ShoppingList, Long> {
+
+    /**
+     * Loads a shopping list together with its items in a single query. Recipes
+     * are deliberately left out of the graph; fetching two bags at once would
+     * produce a cartesian product, so callers load recipe summaries separately
+     * via {@link RecipeRepository#findSummariesByShoppingListId(Long)}.
+     */
+    @EntityGraph(attributePaths = "items")
+    Optional<ShoppingList> findWithItemsById(Long id);
 }
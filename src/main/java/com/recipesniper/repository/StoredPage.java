@@ -0,0 +1,29 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.repository;
+
+/**
+ * The stored copy of a recipe's page, without its ingredients.
+ *
+ * @param rawHtml    the page, or null if it is in cold storage or was never stored
+ * @param rawHtmlRef where the page is in cold storage, or null while it is in {@code rawHtml}
+ */
+public record StoredPage(Long id, String url, String rawHtml, String rawHtmlRef) {
+}
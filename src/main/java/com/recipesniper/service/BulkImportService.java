@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.cache.CanonicalUrlFilter;
+import com.recipesniper.dto.BulkImportResponse;
+import com.recipesniper.repository.RecipeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Imports many recipe URLs at once. Before anything is scraped the URLs are
+ * canonicalized and deduplicated, first within the request and then against
+ * stored recipes: the {@link CanonicalUrlFilter} clears most new URLs without
+ * touching the database, and only its probable hits are confirmed, in batched
+ * {@code IN} queries. New URLs are then imported through the
+ * {@link IngestPipeline}.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    private final IngestPipeline ingestPipeline;
+    private final RecipeRepository recipeRepository;
+    private final CanonicalUrlFilter canonicalUrlFilter;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final int confirmBatchSize;
+
+    public BulkImportService(IngestPipeline ingestPipeline,
+                             RecipeRepository recipeRepository,
+                             CanonicalUrlFilter canonicalUrlFilter,
+                             MeterRegistry meterRegistry,
+                             Tracer tracer,
+                             @Value("${recipesniper.import.confirm-batch-size:500}") int confirmBatchSize) {
+        this.ingestPipeline = ingestPipeline;
+        this.recipeRepository = recipeRepository;
+        this.canonicalUrlFilter = canonicalUrlFilter;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.confirmBatchSize = confirmBatchSize;
+    }
+
+    /**
+     * @param newUrls         URLs to import, as submitted, one per canonical URL
+     * @param invalid         URLs that are not absolute http(s) URLs
+     * @param duplicates      URLs whose canonical form appeared earlier in the input
+     * @param alreadyImported URLs whose canonical form is already stored
+     */
+    public record Deduplicated(List<String> newUrls, int invalid, int duplicates, int alreadyImported) {
+    }
+
+    public Deduplicated deduplicate(List<String> urls) {
+        canonicalUrlFilter.rebuildIfStale();
+
+        Map<String, String> byCanonical = new LinkedHashMap<>();
+        int invalid = 0;
+        int duplicates = 0;
+        for (String url : urls) {
+            String canonicalUrl;
+            try {
+                canonicalUrl = UrlCanonicalizer.canonicalize(url);
+            } catch (IllegalArgumentException e) {
+                invalid++;
+                continue;
+            }
+            if (byCanonical.putIfAbsent(canonicalUrl, url) != null) {
+                duplicates++;
+            }
+        }
+
+        List<String> probablyKnown = byCanonical.keySet().stream()
+                .filter(canonicalUrlFilter::mightContain)
+                .toList();
+        Set<String> known = new HashSet<>();
+        for (int from = 0; from < probablyKnown.size(); from += confirmBatchSize) {
+            List<String> batch = probablyKnown.subList(from, Math.min(from + confirmBatchSize, probablyKnown.size()));
+            known.addAll(recipeRepository.findExistingCanonicalUrls(batch));
+        }
+        dedupCounter("filter-negative").increment(byCanonical.size() - probablyKnown.size());
+        dedupCounter("confirmed").increment(known.size());
+        dedupCounter("false-positive").increment(probablyKnown.size() - known.size());
+
+        List<String> newUrls = byCanonical.entrySet().stream()
+                .filter(e -> !known.contains(e.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+        return new Deduplicated(newUrls, invalid, duplicates, known.size());
+    }
+
+    public BulkImportResponse importUrls(List<String> urls) {
+        Span span = tracer.spanBuilder("BulkImportService.importUrls")
+                .setAttribute("import.requested", urls.size())
+                .startSpan();
+
+        try (Scope scope = span.makeCurrent()) {
+            Deduplicated deduplicated = deduplicate(urls);
+            span.setAttribute("import.new", deduplicated.newUrls().size());
+            span.setAttribute("import.alreadyImported", deduplicated.alreadyImported());
+            log.info("Bulk import of {} URLs: {} new, {} already imported, {} duplicates, {} invalid",
+                    urls.size(), deduplicated.newUrls().size(), deduplicated.alreadyImported(),
+                    deduplicated.duplicates(), deduplicated.invalid());
+
+            List<BulkImportResponse.Failure> failures = new ArrayList<>();
+            int imported = 0;
+            try {
+                Map<String, CompletableFuture<?>> imports = new LinkedHashMap<>();
+                for (String url : deduplicated.newUrls()) {
+                    imports.put(url, ingestPipeline.submit(url));
+                }
+                for (Map.Entry<String, CompletableFuture<?>> entry : imports.entrySet()) {
+                    try {
+                        entry.getValue().get();
+                        imported++;
+                    } catch (ExecutionException e) {
+                        failures.add(new BulkImportResponse.Failure(entry.getKey(), e.getCause().getMessage()));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Bulk import interrupted", e);
+            }
+
+            span.setAttribute("import.imported", imported);
+            span.setAttribute("import.failed", failures.size());
+            return new BulkImportResponse(urls.size(), deduplicated.invalid(), deduplicated.duplicates(),
+                    deduplicated.alreadyImported(), imported, failures);
+        } catch (RuntimeException e) {
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private Counter dedupCounter(String result) {
+        return Counter.builder("recipesniper.import.dedup")
+                .description("Canonical URLs checked by bulk import deduplication, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
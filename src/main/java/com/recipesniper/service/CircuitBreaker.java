@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Per-host circuit breaker. After {@code failureThreshold} consecutive
+ * failures it opens and refuses downloads for {@code openDuration}; the first
+ * download after that is let through as a probe while everything else is
+ * still refused, and its outcome either closes the breaker or opens it again.
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final String host;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+
+    CircuitBreaker(String host, int failureThreshold, Duration openDuration, Clock clock) {
+        this.host = host;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Admits a download or throws; an admitted caller must report back through
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #onAbandoned()}.
+     */
+    synchronized void acquire() throws HostUnavailableException {
+        if (state == State.OPEN) {
+            Instant retryAt = openedAt.plus(openDuration);
+            Instant now = clock.instant();
+            if (now.isBefore(retryAt)) {
+                throw new HostUnavailableException(
+                        host + " is failing, not fetching until " + retryAt, Duration.between(now, retryAt));
+            }
+            state = State.HALF_OPEN;
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            throw new HostUnavailableException(host + " is failing, a probe request is in flight", Duration.ofSeconds(1));
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.instant();
+        }
+    }
+
+    /**
+     * Reports that an admitted caller gave up before reaching the host. A
+     * probe that never ran leaves the breaker open for the next caller to probe.
+     */
+    synchronized void onAbandoned() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
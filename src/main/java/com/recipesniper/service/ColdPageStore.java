@@ -0,0 +1,209 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.repository.StoredPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only segment files holding pages moved out of {@code Recipe.rawHtml}
+ * by {@link PageTieringService}. Each page is its own gzip member, so it can
+ * be read back with one positioned read, and is referred to from its recipe by
+ * {@code segment:offset:length}. A segment is appended to until it reaches the
+ * configured size, after which the next one is started. Records are never
+ * rewritten; segments no recipe refers to any more are deleted on restore.
+ */
+@Component
+public class ColdPageStore {
+
+    private static final Pattern SEGMENT = Pattern.compile("segment-(\\d{6})\\.seg");
+    private static final Pattern REF = Pattern.compile("(segment-\\d{6}\\.seg):(\\d+):(\\d+)");
+
+    private final Path segmentDir;
+    private final long segmentSize;
+    private final Counter loads;
+
+    public ColdPageStore(@Value("${recipesniper.storage.tiering.segment-dir:./data/segments}") Path segmentDir,
+                         @Value("${recipesniper.storage.tiering.segment-size:64MB}") DataSize segmentSize,
+                         MeterRegistry meterRegistry) {
+        this.segmentDir = segmentDir;
+        this.segmentSize = segmentSize.toBytes();
+        this.loads = Counter.builder("recipesniper.storage.tiering.loads")
+                .description("Pages read back from cold storage")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param segments number of segment files
+     * @param bytes    their total size on disk
+     */
+    public record Usage(int segments, long bytes) {
+    }
+
+    /**
+     * Returns a recipe's page wherever it is stored: the row itself, or the
+     * segment its reference points to. Null if it has neither.
+     */
+    public String load(StoredPage page) throws IOException {
+        if (page.rawHtml() != null || page.rawHtmlRef() == null) {
+            return page.rawHtml();
+        }
+        return read(page.rawHtmlRef());
+    }
+
+    public String read(String ref) throws IOException {
+        Matcher matcher = REF.matcher(ref);
+        if (!matcher.matches()) {
+            throw new IOException("Malformed cold page reference: " + ref);
+        }
+        long offset = Long.parseLong(matcher.group(2));
+        ByteBuffer record = ByteBuffer.allocate(Integer.parseInt(matcher.group(3)));
+        try (FileChannel channel = FileChannel.open(segmentDir.resolve(matcher.group(1)), StandardOpenOption.READ)) {
+            while (record.hasRemaining()) {
+                if (channel.read(record, offset + record.position()) < 0) {
+                    throw new EOFException("Cold page reference past end of segment: " + ref);
+                }
+            }
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(record.array()))) {
+            loads.increment();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Appends pages to the newest segment, starting a new one whenever it
+     * fills up, and returns their references in the same order. The segments
+     * are flushed to disk before returning, so a reference saved afterwards
+     * never points at bytes that were lost.
+     */
+    public synchronized List<String> append(List<String> pages) throws IOException {
+        Files.createDirectories(segmentDir);
+        List<String> refs = new ArrayList<>(pages.size());
+        int number = newestSegment();
+        FileChannel channel = openForAppend(number);
+        try {
+            for (String page : pages) {
+                if (channel.size() >= segmentSize) {
+                    channel.force(true);
+                    channel.close();
+                    channel = openForAppend(++number);
+                }
+                byte[] record = compress(page);
+                long offset = channel.size();
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, offset + buffer.position());
+                }
+                refs.add(segmentName(number) + ":" + offset + ":" + record.length);
+            }
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+        return refs;
+    }
+
+    /**
+     * Deletes the segments not named in {@code referenced}.
+     *
+     * @return how many were deleted
+     */
+    public synchronized int deleteSegmentsExcept(Set<String> referenced) throws IOException {
+        int deleted = 0;
+        for (Path segment : segments()) {
+            if (!referenced.contains(segment.getFileName().toString()) && Files.deleteIfExists(segment)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    public Usage usage() throws IOException {
+        List<Path> segments = segments();
+        long bytes = 0;
+        for (Path segment : segments) {
+            bytes += Files.size(segment);
+        }
+        return new Usage(segments.size(), bytes);
+    }
+
+    private List<Path> segments() throws IOException {
+        if (!Files.isDirectory(segmentDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(segmentDir)) {
+            return files.filter(f -> SEGMENT.matcher(f.getFileName().toString()).matches()).sorted().toList();
+        }
+    }
+
+    private int newestSegment() throws IOException {
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            return 1;
+        }
+        Matcher matcher = SEGMENT.matcher(segments.getLast().getFileName().toString());
+        matcher.matches();
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private FileChannel openForAppend(int number) throws IOException {
+        return FileChannel.open(segmentDir.resolve(segmentName(number)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private static String segmentName(int number) {
+        return String.format(Locale.ROOT, "segment-%06d.seg", number);
+    }
+
+    private static byte[] compress(String page) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(page.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
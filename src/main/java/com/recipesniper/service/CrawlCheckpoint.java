@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Progress of one site crawl, persisted as a properties file so an interrupted
+ * crawl resumes where it stopped. Each key is a sitemap URL; the value is
+ * either {@value #DONE} or the number of {@code <loc>} entries already handled.
+ * Sitemap indexes are never recorded: they are small, and re-reading them is
+ * how a resumed crawl finds the sitemaps it has not finished.
+ */
+class CrawlCheckpoint {
+
+    private static final String DONE = "done";
+
+    private final Path file;
+    private final Properties progress = new Properties();
+
+    private CrawlCheckpoint(Path file) {
+        this.file = file;
+    }
+
+    static CrawlCheckpoint load(Path file) throws IOException {
+        CrawlCheckpoint checkpoint = new CrawlCheckpoint(file);
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                checkpoint.progress.load(in);
+            }
+        }
+        return checkpoint;
+    }
+
+    boolean isDone(String sitemapUrl) {
+        return DONE.equals(progress.getProperty(sitemapUrl));
+    }
+
+    long position(String sitemapUrl) {
+        String value = progress.getProperty(sitemapUrl);
+        if (value == null || DONE.equals(value)) {
+            return 0;
+        }
+        return Long.parseLong(value);
+    }
+
+    void recordPosition(String sitemapUrl, long position) throws IOException {
+        progress.setProperty(sitemapUrl, Long.toString(position));
+        save();
+    }
+
+    void recordDone(String sitemapUrl) throws IOException {
+        progress.setProperty(sitemapUrl, DONE);
+        save();
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private void save() throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".part");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            progress.store(out, "Sitemap crawl checkpoint");
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
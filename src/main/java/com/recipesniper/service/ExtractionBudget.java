@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Limits on the work {@link IngredientExtractionService} spends on one page,
+ * so a page with a huge inline SVG or runaway markup costs a bounded amount
+ * of CPU and memory instead of stalling the workers and the heap for every
+ * other import. Exceeding a limit is not an error: extraction carries on with
+ * what it has, and the result is marked partial.
+ */
+@Component
+public class ExtractionBudget {
+
+    enum Limit {
+        INPUT_SIZE("input-size"),
+        DOM_NODES("dom-nodes"),
+        JSON_LD_SIZE("json-ld-size"),
+        DEADLINE("deadline");
+
+        private final String tag;
+
+        Limit(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final int maxInputChars;
+    private final int maxDomNodes;
+    private final int maxJsonLdChars;
+    private final long deadlineNanos;
+    private final Map<Limit, Counter> exceeded = new EnumMap<>(Limit.class);
+
+    public ExtractionBudget(@Value("${recipesniper.extraction.max-input-size:2MB}") DataSize maxInputSize,
+                            @Value("${recipesniper.extraction.max-dom-nodes:100000}") int maxDomNodes,
+                            @Value("${recipesniper.extraction.max-json-ld-size:512KB}") DataSize maxJsonLdSize,
+                            @Value("${recipesniper.extraction.deadline:2s}") Duration deadline,
+                            MeterRegistry meterRegistry) {
+        // Pages are already decoded, so sizes are compared in characters
+        this.maxInputChars = (int) Math.min(maxInputSize.toBytes(), Integer.MAX_VALUE);
+        this.maxDomNodes = maxDomNodes;
+        this.maxJsonLdChars = (int) Math.min(maxJsonLdSize.toBytes(), Integer.MAX_VALUE);
+        this.deadlineNanos = deadline.toNanos();
+        for (Limit limit : Limit.values()) {
+            exceeded.put(limit, Counter.builder("recipesniper.extraction.budget.exceeded")
+                    .description("Pages whose extraction stopped early at a budget")
+                    .tag("budget", limit.tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    int maxInputChars() {
+        return maxInputChars;
+    }
+
+    int maxDomNodes() {
+        return maxDomNodes;
+    }
+
+    int maxJsonLdChars() {
+        return maxJsonLdChars;
+    }
+
+    /**
+     * Starts the clock for one page.
+     */
+    Usage start() {
+        return new Usage(System.nanoTime() + deadlineNanos);
+    }
+
+    /**
+     * The budget as spent by one page. Not thread-safe; each extraction has
+     * its own.
+     */
+    final class Usage {
+
+        private final long deadline;
+        private final Set<Limit> exceededLimits = EnumSet.noneOf(Limit.class);
+
+        private Usage(long deadline) {
+            this.deadline = deadline;
+        }
+
+        /**
+         * Returns true, and records the overrun once, if the page is past its
+         * deadline.
+         */
+        boolean expired() {
+            if (System.nanoTime() - deadline > 0) {
+                exceed(Limit.DEADLINE);
+                return true;
+            }
+            return false;
+        }
+
+        void exceed(Limit limit) {
+            if (exceededLimits.add(limit)) {
+                exceeded.get(limit).increment();
+            }
+        }
+
+        /**
+         * Whether any limit was hit, meaning the result may be incomplete.
+         */
+        boolean partial() {
+            return !exceededLimits.isEmpty();
+        }
+
+        String describe() {
+            return exceededLimits.stream().map(limit -> limit.tag).reduce((a, b) -> a + "," + b).orElse("");
+        }
+    }
+}
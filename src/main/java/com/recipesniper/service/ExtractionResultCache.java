@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.recipesniper.repository.RecipeRepository;
+import com.recipesniper.service.IngredientExtractionService.ExtractedRecipe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Extraction results keyed by the SHA-256 of the page, so syndicated copies,
+ * print and AMP variants and re-imports of byte-identical content skip
+ * parsing. The site adapter that would handle the page is part of the key,
+ * since the same bytes can be extracted differently on a host with an
+ * adapter.
+ * <p>
+ * Recent results are held in memory. On a miss, and unless disabled, a stored
+ * recipe with the same content hash extracted by the current
+ * {@link IngredientExtractionService#VERSION} supplies the result instead, so
+ * the database acts as the persistent tier without storing anything twice.
+ * Results cut short by the extraction budget are stored without a version,
+ * so they are never served from here.
+ */
+@Component
+public class ExtractionResultCache {
+
+    static final String CACHE_NAME = "extractionResults";
+
+    record Key(String contentHash, String adapter) {
+    }
+
+    private final Cache<Key, ExtractedRecipe> memory;
+    private final RecipeRepository recipeRepository;
+    private final SiteAdapterRegistry siteAdapters;
+    private final boolean persistent;
+    private final Counter persistentHits;
+
+    public ExtractionResultCache(RecipeRepository recipeRepository,
+                                 SiteAdapterRegistry siteAdapters,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${recipesniper.extraction.cache.maximum-size:10000}") long maximumSize,
+                                 @Value("${recipesniper.extraction.cache.persistent:true}") boolean persistent) {
+        this.recipeRepository = recipeRepository;
+        this.siteAdapters = siteAdapters;
+        this.persistent = persistent;
+        this.memory = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, CACHE_NAME);
+        this.persistentHits = Counter.builder("recipesniper.extraction.cache.persistent.hits")
+                .description("Extractions answered by a stored recipe with the same content")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns what was extracted earlier from identical content, or null if
+     * nothing was.
+     */
+    ExtractedRecipe get(String contentHash, String adapter) {
+        Key key = new Key(contentHash, adapter);
+        ExtractedRecipe cached = memory.getIfPresent(key);
+        if (cached != null || !persistent) {
+            return cached;
+        }
+        ExtractedRecipe stored = recipeRepository
+                .findFirstByContentHashAndExtractorVersionOrderByIdDesc(contentHash, IngredientExtractionService.VERSION)
+                .filter(recipe -> Objects.equals(adapterFor(recipe.getUrl()), adapter))
+                .map(RecipeService::extracted)
+                .orElse(null);
+        if (stored != null) {
+            persistentHits.increment();
+            memory.put(key, stored);
+        }
+        return stored;
+    }
+
+    void put(String contentHash, String adapter, ExtractedRecipe extracted) {
+        memory.put(new Key(contentHash, adapter), extracted);
+    }
+
+    private String adapterFor(String url) {
+        SiteAdapter adapter = siteAdapters.find(IngredientExtractionService.hostOf(url));
+        return adapter != null ? adapter.name() : null;
+    }
+}
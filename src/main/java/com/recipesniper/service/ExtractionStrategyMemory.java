@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.entity.HostExtractionStrategy;
+import com.recipesniper.repository.HostExtractionStrategyRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers, per host, which extraction strategy found ingredients, so
+ * {@link IngredientExtractionService} can try it before the generic order.
+ * Each success of the remembered strategy raises its confidence up to
+ * {@value #MAX_CONFIDENCE}; each success of a different one halves it, and
+ * once it reaches zero the newer strategy takes over. A site that changes
+ * layout is therefore relearned within a few pages, while one odd page does
+ * not unseat a strategy that has worked many times.
+ * <p>
+ * Lookups are served from memory. Changes are written to the database in
+ * the background and loaded again at startup.
+ */
+@Component
+public class ExtractionStrategyMemory {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractionStrategyMemory.class);
+
+    static final int MAX_CONFIDENCE = 8;
+
+    record Entry(String strategy, int confidence) {
+    }
+
+    private final HostExtractionStrategyRepository repository;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    public ExtractionStrategyMemory(HostExtractionStrategyRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (HostExtractionStrategy stored : repository.findAll()) {
+            entries.putIfAbsent(stored.getHost(), new Entry(stored.getStrategy(), stored.getConfidence()));
+        }
+        log.info("Loaded extraction strategies for {} hosts", entries.size());
+    }
+
+    /**
+     * Returns the strategy to try first for a host, or null if none is known.
+     */
+    public String preferred(String host) {
+        Entry entry = entries.get(normalize(host));
+        return entry != null ? entry.strategy() : null;
+    }
+
+    public void recordSuccess(String host, String strategy) {
+        String key = normalize(host);
+        Entry before = entries.get(key);
+        Entry after = entries.merge(key, new Entry(strategy, 1), ExtractionStrategyMemory::next);
+        if (!after.equals(before)) {
+            dirty.add(key);
+        }
+    }
+
+    static Entry next(Entry current, Entry success) {
+        if (current.strategy().equals(success.strategy())) {
+            return new Entry(current.strategy(), Math.min(current.confidence() + 1, MAX_CONFIDENCE));
+        }
+        int decayed = current.confidence() / 2;
+        return decayed > 0 ? new Entry(current.strategy(), decayed) : success;
+    }
+
+    @Scheduled(fixedDelayString = "${recipesniper.extraction.strategy-flush-interval:PT30S}")
+    @PreDestroy
+    public void flush() {
+        List<HostExtractionStrategy> changed = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (String host : List.copyOf(dirty)) {
+            dirty.remove(host);
+            Entry entry = entries.get(host);
+            HostExtractionStrategy stored = new HostExtractionStrategy();
+            stored.setHost(host);
+            stored.setStrategy(entry.strategy());
+            stored.setConfidence(entry.confidence());
+            stored.setUpdatedAt(now);
+            changed.add(stored);
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        try {
+            repository.saveAll(changed);
+            log.debug("Saved extraction strategies for {} hosts", changed.size());
+        } catch (RuntimeException e) {
+            changed.forEach(stored -> dirty.add(stored.getHost()));
+            log.warn("Failed to save extraction strategies: {}", e.getMessage());
+        }
+    }
+
+    private static String normalize(String host) {
+        String lower = host.toLowerCase(Locale.ROOT);
+        return lower.startsWith("www.") ? lower.substring(4) : lower;
+    }
+}
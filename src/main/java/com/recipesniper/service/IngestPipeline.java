@@ -0,0 +1,262 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.dto.RecipeDetailResponse;
+import com.recipesniper.entity.Recipe;
+import com.recipesniper.service.IngredientExtractionService.ExtractedRecipe;
+import com.recipesniper.service.ScrapingService.Download;
+import com.recipesniper.service.ScrapingService.ScrapeResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import jakarta.annotation.PreDestroy;
+import org.jsoup.nodes.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Imports recipes through three stages connected by bounded queues, so the
+ * network-bound and CPU-bound parts of many imports overlap:
+ * <ol>
+ *   <li>fetch into the page archive, on virtual threads, at most
+ *       {@code fetch-concurrency} at once;</li>
+ *   <li>parse, extract and strip, on a pool sized to the CPUs, from a single
+ *       parse of each page;</li>
+ *   <li>persist, through the {@link RecipeBatchWriter}, which inserts recipes
+ *       in batches on a single connection.</li>
+ * </ol>
+ * A full queue blocks the stage feeding it, and a full fetch stage blocks
+ * {@link #submit}, so a large bulk import applies backpressure all the way
+ * back to its caller instead of piling up pages in memory.
+ */
+@Service
+public class IngestPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestPipeline.class);
+
+    private final ScrapingService scrapingService;
+    private final IngredientExtractionService extractionService;
+    private final RecipeBatchWriter recipeWriter;
+    private final Tracer tracer;
+    private final Semaphore fetchPermits;
+    private final BlockingQueue<Item> extractQueue;
+    private final ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService extractExecutor;
+    private final Timer fetchTimer;
+    private final Timer extractTimer;
+
+    public IngestPipeline(ScrapingService scrapingService,
+                          IngredientExtractionService extractionService,
+                          RecipeBatchWriter recipeWriter,
+                          MeterRegistry meterRegistry,
+                          Tracer tracer,
+                          @Value("${recipesniper.ingest.fetch-concurrency:16}") int fetchConcurrency,
+                          @Value("${recipesniper.ingest.extract-concurrency:0}") int extractConcurrency,
+                          @Value("${recipesniper.ingest.queue-capacity:32}") int queueCapacity) {
+        this.scrapingService = scrapingService;
+        this.extractionService = extractionService;
+        this.recipeWriter = recipeWriter;
+        this.tracer = tracer;
+        this.fetchPermits = new Semaphore(fetchConcurrency);
+        this.extractQueue = new ArrayBlockingQueue<>(queueCapacity);
+
+        int extractThreads = extractConcurrency > 0 ? extractConcurrency : Runtime.getRuntime().availableProcessors();
+        this.extractExecutor = startWorkers("ingest-extract-", extractThreads, this::extractLoop);
+
+        this.fetchTimer = stageTimer(meterRegistry, "fetch");
+        this.extractTimer = stageTimer(meterRegistry, "extract");
+        Gauge.builder("recipesniper.ingest.fetch.active", fetchPermits,
+                        permits -> fetchConcurrency - permits.availablePermits())
+                .description("Pages being fetched by the ingest pipeline")
+                .register(meterRegistry);
+        queueGauge(meterRegistry, "extract", extractQueue, BlockingQueue::size);
+        queueGauge(meterRegistry, "persist", recipeWriter, RecipeBatchWriter::queued);
+    }
+
+    /**
+     * Queues a URL for import, blocking while the fetch stage is at capacity.
+     * The URL should already have been checked against stored recipes; a
+     * recipe imported concurrently by another path is returned, not duplicated.
+     *
+     * @throws IllegalArgumentException if the URL is not an absolute http(s) URL
+     */
+    public CompletableFuture<RecipeDetailResponse> submit(String url) throws InterruptedException {
+        Item item = new Item(url, UrlCanonicalizer.canonicalize(url), Context.current());
+        fetchPermits.acquire();
+        try {
+            fetchExecutor.execute(() -> fetch(item));
+        } catch (RuntimeException e) {
+            fetchPermits.release();
+            throw e;
+        }
+        return item.result;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        fetchExecutor.shutdownNow();
+        extractExecutor.shutdownNow();
+        extractExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        for (Item item : List.copyOf(extractQueue)) {
+            item.result.completeExceptionally(new IllegalStateException("Ingest pipeline shut down"));
+        }
+    }
+
+    private void fetch(Item item) {
+        Span span = stageSpan("fetch", item);
+        long start = System.nanoTime();
+        try (Scope scope = span.makeCurrent()) {
+            item.download = scrapingService.download(item.url);
+            fetchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            // Blocks while extraction is behind, holding the fetch permit
+            extractQueue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(item, span, e);
+        } catch (Throwable e) {
+            fail(item, span, e);
+        } finally {
+            span.end();
+            fetchPermits.release();
+        }
+    }
+
+    private void extractLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Item item = extractQueue.take();
+                Span span = stageSpan("extract", item);
+                long start = System.nanoTime();
+                try (Scope scope = span.makeCurrent()) {
+                    Document doc = scrapingService.parse(item.download);
+                    String html = doc.html();
+                    // Extraction reads the document before stripping prunes it
+                    ExtractedRecipe extracted = extractionService.extractRecipe(doc, item.url, ContentHash.of(html));
+                    ScrapeResult scraped = scrapingService.result(item.download, doc, html);
+                    item.recipe = RecipeService.newRecipe(item.url, item.canonicalUrl, scraped, extracted);
+                    item.download = null;
+                    span.setAttribute("recipe.ingredientCount", extracted.ingredients().size());
+                    extractTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                } catch (Throwable e) {
+                    // Each worker runs this loop once, so even an Error only fails its page
+                    fail(item, span, e);
+                    continue;
+                } finally {
+                    span.end();
+                }
+                handOff(item);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handOff(Item item) throws InterruptedException {
+        try (Scope scope = item.context.makeCurrent()) {
+            // Blocks while the writer is behind
+            recipeWriter.write(item.recipe).whenComplete((response, e) -> {
+                if (e != null) {
+                    item.result.completeExceptionally(e);
+                } else {
+                    item.result.complete(response);
+                }
+            });
+        } catch (InterruptedException e) {
+            item.result.completeExceptionally(new IllegalStateException("Ingest pipeline shut down"));
+            throw e;
+        }
+    }
+
+    private Span stageSpan(String stage, Item item) {
+        return tracer.spanBuilder("IngestPipeline." + stage)
+                .setParent(item.context)
+                .setAttribute("recipe.url", item.url)
+                .startSpan();
+    }
+
+    private static void fail(Item item, Span span, Throwable e) {
+        span.setStatus(StatusCode.ERROR, e.getMessage());
+        span.recordException(e);
+        log.warn("Failed to ingest {}: {}", item.url, e.getMessage());
+        item.result.completeExceptionally(e);
+    }
+
+    private static ExecutorService startWorkers(String namePrefix, int count, Runnable loop) {
+        ExecutorService executor = Executors.newFixedThreadPool(count,
+                Thread.ofPlatform().name(namePrefix, 0).daemon(true).factory());
+        for (int i = 0; i < count; i++) {
+            executor.execute(loop);
+        }
+        return executor;
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("recipesniper.ingest.stage")
+                .description("Time spent in each ingest pipeline stage, excluding queueing")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private static <T> void queueGauge(MeterRegistry meterRegistry, String stage, T queue,
+                                       ToDoubleFunction<T> depth) {
+        Gauge.builder("recipesniper.ingest.queue.depth", queue, depth)
+                .description("Recipes waiting for an ingest pipeline stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One URL's progress through the pipeline. Each stage hands the item to
+     * the next through a queue, which publishes its fields safely.
+     */
+    private static final class Item {
+
+        final String url;
+        final String canonicalUrl;
+        final Context context;
+        final CompletableFuture<RecipeDetailResponse> result = new CompletableFuture<>();
+        Download download;
+        Recipe recipe;
+
+        Item(String url, String canonicalUrl, Context context) {
+            this.url = url;
+            this.canonicalUrl = canonicalUrl;
+            this.context = context;
+        }
+    }
+}
@@ -21,27 +21,38 @@ package com.recipesniper.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipesniper.dto.RecipeDetails;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Scope;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 public class IngredientExtractionService {
 
+    /**
+     * Bump whenever a change here alters what is extracted from a page, so
+     * stored recipes are picked up by {@link ReextractionService}.
+     */
+    public static final int VERSION = 3;
+
     private static final Logger log = LoggerFactory.getLogger(IngredientExtractionService.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -60,66 +71,367 @@ public class IngredientExtractionService {
     private static final Pattern QUANTITY_PATTERN =
             Pattern.compile("^(\\d+\\s+\\d+/\\d+|\\d+/\\d+|\\d+\\.\\d+|\\d+)\\s*(.*)$");
 
+    /**
+     * Name of the JSON-LD strategy; the HTML strategies are named by their
+     * CSS selector.
+     */
+    static final String JSON_LD = "json-ld";
+
+    // Common CSS selectors for ingredient lists, most specific first
+    static final List<String> SELECTORS = List.of(
+            ".wprm-recipe-ingredients li",
+            ".recipe-ingredients li",
+            ".ingredients li",
+            "[class*=ingredient] li",
+            "[itemprop=recipeIngredient]"
+    );
+
+    private static final List<String> STRATEGIES =
+            Stream.concat(Stream.of(JSON_LD), SELECTORS.stream()).toList();
+
     private final Tracer tracer;
+    private final ExtractionStrategyMemory strategyMemory;
+    private final SiteAdapterRegistry siteAdapters;
+    private final ExtractionResultCache resultCache;
+    private final ExtractionBudget budget;
 
-    public IngredientExtractionService(Tracer tracer) {
+    public IngredientExtractionService(Tracer tracer, ExtractionStrategyMemory strategyMemory,
+                                       SiteAdapterRegistry siteAdapters, ExtractionResultCache resultCache,
+                                       ExtractionBudget budget) {
         this.tracer = tracer;
+        this.strategyMemory = strategyMemory;
+        this.siteAdapters = siteAdapters;
+        this.resultCache = resultCache;
+        this.budget = budget;
     }
 
     public record ParsedIngredient(String name, String quantity, String unit, String rawText) {
     }
 
+    /**
+     * Everything extracted from one page.
+     *
+     * @param partial whether extraction hit its {@link ExtractionBudget} and stopped early
+     */
+    public record ExtractedRecipe(List<ParsedIngredient> ingredients, RecipeDetails details, boolean partial) {
+
+        static final ExtractedRecipe NONE = new ExtractedRecipe(List.of(), RecipeDetails.EMPTY);
+
+        public ExtractedRecipe {
+            ingredients = List.copyOf(ingredients);
+        }
+
+        public ExtractedRecipe(List<ParsedIngredient> ingredients, RecipeDetails details) {
+            this(ingredients, details, false);
+        }
+
+        /**
+         * The extractor version to store with this result. A partial result
+         * gets none, so re-extraction retries it and the persistent tier of
+         * {@link ExtractionResultCache} never serves it.
+         */
+        public Integer extractorVersion() {
+            return partial ? null : VERSION;
+        }
+    }
+
     public List<ParsedIngredient> extract(String html) {
+        return extract(html, null);
+    }
+
+    /**
+     * Extracts ingredients from a page of {@code url}.
+     *
+     * @see #extractRecipe(String, String, String)
+     */
+    public List<ParsedIngredient> extract(String html, String url) {
+        return extractRecipe(html, url).ingredients();
+    }
+
+    public ExtractedRecipe extractRecipe(String html, String url) {
+        return extractRecipe(html, url, ContentHash.of(html));
+    }
+
+    /**
+     * Extracts the ingredients and {@link RecipeDetails} from a page of
+     * {@code url}, whose SHA-256 the caller has already computed.
+     * <p>
+     * Ingredients: a {@link SiteAdapter} registered for the URL's host is
+     * tried first. Otherwise, or if it finds nothing, the strategy that last
+     * worked for the host is tried before the rest, and the one that works
+     * this time is remembered for the host's next page.
+     * <p>
+     * Details come from the same JSON-LD Recipe node, or failing that from
+     * the page's microdata. JSON-LD blocks and {@code itemprop} elements are
+     * picked out while the page is parsed, so neither needs a further walk
+     * of the document.
+     * <p>
+     * Content extracted before, under any URL, is answered from
+     * {@link ExtractionResultCache} without parsing. Work on the page is
+     * bounded by {@link ExtractionBudget}; if a limit is hit, whatever was
+     * found within it is returned, marked partial and not cached.
+     */
+    public ExtractedRecipe extractRecipe(String html, String url, String contentHash) {
+        return extractRecipe(url, contentHash, usage -> parse(html, usage));
+    }
+
+    /**
+     * Extracts from a page the caller has already parsed, as
+     * {@link #extractRecipe(String, String, String)} does from its HTML. The
+     * document is only read, and since it is already built the budget bounds
+     * just the walk over it, not its size.
+     */
+    public ExtractedRecipe extractRecipe(Document doc, String url, String contentHash) {
+        return extractRecipe(url, contentHash, usage -> pageOf(doc, usage));
+    }
+
+    private ExtractedRecipe extractRecipe(String url, String contentHash,
+                                          Function<ExtractionBudget.Usage, Page> parser) {
         Span span = tracer.spanBuilder("IngredientExtractionService.extract").startSpan();
 
         try (Scope scope = span.makeCurrent()) {
-            Document doc = Jsoup.parse(html);
+            String host = hostOf(url);
+            SiteAdapter adapter = siteAdapters.find(host);
+            String adapterName = adapter != null ? adapter.name() : null;
 
-            // Try JSON-LD first
-            List<ParsedIngredient> ingredients = extractFromJsonLd(doc);
-            if (!ingredients.isEmpty()) {
-                span.setAttribute("extraction.method", "json-ld");
-                span.setAttribute("extraction.count", ingredients.size());
-                log.info("Extracted {} ingredients via JSON-LD", ingredients.size());
-                return ingredients;
+            ExtractedRecipe cached = resultCache.get(contentHash, adapterName);
+            if (cached != null) {
+                span.setAttribute("extraction.cached", true);
+                span.setAttribute("extraction.count", cached.ingredients().size());
+                log.debug("Reused {} ingredients extracted from identical content", cached.ingredients().size());
+                return cached;
             }
 
-            // Fallback to HTML parsing
-            ingredients = extractFromHtml(doc);
-            span.setAttribute("extraction.method", "html-fallback");
-            span.setAttribute("extraction.count", ingredients.size());
-            log.info("Extracted {} ingredients via HTML fallback", ingredients.size());
-            return ingredients;
+            Page page = parser.apply(budget.start());
+            List<ParsedIngredient> ingredients = extractIngredients(page, host, adapter, span);
+            ExtractionBudget.Usage usage = page.usage;
+            ExtractedRecipe extracted = new ExtractedRecipe(ingredients, extractDetails(page), usage.partial());
+            if (usage.partial()) {
+                span.setAttribute("extraction.budget.exceeded", usage.describe());
+                log.warn("Extraction of {} stopped early at its {} budget, found {} ingredients",
+                        url, usage.describe(), ingredients.size());
+            } else {
+                resultCache.put(contentHash, adapterName, extracted);
+            }
+            return extracted;
         } catch (Exception e) {
             span.setStatus(StatusCode.ERROR, e.getMessage());
             span.recordException(e);
             log.error("Failed to extract ingredients", e);
-            return List.of();
+            return ExtractedRecipe.NONE;
         } finally {
             span.end();
         }
     }
 
-    private List<ParsedIngredient> extractFromJsonLd(Document doc) {
-        Elements scripts = doc.select("script[type=application/ld+json]");
-        for (Element script : scripts) {
-            try {
-                JsonNode root = objectMapper.readTree(script.html());
-                List<ParsedIngredient> ingredients = findRecipeIngredients(root);
-                if (!ingredients.isEmpty()) {
-                    return ingredients;
+    /**
+     * A page being extracted: its document, the JSON-LD blocks and microdata
+     * elements seen while parsing it, and its share of the budget.
+     */
+    private final class Page {
+
+        final Document doc;
+        final List<Element> jsonLdScripts;
+        final List<Element> microdata;
+        final ExtractionBudget.Usage usage;
+        private List<JsonNode> recipeNodes;
+        private JsonNode ingredientSource;
+
+        Page(Document doc, List<Element> jsonLdScripts, List<Element> microdata, ExtractionBudget.Usage usage) {
+            this.doc = doc;
+            this.jsonLdScripts = jsonLdScripts;
+            this.microdata = microdata;
+            this.usage = usage;
+        }
+
+        /**
+         * The Recipe nodes of the page's JSON-LD, at most one per block,
+         * parsed on first use.
+         */
+        List<JsonNode> recipeNodes() {
+            if (recipeNodes == null) {
+                recipeNodes = new ArrayList<>();
+                for (Element script : jsonLdScripts) {
+                    String json = script.html();
+                    if (json.length() > budget.maxJsonLdChars()) {
+                        // Recipe blocks are a few KB; anything this large is a data dump
+                        usage.exceed(ExtractionBudget.Limit.JSON_LD_SIZE);
+                        continue;
+                    }
+                    try {
+                        JsonNode recipe = findRecipeNode(objectMapper.readTree(json));
+                        if (recipe != null) {
+                            recipeNodes.add(recipe);
+                        }
+                    } catch (Exception e) {
+                        log.debug("Failed to parse JSON-LD block: {}", e.getMessage());
+                    }
+                }
+            }
+            return recipeNodes;
+        }
+    }
+
+    /**
+     * Parses at most the input budget's worth of the page and stops building
+     * the tree once it holds the node budget or the deadline passes, leaving
+     * a truncated but well-formed document.
+     */
+    private Page parse(String html, ExtractionBudget.Usage usage) {
+        String input = html;
+        if (input.length() > budget.maxInputChars()) {
+            usage.exceed(ExtractionBudget.Limit.INPUT_SIZE);
+            input = input.substring(0, budget.maxInputChars());
+        }
+        List<Element> jsonLdScripts = new ArrayList<>();
+        List<Element> microdata = new ArrayList<>();
+        try (StreamParser parser = new StreamParser(Parser.htmlParser()).parse(input, "")) {
+            Iterator<Element> elements = parser.iterator();
+            int nodes = 0;
+            while (elements.hasNext()) {
+                collect(elements.next(), jsonLdScripts, microdata);
+                if (++nodes > budget.maxDomNodes()) {
+                    usage.exceed(ExtractionBudget.Limit.DOM_NODES);
+                    parser.stop();
+                } else if (nodes % 1024 == 0 && usage.expired()) {
+                    parser.stop();
                 }
-            } catch (Exception e) {
-                log.debug("Failed to parse JSON-LD block: {}", e.getMessage());
+            }
+            return new Page(parser.document(), jsonLdScripts, microdata, usage);
+        }
+    }
+
+    private Page pageOf(Document doc, ExtractionBudget.Usage usage) {
+        List<Element> jsonLdScripts = new ArrayList<>();
+        List<Element> microdata = new ArrayList<>();
+        int nodes = 0;
+        for (Element element : doc.getAllElements()) {
+            collect(element, jsonLdScripts, microdata);
+            if (++nodes > budget.maxDomNodes()) {
+                usage.exceed(ExtractionBudget.Limit.DOM_NODES);
+                break;
+            } else if (nodes % 1024 == 0 && usage.expired()) {
+                break;
+            }
+        }
+        return new Page(doc, jsonLdScripts, microdata, usage);
+    }
+
+    private static void collect(Element element, List<Element> jsonLdScripts, List<Element> microdata) {
+        if (element.hasAttr("itemprop")) {
+            microdata.add(element);
+        } else if ("script".equals(element.normalName())
+                && "application/ld+json".equalsIgnoreCase(element.attr("type"))) {
+            jsonLdScripts.add(element);
+        }
+    }
+
+    private List<ParsedIngredient> extractIngredients(Page page, String host, SiteAdapter adapter, Span span) {
+        if (adapter != null) {
+            List<ParsedIngredient> ingredients = applyAdapter(adapter, page.doc);
+            if (!ingredients.isEmpty()) {
+                span.setAttribute("extraction.method", "site-adapter");
+                span.setAttribute("extraction.adapter", adapter.name());
+                span.setAttribute("extraction.count", ingredients.size());
+                log.info("Extracted {} ingredients via site adapter {}", ingredients.size(), adapter.name());
+                return ingredients;
             }
         }
+
+        String preferred = host != null ? strategyMemory.preferred(host) : null;
+
+        if (preferred != null) {
+            List<ParsedIngredient> ingredients = apply(preferred, page);
+            if (!ingredients.isEmpty()) {
+                span.setAttribute("extraction.remembered", true);
+                return found(preferred, host, ingredients, span);
+            }
+        }
+
+        for (String strategy : STRATEGIES) {
+            if (strategy.equals(preferred)) {
+                continue;
+            }
+            List<ParsedIngredient> ingredients = apply(strategy, page);
+            if (!ingredients.isEmpty()) {
+                return found(strategy, host, ingredients, span);
+            }
+            if (page.usage.expired()) {
+                break;
+            }
+        }
+
+        span.setAttribute("extraction.method", "html-fallback");
+        span.setAttribute("extraction.count", 0);
+        log.info("Extracted 0 ingredients via HTML fallback");
         return List.of();
     }
 
-    private List<ParsedIngredient> findRecipeIngredients(JsonNode node) {
+    private RecipeDetails extractDetails(Page page) {
+        List<JsonNode> recipes = page.recipeNodes();
+        if (!recipes.isEmpty()) {
+            // Prefer the node the ingredients came from, if JSON-LD supplied them
+            return RecipeDetailsExtractor.fromJsonLd(
+                    page.ingredientSource != null ? page.ingredientSource : recipes.getFirst());
+        }
+        return RecipeDetailsExtractor.fromMicrodata(page.microdata);
+    }
+
+    private List<ParsedIngredient> found(String strategy, String host, List<ParsedIngredient> ingredients,
+                                         Span span) {
+        if (host != null) {
+            strategyMemory.recordSuccess(host, strategy);
+        }
+        boolean jsonLd = JSON_LD.equals(strategy);
+        span.setAttribute("extraction.method", jsonLd ? "json-ld" : "html-fallback");
+        if (!jsonLd) {
+            span.setAttribute("extraction.selector", strategy);
+        }
+        span.setAttribute("extraction.count", ingredients.size());
+        log.info("Extracted {} ingredients via {}", ingredients.size(), jsonLd ? "JSON-LD" : "HTML fallback");
+        return ingredients;
+    }
+
+    private List<ParsedIngredient> applyAdapter(SiteAdapter adapter, Document doc) {
+        try {
+            return adapter.extract(doc);
+        } catch (RuntimeException e) {
+            // A broken adapter must not cost us the page; the generic path still runs
+            log.warn("Site adapter {} failed: {}", adapter.name(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    private List<ParsedIngredient> apply(String strategy, Page page) {
+        return JSON_LD.equals(strategy) ? extractFromJsonLd(page) : extractWithSelector(page.doc, strategy);
+    }
+
+    static String hostOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            return URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private List<ParsedIngredient> extractFromJsonLd(Page page) {
+        for (JsonNode recipe : page.recipeNodes()) {
+            List<ParsedIngredient> ingredients = parseIngredientArray(recipe.get("recipeIngredient"));
+            if (!ingredients.isEmpty()) {
+                page.ingredientSource = recipe;
+                return ingredients;
+            }
+        }
+        return List.of();
+    }
+
+    private JsonNode findRecipeNode(JsonNode node) {
         // Direct Recipe type
         if (isRecipeNode(node)) {
-            return parseIngredientArray(node.get("recipeIngredient"));
+            return node;
         }
 
         // Check @graph array
@@ -127,7 +439,7 @@ public class IngredientExtractionService {
         if (graph != null && graph.isArray()) {
             for (JsonNode item : graph) {
                 if (isRecipeNode(item)) {
-                    return parseIngredientArray(item.get("recipeIngredient"));
+                    return item;
                 }
             }
         }
@@ -136,12 +448,12 @@ public class IngredientExtractionService {
         if (node.isArray()) {
             for (JsonNode item : node) {
                 if (isRecipeNode(item)) {
-                    return parseIngredientArray(item.get("recipeIngredient"));
+                    return item;
                 }
             }
         }
 
-        return List.of();
+        return null;
     }
 
     private boolean isRecipeNode(JsonNode node) {
@@ -177,31 +489,14 @@ public class IngredientExtractionService {
         return result;
     }
 
-    private List<ParsedIngredient> extractFromHtml(Document doc) {
+    private List<ParsedIngredient> extractWithSelector(Document doc, String selector) {
         List<ParsedIngredient> ingredients = new ArrayList<>();
-
-        // Common CSS selectors for ingredient lists
-        String[] selectors = {
-                ".wprm-recipe-ingredients li",
-                ".recipe-ingredients li",
-                ".ingredients li",
-                "[class*=ingredient] li",
-                "[itemprop=recipeIngredient]"
-        };
-
-        for (String selector : selectors) {
-            Elements elements = doc.select(selector);
-            if (!elements.isEmpty()) {
-                for (Element el : elements) {
-                    String text = el.text().trim();
-                    if (!text.isEmpty()) {
-                        ingredients.add(parseIngredientString(text));
-                    }
-                }
-                return ingredients;
+        for (Element el : doc.select(selector)) {
+            String text = el.text().trim();
+            if (!text.isEmpty()) {
+                ingredients.add(parseIngredientString(text));
             }
         }
-
         return ingredients;
     }
 
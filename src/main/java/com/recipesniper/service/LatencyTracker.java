@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Sliding window over a host's most recent time-to-headers samples, used to
+ * pick the delay after which a request gets hedged.
+ */
+class LatencyTracker {
+
+    static final int WINDOW = 128;
+    static final int MIN_SAMPLES = 20;
+
+    private final long[] samples = new long[WINDOW];
+    private int next;
+    private int size;
+
+    synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % WINDOW;
+        size = Math.min(size + 1, WINDOW);
+    }
+
+    /**
+     * @return the percentile over the window, or null until there are enough
+     * samples for it to mean anything
+     */
+    synchronized Duration percentile(double percentile) {
+        if (size < MIN_SAMPLES) {
+            return null;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * size) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, index)]);
+    }
+}
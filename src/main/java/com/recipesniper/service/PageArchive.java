@@ -0,0 +1,358 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk archive of scraped pages. Each page is stored under a file named by
+ * the SHA-256 of its URL, after a readable prefix of the URL, exactly as
+ * received (after content decoding), next to
+ * a small properties file holding the HTTP validators (ETag, Last-Modified,
+ * Cache-Control max-age) and declared charset from the response that produced
+ * it, so a later scrape can revalidate instead of re-download.
+ * <p>
+ * With {@code recipesniper.scrape.compress-archive} set, pages are written
+ * gzipped as {@code .html.gz}, which typically cuts them to a fifth. Pages
+ * archived in the other form are still found and read, and are replaced by
+ * the configured form when next saved.
+ */
+@Component
+public class PageArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(PageArchive.class);
+
+    private static final int MAX_PREFIX_LENGTH = 80;
+
+    private static final Pattern ARCHIVE_FILE = Pattern.compile(".*\\.html(\\.gz|\\.meta)?");
+    private static final Pattern HASHED_FILE = Pattern.compile(".*-[0-9a-f]{64}\\.html(\\.gz|\\.meta)?");
+
+    private final Path storageDir;
+    private final boolean compress;
+
+    public PageArchive(@Value("${recipesniper.scrape.storage-dir:./data/pages}") Path storageDir,
+                       @Value("${recipesniper.scrape.compress-archive:false}") boolean compress) {
+        this.storageDir = storageDir;
+        this.compress = compress;
+    }
+
+    /**
+     * An archived page's file, in the form it was saved.
+     *
+     * @param charset the charset its response declared, or null if none
+     */
+    public record ArchivedFile(Path path, boolean compressed, String charset) {
+    }
+
+    public record Validators(String etag, String lastModified, Instant fetchedAt, Duration maxAge,
+                             String charset) {
+
+        public boolean isFresh(Instant now) {
+            return maxAge != null && fetchedAt.plus(maxAge).isAfter(now);
+        }
+    }
+
+    /**
+     * Where a page of {@code url} is saved in the configured form.
+     */
+    public Path pathFor(String url) {
+        return compress ? gzipPath(plainPath(url)) : plainPath(url);
+    }
+
+    /**
+     * Returns the archived copy of a page, in whichever form it was saved.
+     */
+    public Optional<Path> find(String url) {
+        Path plain = plainPath(url);
+        Path gzipped = gzipPath(plain);
+        for (Path page : compress ? List.of(gzipped, plain) : List.of(plain, gzipped)) {
+            if (Files.exists(page)) {
+                return Optional.of(page);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns an archived page's file without reading it, for serving as is.
+     */
+    public Optional<ArchivedFile> archivedFile(String url) {
+        return find(url).map(page -> new ArchivedFile(page, isCompressed(page),
+                validators(url).map(Validators::charset).orElse(null)));
+    }
+
+    public static boolean isCompressed(Path page) {
+        return page.getFileName().toString().endsWith(".gz");
+    }
+
+    /**
+     * Opens an archived page for reading, decompressing it if it was saved
+     * gzipped.
+     */
+    public static InputStream open(Path page) throws IOException {
+        InputStream in = Files.newInputStream(page);
+        return isCompressed(page) ? new GZIPInputStream(in) : in;
+    }
+
+    private Path plainPath(String url) {
+        // The prefix only helps a person browsing the directory; the hash tells URLs apart
+        String prefix = url.replaceFirst("^https?://", "").replaceAll("[^a-zA-Z0-9.-]", "_");
+        if (prefix.length() > MAX_PREFIX_LENGTH) {
+            prefix = prefix.substring(0, MAX_PREFIX_LENGTH);
+        }
+        return storageDir.resolve(prefix + "-" + ContentHash.of(url) + ".html");
+    }
+
+    /**
+     * The name pages were archived under before names carried a hash of the
+     * URL. Different URLs could share it.
+     */
+    static String legacyName(String url) {
+        String safeName = url.replaceAll("[^a-zA-Z0-9.-]", "_");
+        if (safeName.length() > 200) {
+            safeName = safeName.substring(0, 200);
+        }
+        return safeName + ".html";
+    }
+
+    /**
+     * Whether any page is still archived under a {@link #legacyName}.
+     */
+    public boolean hasLegacyPages() throws IOException {
+        if (!Files.isDirectory(storageDir)) {
+            return false;
+        }
+        try (Stream<Path> files = Files.list(storageDir)) {
+            return files.anyMatch(PageArchive::isLegacy);
+        }
+    }
+
+    /**
+     * Renames pages archived under a {@link #legacyName}, with their
+     * validators, to the names used now. A legacy file goes to the one URL
+     * among {@code urls} that maps to it or, where several do, to the URL its
+     * validators were saved for. A page archived again under its new name
+     * since wins over the legacy copy. Legacy files left over belong to no
+     * known URL, or to one that cannot be told apart, and are deleted since
+     * nothing can look them up any more.
+     *
+     * @return how many URLs had their page renamed
+     */
+    public int migrateLegacyPages(Collection<String> urls) throws IOException {
+        Map<String, List<String>> byLegacyName = urls.stream()
+                .distinct()
+                .collect(Collectors.groupingBy(PageArchive::legacyName));
+        int migrated = 0;
+        for (Map.Entry<String, List<String>> entry : byLegacyName.entrySet()) {
+            Path legacy = storageDir.resolve(entry.getKey());
+            List<String> claimants = entry.getValue();
+            String owner = claimants.size() == 1
+                    ? claimants.getFirst()
+                    : recordedUrl(metaPath(legacy)).filter(claimants::contains).orElse(null);
+            if (owner != null && moveLegacy(legacy, plainPath(owner))) {
+                migrated++;
+            }
+        }
+        List<Path> leftOver;
+        try (Stream<Path> files = Files.list(storageDir)) {
+            leftOver = files.filter(PageArchive::isLegacy).toList();
+        }
+        for (Path file : leftOver) {
+            Files.deleteIfExists(file);
+        }
+        if (!leftOver.isEmpty()) {
+            log.info("Deleted {} archive files that no stored recipe could claim", leftOver.size());
+        }
+        return migrated;
+    }
+
+    private static boolean moveLegacy(Path legacy, Path plain) throws IOException {
+        boolean moved = false;
+        for (Path[] rename : List.of(
+                new Path[] {legacy, plain},
+                new Path[] {gzipPath(legacy), gzipPath(plain)},
+                new Path[] {metaPath(legacy), metaPath(plain)})) {
+            if (!Files.exists(rename[0])) {
+                continue;
+            }
+            if (Files.exists(rename[1])) {
+                Files.delete(rename[0]);
+            } else {
+                Files.move(rename[0], rename[1], StandardCopyOption.ATOMIC_MOVE);
+                moved = true;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * The URL a validators file was written for, which {@link #saveValidators}
+     * leaves as its first comment line.
+     */
+    private static Optional<String> recordedUrl(Path meta) throws IOException {
+        if (!Files.exists(meta)) {
+            return Optional.empty();
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(meta), StandardCharsets.UTF_8))) {
+            String first = reader.readLine();
+            return first != null && first.startsWith("#") ? Optional.of(first.substring(1)) : Optional.empty();
+        }
+    }
+
+    private static boolean isLegacy(Path file) {
+        String name = file.getFileName().toString();
+        return ARCHIVE_FILE.matcher(name).matches() && !HASHED_FILE.matcher(name).matches();
+    }
+
+    private static Path gzipPath(Path plain) {
+        return plain.resolveSibling(plain.getFileName() + ".gz");
+    }
+
+    /**
+     * Copies a page body into the archive. The bytes land in a temporary file
+     * first, so a failed or abandoned download never replaces a good copy.
+     */
+    public Path save(String url, InputStream body) throws IOException {
+        Files.createDirectories(storageDir);
+        Path savedFile = pathFor(url);
+        Path partial = Files.createTempFile(storageDir, savedFile.getFileName().toString(), ".part");
+        try {
+            if (compress) {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial))) {
+                    body.transferTo(out);
+                }
+            } else {
+                Files.copy(body, partial, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(partial, savedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        // Drop a copy left in the other form, so the page is found in one place only
+        Files.deleteIfExists(compress ? plainPath(url) : gzipPath(plainPath(url)));
+        return savedFile;
+    }
+
+    /**
+     * Reads an archived page, decoding it with the charset recorded when it
+     * was fetched, or UTF-8 when none was.
+     */
+    public Optional<String> read(String url) throws IOException {
+        Optional<Path> page = find(url);
+        if (page.isEmpty()) {
+            return Optional.empty();
+        }
+        Charset charset = validators(url)
+                .map(Validators::charset)
+                .flatMap(PageArchive::charsetNamed)
+                .orElse(StandardCharsets.UTF_8);
+        try (InputStream in = open(page.get())) {
+            return Optional.of(new String(in.readAllBytes(), charset));
+        }
+    }
+
+    /**
+     * Returns the validators stored for a URL, provided the archived page they
+     * describe is still on disk.
+     */
+    public Optional<Validators> validators(String url) {
+        Path meta = metaPath(plainPath(url));
+        if (find(url).isEmpty() || !Files.exists(meta)) {
+            return Optional.empty();
+        }
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(meta)) {
+            props.load(reader);
+            String maxAge = props.getProperty("maxAge");
+            return Optional.of(new Validators(
+                    props.getProperty("etag"),
+                    props.getProperty("lastModified"),
+                    Instant.parse(props.getProperty("fetchedAt")),
+                    maxAge != null ? Duration.ofSeconds(Long.parseLong(maxAge)) : null,
+                    props.getProperty("charset")));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable validators for {}: {}", url, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void saveValidators(String url, Validators validators) throws IOException {
+        Properties props = new Properties();
+        if (validators.etag() != null) {
+            props.setProperty("etag", validators.etag());
+        }
+        if (validators.lastModified() != null) {
+            props.setProperty("lastModified", validators.lastModified());
+        }
+        if (validators.maxAge() != null) {
+            props.setProperty("maxAge", String.valueOf(validators.maxAge().toSeconds()));
+        }
+        if (validators.charset() != null) {
+            props.setProperty("charset", validators.charset());
+        }
+        props.setProperty("fetchedAt", validators.fetchedAt().toString());
+
+        Files.createDirectories(storageDir);
+        try (Writer writer = Files.newBufferedWriter(metaPath(plainPath(url)))) {
+            props.store(writer, url);
+        }
+    }
+
+    private static Optional<Charset> charsetNamed(String name) {
+        try {
+            return Optional.of(Charset.forName(name));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Path metaPath(Path page) {
+        return page.resolveSibling(page.getFileName() + ".meta");
+    }
+}
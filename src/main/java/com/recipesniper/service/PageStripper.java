@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides how much of a scraped page is stored in {@code Recipe.rawHtml}.
+ * <p>
+ * In {@code stripped} mode, the default, only what extraction reads is kept:
+ * the title, the JSON-LD blocks that mention a Recipe, and the recipe card,
+ * meaning whatever the host's {@link SiteAdapter}, a microdata Recipe or the
+ * generic ingredient selectors match. The card's ancestors stay as empty
+ * shells with their attributes, so selectors and microdata scopes that rely
+ * on them still match the stored copy. A page where nothing matches keeps its
+ * body without scripts, styles and page chrome, so a later extractor version
+ * can still try it. In {@code full} mode the page is stored as scraped.
+ * <p>
+ * The full original is in the {@link PageArchive} either way, which can keep
+ * it gzipped.
+ */
+@Component
+public class PageStripper {
+
+    public enum Mode {
+        FULL,
+        STRIPPED
+    }
+
+    // Never part of what extraction reads, wherever they appear; microdata may use meta and link
+    private static final String NOISE =
+            "script, style, noscript, iframe, svg, template, link:not([itemprop]), meta:not([itemprop])";
+
+    // Page chrome, only removed wholesale when no recipe card was found
+    private static final String CHROME = "nav, header, footer, aside, form";
+
+    private final Mode mode;
+    private final SiteAdapterRegistry siteAdapters;
+
+    public PageStripper(@Value("${recipesniper.storage.raw-html:stripped}") Mode mode,
+                        SiteAdapterRegistry siteAdapters) {
+        this.mode = mode;
+        this.siteAdapters = siteAdapters;
+    }
+
+    /**
+     * Returns what to store for a page, given its parsed document and the
+     * document's serialized {@code html}. In stripped mode the document is
+     * pruned in place, so callers must be done with it.
+     */
+    public String stored(Document doc, String html) {
+        if (mode == Mode.FULL) {
+            return html;
+        }
+        String title = doc.title();
+        List<Element> jsonLd = new ArrayList<>();
+        for (Element script : doc.getElementsByTag("script")) {
+            if ("application/ld+json".equalsIgnoreCase(script.attr("type")) && script.data().contains("Recipe")) {
+                jsonLd.add(script);
+            }
+        }
+        Set<Element> cards = recipeCards(doc);
+
+        jsonLd.forEach(Element::remove);
+        Element body = doc.body();
+        if (cards.isEmpty()) {
+            body.select(NOISE + ", " + CHROME).remove();
+            removeComments(body);
+        } else {
+            prune(body, cards, ancestors(cards));
+        }
+        Element head = doc.head();
+        head.empty();
+        doc.title(title);
+        jsonLd.forEach(head::appendChild);
+        return doc.html();
+    }
+
+    /**
+     * The outermost elements matched by the site adapter's card selector, by
+     * a microdata Recipe scope or by a generic ingredient selector.
+     */
+    private Set<Element> recipeCards(Document doc) {
+        List<Element> matches = new ArrayList<>();
+        SiteAdapter adapter = siteAdapters.find(IngredientExtractionService.hostOf(doc.location()));
+        if (adapter != null) {
+            matches.addAll(doc.select(adapter.cardSelector()));
+        }
+        for (Element scope : doc.getElementsByAttribute("itemtype")) {
+            if (scope.attr("itemtype").endsWith("/Recipe")) {
+                matches.add(scope);
+            }
+        }
+        for (String selector : IngredientExtractionService.SELECTORS) {
+            matches.addAll(doc.select(selector));
+        }
+
+        Set<Element> all = identitySet();
+        all.addAll(matches);
+        Set<Element> cards = identitySet();
+        for (Element match : matches) {
+            if (match.parents().stream().noneMatch(all::contains)) {
+                cards.add(match);
+            }
+        }
+        return cards;
+    }
+
+    private static Set<Element> ancestors(Set<Element> cards) {
+        Set<Element> ancestors = identitySet();
+        for (Element card : cards) {
+            ancestors.addAll(card.parents());
+        }
+        return ancestors;
+    }
+
+    /**
+     * Removes everything under {@code element} except the cards and the path
+     * down to them, and cleans the cards of noise.
+     */
+    private static void prune(Element element, Set<Element> cards, Set<Element> path) {
+        for (Node child : new ArrayList<>(element.childNodes())) {
+            if (child instanceof Element el && cards.contains(el)) {
+                el.select(NOISE).remove();
+                removeComments(el);
+            } else if (child instanceof Element el && path.contains(el)) {
+                prune(el, cards, path);
+            } else {
+                child.remove();
+            }
+        }
+    }
+
+    private static void removeComments(Element element) {
+        List<Node> comments = new ArrayList<>();
+        element.forEachNode(node -> {
+            if (node instanceof Comment) {
+                comments.add(node);
+            }
+        });
+        comments.forEach(Node::remove);
+    }
+
+    private static Set<Element> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
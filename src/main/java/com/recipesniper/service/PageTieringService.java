@@ -0,0 +1,254 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.dto.PageTierStatsResponse;
+import com.recipesniper.repository.HotPage;
+import com.recipesniper.repository.RecipeRepository;
+import com.recipesniper.repository.StoredPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves stored pages out of the database once nobody is likely to need them.
+ * A recipe whose ingredients and page have both been unchanged for the
+ * configured age has its {@code rawHtml} written to a {@link ColdPageStore}
+ * segment and replaced by a reference to it, which keeps the H2 file, its
+ * compaction and its backups down to the pages still in use. Readers get a page from either tier through
+ * {@link ColdPageStore#load}. Pages can be moved back one at a time or all
+ * together; a re-crawl that changes a page stores it in the row again.
+ */
+@Service
+public class PageTieringService {
+
+    private static final Logger log = LoggerFactory.getLogger(PageTieringService.class);
+
+    private final RecipeRepository recipeRepository;
+    private final ColdPageStore coldPageStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Tracer tracer;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Counter moved;
+    private final Counter restored;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public PageTieringService(RecipeRepository recipeRepository,
+                              ColdPageStore coldPageStore,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              Tracer tracer,
+                              @Value("${recipesniper.storage.tiering.enabled:true}") boolean enabled,
+                              @Value("${recipesniper.storage.tiering.min-age:P90D}") Duration minAge,
+                              @Value("${recipesniper.storage.tiering.batch-size:25}") int batchSize) {
+        this.recipeRepository = recipeRepository;
+        this.coldPageStore = coldPageStore;
+        this.transactionTemplate = transactionTemplate;
+        this.tracer = tracer;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.moved = pagesCounter(meterRegistry, "moved");
+        this.restored = pagesCounter(meterRegistry, "restored");
+    }
+
+    private static Counter pagesCounter(MeterRegistry meterRegistry, String action) {
+        return Counter.builder("recipesniper.storage.tiering.pages")
+                .description("Stored pages moved between the database and cold storage")
+                .tag("action", action)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${recipesniper.storage.tiering.initial-delay:PT10M}",
+            fixedDelayString = "${recipesniper.storage.tiering.interval:P1D}")
+    public void moveColdPagesOnSchedule() {
+        if (enabled) {
+            try {
+                moveColdPages();
+            } catch (JobAlreadyRunningException e) {
+                log.info("Page tiering already in progress, skipping");
+            }
+        }
+    }
+
+    /**
+     * Moves the pages of recipes unchanged for at least the configured age to
+     * cold storage. Pages are read a batch at a time, as those not yet moved
+     * are often whole pages stored before stripping.
+     *
+     * @return how many pages were moved
+     * @throws JobAlreadyRunningException if pages are already being moved or restored
+     */
+    public int moveColdPages() {
+        acquire();
+        Span span = tracer.spanBuilder("PageTieringService.moveColdPages")
+                .setAttribute("tiering.minAge", minAge.toString())
+                .startSpan();
+
+        try (Scope scope = span.makeCurrent()) {
+            LocalDateTime unchangedSince = LocalDateTime.now().minus(minAge);
+            int count = 0;
+            long afterId = 0;
+            List<HotPage> batch;
+            while (!(batch = recipeRepository.findHotPages(unchangedSince, afterId,
+                    PageRequest.ofSize(batchSize))).isEmpty()) {
+                List<HotPage> pages = batch;
+                List<String> refs = coldPageStore.append(pages.stream().map(HotPage::rawHtml).toList());
+                count += transactionTemplate.execute(status -> {
+                    int updated = 0;
+                    for (int i = 0; i < pages.size(); i++) {
+                        HotPage page = pages.get(i);
+                        updated += recipeRepository.moveToColdStorage(page.id(), page.contentHash(), refs.get(i));
+                    }
+                    return updated;
+                });
+                afterId = pages.getLast().id();
+            }
+            moved.increment(count);
+            span.setAttribute("tiering.moved", count);
+            if (count > 0) {
+                log.info("Moved {} stored pages unchanged since {} to cold storage", count, unchangedSince);
+            }
+            return count;
+        } catch (IOException e) {
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            span.recordException(e);
+            throw new UncheckedIOException("Cannot write cold page segment", e);
+        } finally {
+            span.end();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Moves a recipe's page back into its row.
+     *
+     * @return false if the page was not in cold storage
+     * @throws IllegalArgumentException   if there is no such recipe
+     * @throws JobAlreadyRunningException if pages are being moved or restored
+     */
+    public boolean restore(Long id) {
+        acquire();
+        try {
+            StoredPage page = recipeRepository.findStoredPages(List.of(id)).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Recipe not found: " + id));
+            if (page.rawHtmlRef() == null) {
+                return false;
+            }
+            return restore(List.of(page)) == 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read cold page of recipe " + id, e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Moves every page in cold storage back into its row, then deletes the
+     * segment files, which nothing refers to any more.
+     *
+     * @return how many pages were restored
+     * @throws JobAlreadyRunningException if pages are being moved or restored
+     */
+    public int restoreAll() {
+        acquire();
+        Span span = tracer.spanBuilder("PageTieringService.restoreAll").startSpan();
+
+        try (Scope scope = span.makeCurrent()) {
+            int count = 0;
+            long afterId = 0;
+            List<StoredPage> batch;
+            while (!(batch = recipeRepository.findColdPages(afterId, PageRequest.ofSize(batchSize))).isEmpty()) {
+                count += restore(batch);
+                afterId = batch.getLast().id();
+            }
+            int deleted = coldPageStore.deleteSegmentsExcept(Set.copyOf(recipeRepository.findColdSegments()));
+            span.setAttribute("tiering.restored", count);
+            log.info("Restored {} pages from cold storage and deleted {} segment files", count, deleted);
+            return count;
+        } catch (IOException e) {
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            span.recordException(e);
+            throw new UncheckedIOException("Cannot restore pages from cold storage", e);
+        } finally {
+            span.end();
+            running.set(false);
+        }
+    }
+
+    public PageTierStatsResponse stats() {
+        try {
+            ColdPageStore.Usage usage = coldPageStore.usage();
+            return new PageTierStatsResponse(
+                    recipeRepository.countByRawHtmlIsNotNull(),
+                    recipeRepository.sumRawHtmlLength(),
+                    recipeRepository.countByRawHtmlRefIsNotNull(),
+                    usage.segments(),
+                    usage.bytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list cold page segments", e);
+        }
+    }
+
+    private int restore(List<StoredPage> pages) throws IOException {
+        List<String> html = new ArrayList<>(pages.size());
+        for (StoredPage page : pages) {
+            html.add(coldPageStore.read(page.rawHtmlRef()));
+        }
+        int count = transactionTemplate.execute(status -> {
+            int updated = 0;
+            for (int i = 0; i < pages.size(); i++) {
+                StoredPage page = pages.get(i);
+                updated += recipeRepository.restoreFromColdStorage(page.id(), page.rawHtmlRef(), html.get(i));
+            }
+            return updated;
+        });
+        restored.increment(count);
+        return count;
+    }
+
+    private void acquire() {
+        if (!running.compareAndSet(false, true)) {
+            throw new JobAlreadyRunningException("Pages are already being moved between storage tiers");
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.cache.CanonicalUrlFilter;
+import com.recipesniper.cache.ResourceVersions;
+import com.recipesniper.dto.RecipeDetailResponse;
+import com.recipesniper.entity.Recipe;
+import com.recipesniper.entity.RecipeIngredient;
+import com.recipesniper.repository.RecipeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind inserts for newly imported recipes. Recipes handed to
+ * {@link #write} are collected for up to {@code flush-interval}, or until
+ * {@code batch-size} are waiting, and inserted in one transaction, so a bulk
+ * import pays for one commit (and, with H2 in file mode, one log sync) per
+ * batch rather than per recipe. If the batch fails, typically because one
+ * recipe was imported concurrently by another path, each recipe is retried
+ * in its own transaction so the rest of the batch still lands.
+ */
+@Component
+public class RecipeBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeBatchWriter.class);
+
+    private final RecipeService recipeService;
+    private final RecipeRepository recipeRepository;
+    private final CanonicalUrlFilter canonicalUrlFilter;
+    private final ResourceVersions resourceVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final Tracer tracer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<Pending> queue;
+    private final Thread flusher;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+
+    private record Pending(Recipe recipe, Context context, CompletableFuture<RecipeDetailResponse> result) {
+    }
+
+    public RecipeBatchWriter(RecipeService recipeService,
+                             RecipeRepository recipeRepository,
+                             CanonicalUrlFilter canonicalUrlFilter,
+                             ResourceVersions resourceVersions,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             Tracer tracer,
+                             @Value("${recipesniper.ingest.write-batch-size:50}") int batchSize,
+                             @Value("${recipesniper.ingest.write-flush-interval:50ms}") Duration flushInterval,
+                             @Value("${recipesniper.ingest.queue-capacity:32}") int queueCapacity) {
+        this.recipeService = recipeService;
+        this.recipeRepository = recipeRepository;
+        this.canonicalUrlFilter = canonicalUrlFilter;
+        this.resourceVersions = resourceVersions;
+        this.transactionTemplate = transactionTemplate;
+        this.tracer = tracer;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, batchSize));
+        this.flushTimer = Timer.builder("recipesniper.ingest.write.flush")
+                .description("Time to insert one batch of imported recipes")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("recipesniper.ingest.write.batch.size")
+                .description("Recipes inserted per batch")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("recipesniper.ingest.write.fallbacks")
+                .description("Batches retried one recipe per transaction after failing")
+                .register(meterRegistry);
+        this.flusher = Thread.ofPlatform().name("recipe-batch-writer").daemon(true).start(this::flushLoop);
+    }
+
+    /**
+     * Queues a recipe for insertion, blocking while the queue is full. The
+     * result completes once the recipe's batch has committed; if the same
+     * canonical URL was stored first, it completes with that recipe instead.
+     */
+    public CompletableFuture<RecipeDetailResponse> write(Recipe recipe) throws InterruptedException {
+        Pending pending = new Pending(recipe, Context.current(), new CompletableFuture<>());
+        queue.put(pending);
+        return pending.result();
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    private void flushLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Pending> batch = new ArrayList<>(batchSize);
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                flush(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        SpanBuilder spanBuilder = tracer.spanBuilder("RecipeBatchWriter.flush")
+                .setAttribute("batch.size", batch.size());
+        for (Pending pending : batch) {
+            spanBuilder.addLink(Span.fromContext(pending.context()).getSpanContext());
+        }
+        Span span = spanBuilder.startSpan();
+        batchSizes.record(batch.size());
+        long start = System.nanoTime();
+
+        try (Scope scope = span.makeCurrent()) {
+            List<Recipe> recipes = batch.stream().map(Pending::recipe).toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                recipeRepository.saveAll(recipes);
+                recipeRepository.flush();
+            });
+            for (Recipe recipe : recipes) {
+                canonicalUrlFilter.add(recipe.getCanonicalUrl());
+            }
+            resourceVersions.recipesChanged();
+            for (Pending pending : batch) {
+                pending.result().complete(recipeService.toDetailResponse(pending.recipe()));
+            }
+            log.info("Inserted batch of {} recipes", batch.size());
+        } catch (RuntimeException e) {
+            span.setAttribute("batch.fallback", true);
+            log.info("Batch of {} recipes failed ({}), inserting one at a time", batch.size(), e.getMessage());
+            fallbacks.increment();
+            insertIndividually(batch);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            span.end();
+        }
+    }
+
+    private void insertIndividually(List<Pending> batch) {
+        for (Pending pending : batch) {
+            Recipe recipe = pending.recipe();
+            // The rolled-back batch left identity values behind
+            recipe.setId(null);
+            for (RecipeIngredient ingredient : recipe.getIngredients()) {
+                ingredient.setId(null);
+            }
+            try {
+                pending.result().complete(recipeService.saveImported(recipe));
+            } catch (RuntimeException e) {
+                Span.current().setStatus(StatusCode.ERROR, e.getMessage());
+                pending.result().completeExceptionally(e);
+            }
+        }
+    }
+}
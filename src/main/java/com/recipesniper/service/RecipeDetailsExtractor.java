@@ -0,0 +1,264 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.recipesniper.dto.RecipeDetails;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads {@link RecipeDetails} from a Schema.org Recipe, given either its
+ * JSON-LD node or the microdata elements {@link IngredientExtractionService}
+ * collected while parsing the page. Neither walks the document again.
+ */
+final class RecipeDetailsExtractor {
+
+    private RecipeDetailsExtractor() {
+    }
+
+    static RecipeDetails fromJsonLd(JsonNode recipe) {
+        List<String> instructions = new ArrayList<>();
+        addInstructions(recipe.get("recipeInstructions"), instructions);
+        Set<String> images = new LinkedHashSet<>();
+        addImages(recipe.get("image"), images);
+        return new RecipeDetails(
+                recipeYield(recipe.get("recipeYield")),
+                minutes(text(recipe.get("prepTime"))),
+                minutes(text(recipe.get("cookTime"))),
+                minutes(text(recipe.get("totalTime"))),
+                instructions,
+                nutrition(recipe.get("nutrition")),
+                List.copyOf(images));
+    }
+
+    /**
+     * Builds the details from the page's {@code itemprop} elements, keeping
+     * only those that belong to a Recipe item.
+     */
+    static RecipeDetails fromMicrodata(List<Element> elements) {
+        String recipeYield = null;
+        Integer prepTime = null;
+        Integer cookTime = null;
+        Integer totalTime = null;
+        List<String> instructions = new ArrayList<>();
+        Map<String, String> nutrition = new LinkedHashMap<>();
+        Set<String> images = new LinkedHashSet<>();
+
+        for (Element element : elements) {
+            if (!inRecipeScope(element)) {
+                continue;
+            }
+            for (String property : element.attr("itemprop").trim().split("\\s+")) {
+                switch (property) {
+                    case "recipeYield" -> recipeYield = first(recipeYield, value(element));
+                    case "prepTime" -> prepTime = first(prepTime, minutes(value(element)));
+                    case "cookTime" -> cookTime = first(cookTime, minutes(value(element)));
+                    case "totalTime" -> totalTime = first(totalTime, minutes(value(element)));
+                    case "recipeInstructions" -> addInstructions(element, instructions);
+                    case "image" -> addIfPresent(images, imageUrl(element));
+                    case "nutrition" -> {
+                        for (Element fact : element.select("[itemprop]")) {
+                            if (fact != element) {
+                                String value = value(fact);
+                                if (value != null) {
+                                    nutrition.putIfAbsent(fact.attr("itemprop"), value);
+                                }
+                            }
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        return new RecipeDetails(recipeYield, prepTime, cookTime, totalTime, instructions, nutrition,
+                List.copyOf(images));
+    }
+
+    private static String recipeYield(JsonNode node) {
+        if (node == null) {
+            return null;
+        }
+        if (node.isArray()) {
+            // Often ["4", "4 servings"]; the longest form says the most
+            String longest = null;
+            for (JsonNode item : node) {
+                String text = recipeYield(item);
+                if (text != null && (longest == null || text.length() > longest.length())) {
+                    longest = text;
+                }
+            }
+            return longest;
+        }
+        if (node.isObject()) {
+            String value = text(node.get("value"));
+            String unit = text(node.get("unitText"));
+            return value == null ? null : unit == null ? value : value + " " + unit;
+        }
+        return text(node);
+    }
+
+    private static void addInstructions(JsonNode node, List<String> instructions) {
+        if (node == null) {
+            return;
+        }
+        if (node.isArray()) {
+            for (JsonNode item : node) {
+                addInstructions(item, instructions);
+            }
+        } else if (node.isObject()) {
+            // HowToSection holds its steps in itemListElement; HowToStep has text
+            JsonNode steps = node.get("itemListElement");
+            if (steps != null) {
+                addInstructions(steps, instructions);
+            } else {
+                addIfPresent(instructions, plainText(text(node.has("text") ? node.get("text") : node.get("name"))));
+            }
+        } else {
+            String text = plainText(text(node));
+            if (text != null) {
+                for (String line : text.split("\\s*\\n\\s*")) {
+                    addIfPresent(instructions, line);
+                }
+            }
+        }
+    }
+
+    private static void addInstructions(Element element, List<String> instructions) {
+        List<Element> steps = element.getElementsByTag("li");
+        if (steps.isEmpty()) {
+            addIfPresent(instructions, element.text().trim());
+        } else {
+            for (Element step : steps) {
+                addIfPresent(instructions, step.text().trim());
+            }
+        }
+    }
+
+    private static Map<String, String> nutrition(JsonNode node) {
+        Map<String, String> nutrition = new LinkedHashMap<>();
+        if (node != null && node.isObject()) {
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                String value = text(field.getValue());
+                if (!field.getKey().startsWith("@") && value != null) {
+                    nutrition.put(field.getKey(), value);
+                }
+            }
+        }
+        return nutrition;
+    }
+
+    private static void addImages(JsonNode node, Set<String> images) {
+        if (node == null) {
+            return;
+        }
+        if (node.isArray()) {
+            for (JsonNode item : node) {
+                addImages(item, images);
+            }
+        } else if (node.isObject()) {
+            addIfPresent(images, text(node.has("url") ? node.get("url") : node.get("contentUrl")));
+        } else {
+            addIfPresent(images, text(node));
+        }
+    }
+
+    /**
+     * Converts an ISO-8601 duration such as {@code PT1H30M} to minutes, or
+     * null if the page wrote something else.
+     */
+    static Integer minutes(String duration) {
+        if (duration == null) {
+            return null;
+        }
+        try {
+            return Math.toIntExact(Duration.parse(duration.trim()).toMinutes());
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private static boolean inRecipeScope(Element element) {
+        // A property belongs to the nearest item above it, not to an item it starts itself
+        for (Element scope = element.parent(); scope != null; scope = scope.parent()) {
+            if (scope.hasAttr("itemscope")) {
+                return scope.attr("itemtype").endsWith("/Recipe");
+            }
+        }
+        return false;
+    }
+
+    private static String value(Element element) {
+        if (element.hasAttr("content")) {
+            return blankToNull(element.attr("content"));
+        }
+        if (element.hasAttr("datetime")) {
+            return blankToNull(element.attr("datetime"));
+        }
+        return blankToNull(element.text());
+    }
+
+    private static String imageUrl(Element element) {
+        for (String attribute : List.of("src", "content", "href")) {
+            if (element.hasAttr(attribute)) {
+                return blankToNull(element.attr(attribute));
+            }
+        }
+        return null;
+    }
+
+    private static String text(JsonNode node) {
+        if (node == null || node.isNull() || node.isContainerNode()) {
+            return null;
+        }
+        return blankToNull(node.asText());
+    }
+
+    private static String plainText(String text) {
+        // Some sites put markup in their instruction strings
+        return text != null && text.indexOf('<') >= 0 ? blankToNull(Jsoup.parseBodyFragment(text).text()) : text;
+    }
+
+    private static String blankToNull(String text) {
+        String trimmed = text.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static <T> T first(T current, T candidate) {
+        return current != null ? current : candidate;
+    }
+
+    private static <T> void addIfPresent(Collection<T> target, T value) {
+        if (value != null) {
+            target.add(value);
+        }
+    }
+}
@@ -19,12 +19,17 @@
 
 package com.recipesniper.service;
 
+import com.recipesniper.cache.CanonicalUrlFilter;
+import com.recipesniper.cache.JsonResponseCache;
+import com.recipesniper.cache.RecipeDetailCache;
+import com.recipesniper.cache.ResourceVersions;
 import com.recipesniper.dto.IngredientResponse;
 import com.recipesniper.dto.RecipeDetailResponse;
 import com.recipesniper.dto.RecipeResponse;
 import com.recipesniper.entity.Recipe;
 import com.recipesniper.entity.RecipeIngredient;
 import com.recipesniper.repository.RecipeRepository;
+import com.recipesniper.service.IngredientExtractionService.ExtractedRecipe;
 import com.recipesniper.service.IngredientExtractionService.ParsedIngredient;
 import com.recipesniper.service.ScrapingService.ScrapeResult;
 import io.opentelemetry.api.trace.Span;
@@ -33,11 +38,24 @@ import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Scope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 
 @Service
 public class RecipeService {
@@ -47,19 +65,44 @@ public class RecipeService {
     private final RecipeRepository recipeRepository;
     private final ScrapingService scrapingService;
     private final IngredientExtractionService extractionService;
+    private final PageArchive pageArchive;
+    private final RecipeDetailCache recipeDetailCache;
+    private final JsonResponseCache jsonResponseCache;
+    private final ResourceVersions resourceVersions;
+    private final CanonicalUrlFilter canonicalUrlFilter;
+    private final TransactionTemplate transactionTemplate;
     private final Tracer tracer;
+    private final ConcurrentMap<String, CompletableFuture<RecipeDetailResponse>> inFlight =
+            new ConcurrentHashMap<>();
 
     public RecipeService(RecipeRepository recipeRepository,
                          ScrapingService scrapingService,
                          IngredientExtractionService extractionService,
+                         PageArchive pageArchive,
+                         RecipeDetailCache recipeDetailCache,
+                         JsonResponseCache jsonResponseCache,
+                         ResourceVersions resourceVersions,
+                         CanonicalUrlFilter canonicalUrlFilter,
+                         TransactionTemplate transactionTemplate,
                          Tracer tracer) {
         this.recipeRepository = recipeRepository;
         this.scrapingService = scrapingService;
         this.extractionService = extractionService;
+        this.pageArchive = pageArchive;
+        this.recipeDetailCache = recipeDetailCache;
+        this.jsonResponseCache = jsonResponseCache;
+        this.resourceVersions = resourceVersions;
+        this.canonicalUrlFilter = canonicalUrlFilter;
+        this.transactionTemplate = transactionTemplate;
         this.tracer = tracer;
     }
 
-    @Transactional
+    /**
+     * Imports a recipe, or returns the existing one when its canonical URL has
+     * been imported before. Concurrent imports of the same canonical URL share
+     * a single scrape. Not transactional: the download runs outside any
+     * transaction and only the insert is wrapped in one.
+     */
     public RecipeDetailResponse addRecipe(String url) throws IOException {
         Span span = tracer.spanBuilder("RecipeService.addRecipe")
                 .setAttribute("recipe.url", url)
@@ -67,35 +110,38 @@ public class RecipeService {
 
         try (Scope scope = span.makeCurrent()) {
             log.info("Adding recipe from URL: {}", url);
+            String canonicalUrl = UrlCanonicalizer.canonicalize(url);
+            span.setAttribute("recipe.canonicalUrl", canonicalUrl);
 
-            // Scrape
-            ScrapeResult scrapeResult = scrapingService.scrape(url);
-
-            // Extract ingredients
-            List<ParsedIngredient> parsed = extractionService.extract(scrapeResult.html());
-
-            // Build entity
-            Recipe recipe = new Recipe();
-            recipe.setUrl(url);
-            recipe.setTitle(scrapeResult.title());
-            recipe.setRawHtml(scrapeResult.html());
-
-            for (ParsedIngredient pi : parsed) {
-                RecipeIngredient ingredient = new RecipeIngredient();
-                ingredient.setName(pi.name());
-                ingredient.setQuantity(pi.quantity());
-                ingredient.setUnit(pi.unit());
-                ingredient.setRawText(pi.rawText());
-                ingredient.setRecipe(recipe);
-                recipe.getIngredients().add(ingredient);
+            Optional<RecipeDetailResponse> existing = findExisting(canonicalUrl);
+            if (existing.isPresent()) {
+                span.setAttribute("recipe.import", "existing");
+                return existing.get();
             }
 
-            Recipe saved = recipeRepository.save(recipe);
-            span.setAttribute("recipe.id", saved.getId());
-            span.setAttribute("recipe.ingredientCount", saved.getIngredients().size());
-            log.info("Saved recipe '{}' with {} ingredients", saved.getTitle(), saved.getIngredients().size());
+            CompletableFuture<RecipeDetailResponse> flight = new CompletableFuture<>();
+            CompletableFuture<RecipeDetailResponse> leader = inFlight.putIfAbsent(canonicalUrl, flight);
+            if (leader != null) {
+                span.setAttribute("recipe.import", "joined");
+                log.info("Joining in-flight import of {}", canonicalUrl);
+                return await(leader);
+            }
 
-            return toDetailResponse(saved);
+            try {
+                // Re-check: an import may have committed between the lookup and taking the slot
+                RecipeDetailResponse response = findExisting(canonicalUrl).orElse(null);
+                if (response == null) {
+                    span.setAttribute("recipe.import", "scraped");
+                    response = importRecipe(url, canonicalUrl, span);
+                }
+                flight.complete(response);
+                return response;
+            } catch (Exception e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(canonicalUrl, flight);
+            }
         } catch (Exception e) {
             span.setStatus(StatusCode.ERROR, e.getMessage());
             span.recordException(e);
@@ -105,6 +151,123 @@ public class RecipeService {
         }
     }
 
+    private RecipeDetailResponse importRecipe(String url, String canonicalUrl, Span span) throws IOException {
+        // Scrape
+        ScrapeResult scrapeResult = scrapingService.scrape(url);
+
+        // Extract, reusing an earlier import's parse when the page is unchanged
+        ExtractedRecipe extracted = scrapeResult.notModified()
+                ? previouslyExtracted(url).orElseGet(() -> extractionService.extractRecipe(scrapeResult.html(), url))
+                : extractionService.extractRecipe(scrapeResult.html(), url);
+
+        RecipeDetailResponse response = saveImported(newRecipe(url, canonicalUrl, scrapeResult, extracted));
+        span.setAttribute("recipe.id", response.id());
+        span.setAttribute("recipe.ingredientCount", response.ingredients().size());
+        return response;
+    }
+
+    static Recipe newRecipe(String url, String canonicalUrl, ScrapeResult scrapeResult,
+                            ExtractedRecipe extracted) {
+        Recipe recipe = new Recipe();
+        recipe.setUrl(url);
+        recipe.setCanonicalUrl(canonicalUrl);
+        recipe.setTitle(scrapeResult.title());
+        recipe.setRawHtml(scrapeResult.storedHtml());
+        recipe.setContentHash(ContentHash.of(scrapeResult.html()));
+        recipe.setLastCrawledAt(LocalDateTime.now());
+        recipe.setExtractorVersion(extracted.extractorVersion());
+        recipe.setDetails(extracted.details());
+        addIngredients(recipe, extracted.ingredients());
+        return recipe;
+    }
+
+    /**
+     * Inserts a newly imported recipe in its own transaction. If the same
+     * canonical URL was imported concurrently, returns that recipe instead.
+     */
+    RecipeDetailResponse saveImported(Recipe recipe) {
+        String canonicalUrl = recipe.getCanonicalUrl();
+        Recipe saved;
+        try {
+            saved = transactionTemplate.execute(status -> recipeRepository.save(recipe));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance imported the same page first
+            log.info("Recipe for {} was imported concurrently, returning it", canonicalUrl);
+            return findExisting(canonicalUrl).orElseThrow(() -> e);
+        }
+        canonicalUrlFilter.add(canonicalUrl);
+        resourceVersions.recipesChanged();
+        log.info("Saved recipe '{}' with {} ingredients", saved.getTitle(), saved.getIngredients().size());
+
+        return toDetailResponse(saved);
+    }
+
+    private Optional<RecipeDetailResponse> findExisting(String canonicalUrl) {
+        return recipeRepository.findByCanonicalUrl(canonicalUrl).map(this::toDetailResponse);
+    }
+
+    private static RecipeDetailResponse await(CompletableFuture<RecipeDetailResponse> flight) throws IOException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for import", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Gives recipes imported before canonical URLs existed their key. Where
+     * several old recipes share a canonical URL, the newest one gets it. Runs
+     * before {@link CanonicalUrlFilter#rebuild()} so the filter sees the result.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    @Transactional
+    public void backfillCanonicalUrls() {
+        Set<String> assigned = new HashSet<>();
+        int count = 0;
+        for (Recipe recipe : recipeRepository.findByCanonicalUrlIsNullOrderByIdDesc()) {
+            String canonicalUrl;
+            try {
+                canonicalUrl = UrlCanonicalizer.canonicalize(recipe.getUrl());
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            if (assigned.add(canonicalUrl) && !recipeRepository.existsByCanonicalUrl(canonicalUrl)) {
+                recipe.setCanonicalUrl(canonicalUrl);
+                count++;
+            }
+        }
+        if (count > 0) {
+            log.info("Backfilled canonical URLs for {} recipes", count);
+        }
+    }
+
+    /**
+     * Renames pages archived before their file names carried a hash of the
+     * URL, so stored recipes find them again. Does nothing once none are left.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateArchivedPages() {
+        try {
+            if (!pageArchive.hasLegacyPages()) {
+                return;
+            }
+            int migrated = pageArchive.migrateLegacyPages(recipeRepository.findAllUrls());
+            log.info("Renamed archived pages of {} recipes", migrated);
+        } catch (IOException e) {
+            log.warn("Could not rename legacy archived pages: {}", e.getMessage());
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<RecipeResponse> getAllRecipes() {
         return recipeRepository.findAll().stream()
@@ -119,11 +282,27 @@ public class RecipeService {
                 .toList();
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Served from {@link RecipeDetailCache}; a miss loads the recipe and its
+     * ingredients in one query, so no surrounding transaction is needed.
+     */
     public RecipeDetailResponse getRecipeById(Long id) {
-        Recipe recipe = recipeRepository.findById(id)
+        return recipeDetailCache.get(id, key -> recipeRepository.findWithIngredientsById(key)
+                .map(this::toDetailResponse)
+                .orElseThrow(() -> new IllegalArgumentException("Recipe not found: " + key)));
+    }
+
+    /**
+     * Locates the archived copy of a recipe's page, as scraped, without
+     * reading it.
+     *
+     * @throws IllegalArgumentException if there is no such recipe, or its page is not archived
+     */
+    public PageArchive.ArchivedFile getArchivedPage(Long id) {
+        String url = recipeRepository.findUrlById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Recipe not found: " + id));
-        return toDetailResponse(recipe);
+        return pageArchive.archivedFile(url)
+                .orElseThrow(() -> new IllegalArgumentException("No archived page for recipe: " + id));
     }
 
     @Transactional
@@ -132,9 +311,43 @@ public class RecipeService {
             throw new IllegalArgumentException("Recipe not found: " + id);
         }
         recipeRepository.deleteById(id);
+        canonicalUrlFilter.recordDeletion();
+        recipeDetailCache.invalidate(id);
+        jsonResponseCache.invalidate(JsonResponseCache.recipeKey(id));
+        jsonResponseCache.invalidateShoppingLists();
+        resourceVersions.recipesChanged();
+        resourceVersions.shoppingListsChanged();
         log.info("Deleted recipe {}", id);
     }
 
+    private Optional<ExtractedRecipe> previouslyExtracted(String url) {
+        return recipeRepository.findFirstByUrlOrderByIdDesc(url)
+                .filter(r -> Integer.valueOf(IngredientExtractionService.VERSION).equals(r.getExtractorVersion()))
+                .map(RecipeService::extracted);
+    }
+
+    static ExtractedRecipe extracted(Recipe recipe) {
+        return new ExtractedRecipe(parsedIngredients(recipe), recipe.getDetails());
+    }
+
+    static List<ParsedIngredient> parsedIngredients(Recipe recipe) {
+        return recipe.getIngredients().stream()
+                .map(i -> new ParsedIngredient(i.getName(), i.getQuantity(), i.getUnit(), i.getRawText()))
+                .toList();
+    }
+
+    static void addIngredients(Recipe recipe, List<ParsedIngredient> parsed) {
+        for (ParsedIngredient pi : parsed) {
+            RecipeIngredient ingredient = new RecipeIngredient();
+            ingredient.setName(pi.name());
+            ingredient.setQuantity(pi.quantity());
+            ingredient.setUnit(pi.unit());
+            ingredient.setRawText(pi.rawText());
+            ingredient.setRecipe(recipe);
+            recipe.getIngredients().add(ingredient);
+        }
+    }
+
     private RecipeResponse toResponse(Recipe recipe) {
         return new RecipeResponse(
                 recipe.getId(),
@@ -145,7 +358,7 @@ public class RecipeService {
         );
     }
 
-    private RecipeDetailResponse toDetailResponse(Recipe recipe) {
+    RecipeDetailResponse toDetailResponse(Recipe recipe) {
         List<IngredientResponse> ingredients = recipe.getIngredients().stream()
                 .map(i -> new IngredientResponse(
                         i.getId(), i.getName(), i.getQuantity(), i.getUnit(), i.getRawText()))
@@ -155,7 +368,9 @@ public class RecipeService {
                 recipe.getUrl(),
                 recipe.getTitle(),
                 recipe.getCreatedAt(),
-                ingredients
+                recipe.getUpdatedAt(),
+                ingredients,
+                recipe.getDetails()
         );
     }
 }
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.cache.JsonResponseCache;
+import com.recipesniper.cache.RecipeDetailCache;
+import com.recipesniper.cache.ResourceVersions;
+import com.recipesniper.entity.Recipe;
+import com.recipesniper.repository.RecipeRepository;
+import com.recipesniper.repository.RecrawlCandidate;
+import com.recipesniper.service.IngredientExtractionService.ExtractedRecipe;
+import com.recipesniper.service.IngredientExtractionService.ParsedIngredient;
+import com.recipesniper.service.ScrapingService.ScrapeResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps stored recipes in step with their source pages. Each run re-fetches
+ * up to a fixed budget of recipes that have not been fetched for a while,
+ * favouring those on more shopping lists, and re-extracts ingredients only
+ * when the page's content hash has changed. Conditional requests made by
+ * {@link ScrapingService} mean an unchanged page usually costs a 304. The
+ * budget counts recipes; retries and hedged requests for each are bounded by
+ * the host's retry budget in {@link ScrapingService}.
+ */
+@Service
+public class RecrawlService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecrawlService.class);
+
+    /**
+     * How many of the stalest recipes are ranked by popularity in each run,
+     * as a multiple of the budget.
+     */
+    private static final int CANDIDATE_POOL_FACTOR = 5;
+
+    /**
+     * What re-crawling one recipe found: the same content, different content
+     * that extracted to the same recipe, or a changed recipe.
+     */
+    enum Outcome { UNCHANGED, REHASHED, UPDATED, FAILED, DELETED }
+
+    /**
+     * @param rehashed recipes whose page changed but whose title and
+     *                 ingredients extracted the same
+     */
+    public record RecrawlSummary(int unchanged, int rehashed, int updated, int failed) {
+    }
+
+    private final RecipeRepository recipeRepository;
+    private final ScrapingService scrapingService;
+    private final IngredientExtractionService extractionService;
+    private final RecipeDetailCache recipeDetailCache;
+    private final JsonResponseCache jsonResponseCache;
+    private final ResourceVersions resourceVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int budget;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RecrawlService(RecipeRepository recipeRepository,
+                          ScrapingService scrapingService,
+                          IngredientExtractionService extractionService,
+                          RecipeDetailCache recipeDetailCache,
+                          JsonResponseCache jsonResponseCache,
+                          ResourceVersions resourceVersions,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          Tracer tracer,
+                          @Value("${recipesniper.recrawl.enabled:true}") boolean enabled,
+                          @Value("${recipesniper.recrawl.min-age:P7D}") Duration minAge,
+                          @Value("${recipesniper.recrawl.max-recipes-per-run:50}") int budget) {
+        this.recipeRepository = recipeRepository;
+        this.scrapingService = scrapingService;
+        this.extractionService = extractionService;
+        this.recipeDetailCache = recipeDetailCache;
+        this.jsonResponseCache = jsonResponseCache;
+        this.resourceVersions = resourceVersions;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.budget = budget;
+    }
+
+    @Scheduled(initialDelayString = "${recipesniper.recrawl.initial-delay:PT5M}",
+            fixedDelayString = "${recipesniper.recrawl.interval:PT1H}")
+    public void recrawlStaleRecipes() {
+        if (enabled) {
+            recrawl();
+        }
+    }
+
+    /**
+     * Re-crawls up to the configured budget of stale recipes. Skipped if a
+     * run is already in progress.
+     */
+    public RecrawlSummary recrawl() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Re-crawl already in progress, skipping");
+            return new RecrawlSummary(0, 0, 0, 0);
+        }
+        Span span = tracer.spanBuilder("RecrawlService.recrawl")
+                .setAttribute("recrawl.budget", budget)
+                .startSpan();
+
+        try (Scope scope = span.makeCurrent()) {
+            LocalDateTime now = LocalDateTime.now();
+            List<RecrawlCandidate> due = prioritize(
+                    recipeRepository.findRecrawlCandidates(now.minus(minAge),
+                            PageRequest.ofSize(budget * CANDIDATE_POOL_FACTOR)), now);
+
+            int unchanged = 0;
+            int rehashed = 0;
+            int updated = 0;
+            int failed = 0;
+            for (RecrawlCandidate candidate : due) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                Outcome outcome = recrawl(candidate);
+                outcomeCounter(outcome).increment();
+                switch (outcome) {
+                    case UNCHANGED -> unchanged++;
+                    case REHASHED -> rehashed++;
+                    case UPDATED -> updated++;
+                    case FAILED -> failed++;
+                    case DELETED -> { }
+                }
+            }
+
+            span.setAttribute("recrawl.candidates", due.size());
+            span.setAttribute("recrawl.updated", updated);
+            span.setAttribute("recrawl.failed", failed);
+            if (!due.isEmpty()) {
+                log.info("Re-crawled {} recipes: {} unchanged, {} re-extracted unchanged, {} updated, {} failed",
+                        due.size(), unchanged, rehashed, updated, failed);
+            }
+            return new RecrawlSummary(unchanged, rehashed, updated, failed);
+        } catch (RuntimeException e) {
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Ranks stale recipes by how long they have gone unfetched, weighted by
+     * popularity, and keeps as many as the budget allows.
+     */
+    private List<RecrawlCandidate> prioritize(List<RecrawlCandidate> candidates, LocalDateTime now) {
+        return candidates.stream()
+                .sorted(Comparator.comparingDouble((RecrawlCandidate c) -> priority(c, now)).reversed())
+                .limit(budget)
+                .toList();
+    }
+
+    static double priority(RecrawlCandidate candidate, LocalDateTime now) {
+        double ageMinutes = Math.max(0, Duration.between(candidate.lastCrawledAt(), now).toMinutes());
+        return ageMinutes * (1 + candidate.popularity());
+    }
+
+    Outcome recrawl(RecrawlCandidate candidate) {
+        Long id = candidate.id();
+        LocalDateTime now = LocalDateTime.now();
+        ScrapeResult result;
+        try {
+            result = scrapingService.scrape(candidate.url());
+        } catch (IOException e) {
+            log.warn("Re-crawl of recipe {} failed: {}", id, e.getMessage());
+            markCrawled(id, now);
+            return Outcome.FAILED;
+        }
+
+        String contentHash = ContentHash.of(result.html());
+        if (contentHash.equals(candidate.contentHash())) {
+            markCrawled(id, now);
+            return Outcome.UNCHANGED;
+        }
+
+        ExtractedRecipe extracted = extractionService.extractRecipe(result.html(), candidate.url(), contentHash);
+        List<ParsedIngredient> parsed = extracted.ingredients();
+        return transactionTemplate.execute(status -> {
+            Recipe recipe = recipeRepository.findWithIngredientsById(id).orElse(null);
+            if (recipe == null) {
+                return Outcome.DELETED;
+            }
+            recipe.setLastCrawledAt(now);
+            if (parsed.isEmpty() && !recipe.getIngredients().isEmpty()) {
+                // More likely a broken or blocked page than a recipe that lost its ingredients
+                log.warn("Re-crawl of recipe {} found no ingredients, keeping the stored ones", id);
+                return Outcome.FAILED;
+            }
+            if (extracted.partial() && !recipe.getIngredients().isEmpty()) {
+                // Keeping the old content hash lets the next re-crawl try the page again
+                log.warn("Re-crawl of recipe {} stopped at the extraction budget, keeping the stored ingredients", id);
+                return Outcome.FAILED;
+            }
+            recipe.setContentHash(contentHash);
+            recipe.setRawHtml(result.storedHtml());
+            recipe.setRawHtmlRef(null);
+            recipe.setPageStoredAt(now);
+            recipe.setExtractorVersion(extracted.extractorVersion());
+            String title = result.title() != null ? result.title() : recipe.getTitle();
+            if (title.equals(recipe.getTitle()) && RecipeService.extracted(recipe).equals(extracted)) {
+                return Outcome.REHASHED;
+            }
+
+            recipe.setTitle(title);
+            recipe.setDetails(extracted.details());
+            recipe.getIngredients().clear();
+            RecipeService.addIngredients(recipe, parsed);
+            recipe.setUpdatedAt(now);
+            recipeDetailCache.invalidate(id);
+            jsonResponseCache.invalidate(JsonResponseCache.recipeKey(id));
+            jsonResponseCache.invalidateShoppingLists();
+            resourceVersions.recipesChanged();
+            resourceVersions.shoppingListsChanged();
+            log.info("Re-crawl updated recipe {} to {} ingredients", id, parsed.size());
+            return Outcome.UPDATED;
+        });
+    }
+
+    private void markCrawled(Long id, LocalDateTime crawledAt) {
+        transactionTemplate.executeWithoutResult(status -> recipeRepository.markCrawled(id, crawledAt));
+    }
+
+    private Counter outcomeCounter(Outcome outcome) {
+        return Counter.builder("recipesniper.recrawl.recipes")
+                .description("Recipes re-crawled, by outcome")
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+}
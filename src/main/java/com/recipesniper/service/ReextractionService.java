@@ -0,0 +1,317 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.cache.JsonResponseCache;
+import com.recipesniper.cache.RecipeDetailCache;
+import com.recipesniper.cache.ResourceVersions;
+import com.recipesniper.dto.ReextractionStatusResponse;
+import com.recipesniper.entity.Recipe;
+import com.recipesniper.repository.RecipeRepository;
+import com.recipesniper.repository.StoredPage;
+import com.recipesniper.service.IngredientExtractionService.ExtractedRecipe;
+import com.recipesniper.service.IngredientExtractionService.ParsedIngredient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Brings stored recipes up to the current {@link IngredientExtractionService#VERSION}
+ * without downloading anything. Recipes extracted by an older version are
+ * processed in batches: their stored pages are read (from the {@code rawHtml}
+ * column or cold storage through {@link ColdPageStore}, or the
+ * {@link PageArchive} when neither has the page), re-extracted in
+ * parallel on a fork/join pool sized to the machine, and written back in one
+ * transaction per batch. Because each recipe records the version that
+ * extracted it, an interrupted or repeated run skips recipes already done.
+ */
+@Service
+public class ReextractionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReextractionService.class);
+
+    public enum State { RUNNING, COMPLETED, INTERRUPTED, FAILED }
+
+    enum Outcome { UPDATED, UNCHANGED, KEPT, MISSING }
+
+    private final RecipeRepository recipeRepository;
+    private final IngredientExtractionService extractionService;
+    private final PageArchive pageArchive;
+    private final ColdPageStore coldPageStore;
+    private final RecipeDetailCache recipeDetailCache;
+    private final JsonResponseCache jsonResponseCache;
+    private final ResourceVersions resourceVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final int batchSize;
+    private final int parallelism;
+
+    private final AtomicReference<Progress> current = new AtomicReference<>();
+    private volatile Thread worker;
+
+    public ReextractionService(RecipeRepository recipeRepository,
+                               IngredientExtractionService extractionService,
+                               PageArchive pageArchive,
+                               ColdPageStore coldPageStore,
+                               RecipeDetailCache recipeDetailCache,
+                               JsonResponseCache jsonResponseCache,
+                               ResourceVersions resourceVersions,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               Tracer tracer,
+                               @Value("${recipesniper.reextraction.batch-size:200}") int batchSize,
+                               @Value("${recipesniper.reextraction.parallelism:0}") int parallelism) {
+        this.recipeRepository = recipeRepository;
+        this.extractionService = extractionService;
+        this.pageArchive = pageArchive;
+        this.coldPageStore = coldPageStore;
+        this.recipeDetailCache = recipeDetailCache;
+        this.jsonResponseCache = jsonResponseCache;
+        this.resourceVersions = resourceVersions;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Starts a re-extraction run on a background thread.
+     *
+     * @throws JobAlreadyRunningException if a run is in progress
+     */
+    public ReextractionStatusResponse start() {
+        Progress progress = register();
+        worker = Thread.ofVirtual()
+                .name("reextraction")
+                .start(Context.current().wrap(() -> run(progress)));
+        return progress.toResponse();
+    }
+
+    /**
+     * Runs a re-extraction on the calling thread.
+     */
+    public ReextractionStatusResponse reextract() {
+        Progress progress = register();
+        run(progress);
+        return progress.toResponse();
+    }
+
+    public Optional<ReextractionStatusResponse> getStatus() {
+        return Optional.ofNullable(current.get()).map(Progress::toResponse);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        Thread running = worker;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    private Progress register() {
+        Progress progress = new Progress();
+        Progress registered = current.updateAndGet(
+                existing -> existing != null && existing.state == State.RUNNING ? existing : progress);
+        if (registered != progress) {
+            throw new JobAlreadyRunningException("A re-extraction is already running");
+        }
+        return progress;
+    }
+
+    private void run(Progress progress) {
+        Span span = tracer.spanBuilder("ReextractionService.reextract")
+                .setAttribute("reextraction.version", IngredientExtractionService.VERSION)
+                .startSpan();
+
+        try (Scope scope = span.makeCurrent(); ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            List<Long> ids = recipeRepository.findIdsExtractedBefore(IngredientExtractionService.VERSION);
+            progress.total = ids.size();
+            span.setAttribute("reextraction.total", ids.size());
+            log.info("Re-extracting {} recipes with extractor version {} on {} threads",
+                    ids.size(), IngredientExtractionService.VERSION, parallelism);
+
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                reextractBatch(batch, pool, progress);
+                log.info("Re-extracted {}/{} recipes ({} recipes/s)", progress.processed.get(), progress.total,
+                        String.format(Locale.ROOT, "%.1f", progress.recipesPerSecond()));
+            }
+            progress.finish(State.COMPLETED, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.finish(State.INTERRUPTED, "Interrupted");
+        } catch (RuntimeException | ExecutionException e) {
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            span.recordException(e);
+            log.error("Re-extraction failed", e);
+            progress.finish(State.FAILED, e.getMessage());
+        } finally {
+            span.setAttribute("reextraction.processed", progress.processed.get());
+            span.setAttribute("reextraction.updated", progress.updated.get());
+            span.end();
+        }
+    }
+
+    private void reextractBatch(List<Long> ids, ForkJoinPool pool, Progress progress)
+            throws InterruptedException, ExecutionException {
+        List<StoredPage> pages = recipeRepository.findStoredPages(ids);
+
+        // CPU-bound: parse and extract every page in the batch across the pool
+        Map<Long, Optional<ExtractedRecipe>> extracted = pool.submit(() -> pages.parallelStream()
+                .collect(Collectors.toMap(StoredPage::id, this::extract))).get();
+
+        Map<Outcome, Integer> outcomes = transactionTemplate.execute(status -> {
+            Map<Outcome, Integer> counts = new HashMap<>();
+            boolean changed = false;
+            for (Recipe recipe : recipeRepository.findWithIngredientsByIdIn(ids)) {
+                Outcome outcome = apply(recipe, extracted.getOrDefault(recipe.getId(), Optional.empty()));
+                counts.merge(outcome, 1, Integer::sum);
+                changed |= outcome == Outcome.UPDATED;
+            }
+            if (changed) {
+                jsonResponseCache.invalidateShoppingLists();
+                resourceVersions.recipesChanged();
+                resourceVersions.shoppingListsChanged();
+            }
+            return counts;
+        });
+
+        outcomes.forEach((outcome, count) -> outcomeCounter(outcome).increment(count));
+        progress.updated.addAndGet(outcomes.getOrDefault(Outcome.UPDATED, 0));
+        progress.unchanged.addAndGet(outcomes.getOrDefault(Outcome.UNCHANGED, 0));
+        progress.kept.addAndGet(outcomes.getOrDefault(Outcome.KEPT, 0));
+        progress.missing.addAndGet(outcomes.getOrDefault(Outcome.MISSING, 0));
+        progress.processed.addAndGet(ids.size());
+    }
+
+    private Optional<ExtractedRecipe> extract(StoredPage page) {
+        String html = null;
+        try {
+            html = coldPageStore.load(page);
+        } catch (IOException e) {
+            log.warn("Cannot read cold page for recipe {}: {}", page.id(), e.getMessage());
+        }
+        if (html == null) {
+            try {
+                html = pageArchive.read(page.url()).orElse(null);
+            } catch (IOException e) {
+                log.warn("Cannot read archived page for recipe {}: {}", page.id(), e.getMessage());
+            }
+        }
+        return Optional.ofNullable(html).map(h -> extractionService.extractRecipe(h, page.url()));
+    }
+
+    private Outcome apply(Recipe recipe, Optional<ExtractedRecipe> extracted) {
+        if (extracted.isEmpty()) {
+            // Left on the old version so a later run retries once the page is back
+            return Outcome.MISSING;
+        }
+        if (extracted.get().partial() && !recipe.getIngredients().isEmpty()) {
+            // Cut short by the extraction budget; left on the old version for a later run
+            return Outcome.KEPT;
+        }
+        List<ParsedIngredient> parsed = extracted.get().ingredients();
+        recipe.setExtractorVersion(extracted.get().extractorVersion());
+        if (parsed.isEmpty() && !recipe.getIngredients().isEmpty()) {
+            return Outcome.KEPT;
+        }
+        if (RecipeService.extracted(recipe).equals(extracted.get())) {
+            return Outcome.UNCHANGED;
+        }
+        recipe.setDetails(extracted.get().details());
+        recipe.getIngredients().clear();
+        RecipeService.addIngredients(recipe, parsed);
+        recipe.setUpdatedAt(LocalDateTime.now());
+        recipeDetailCache.invalidate(recipe.getId());
+        jsonResponseCache.invalidate(JsonResponseCache.recipeKey(recipe.getId()));
+        return Outcome.UPDATED;
+    }
+
+    private Counter outcomeCounter(Outcome outcome) {
+        return Counter.builder("recipesniper.reextraction.recipes")
+                .description("Recipes processed by re-extraction runs, by outcome")
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    private static final class Progress {
+
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final long startNanos = System.nanoTime();
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger updated = new AtomicInteger();
+        final AtomicInteger unchanged = new AtomicInteger();
+        final AtomicInteger kept = new AtomicInteger();
+        final AtomicInteger missing = new AtomicInteger();
+        volatile int total;
+        volatile long endNanos;
+        volatile State state = State.RUNNING;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+
+        void finish(State state, String error) {
+            this.error = error;
+            this.endNanos = System.nanoTime();
+            this.finishedAt = LocalDateTime.now();
+            this.state = state;
+        }
+
+        double recipesPerSecond() {
+            long end = state == State.RUNNING ? System.nanoTime() : endNanos;
+            double seconds = Duration.ofNanos(end - startNanos).toMillis() / 1000.0;
+            return seconds > 0 ? processed.get() / seconds : 0;
+        }
+
+        ReextractionStatusResponse toResponse() {
+            return new ReextractionStatusResponse(state.name(), IngredientExtractionService.VERSION, total,
+                    processed.get(), updated.get(), unchanged.get(), kept.get(), missing.get(),
+                    recipesPerSecond(), error, startedAt, finishedAt);
+        }
+    }
+}
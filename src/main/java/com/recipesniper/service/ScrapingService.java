@@ -19,6 +19,16 @@
 
 package com.recipesniper.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.recipesniper.config.ScrapeProperties;
+import com.recipesniper.config.ScrapeProperties.FetchProfile;
+import com.recipesniper.service.PageArchive.Validators;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
@@ -30,15 +40,45 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 @Service
 public class ScrapingService {
@@ -47,88 +87,246 @@ public class ScrapingService {
     private static final String USER_AGENT =
             "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 "
                     + "(KHTML, like Gecko) Chrome/122.0.0.0 Safari/537.36";
+    private static final Pattern MAX_AGE = Pattern.compile("max-age\\s*=\\s*\"?(\\d+)");
+    private static final Pattern CHARSET = Pattern.compile("charset\\s*=\\s*\"?([\\w.:-]+)", Pattern.CASE_INSENSITIVE);
+    // No brotli: the JDK has no decoder for it and servers fall back to gzip
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
 
     private final Tracer tracer;
-    private final HttpClient httpClient;
-    private final Path storageDir;
+    private final PageArchive pageArchive;
+    private final PageStripper pageStripper;
+    private final MeterRegistry meterRegistry;
+    private final long maxBodyBytes;
+    private final ScrapeProperties properties;
+    private final Function<FetchProfile, HttpClient> clientFactory;
+    private final ConcurrentMap<ClientSettings, HttpClient> clients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, HostPolicy> hostPolicies = new ConcurrentHashMap<>();
+    private final Cache<String, Integer> rejectedUrls;
 
     @Autowired
     public ScrapingService(Tracer tracer,
-                           @Value("${recipesniper.scrape.storage-dir:./data/pages}") String storageDir) {
+                           PageArchive pageArchive,
+                           PageStripper pageStripper,
+                           MeterRegistry meterRegistry,
+                           @Value("${recipesniper.scrape.max-body-size:8MB}") DataSize maxBodySize,
+                           ScrapeProperties properties) {
+        this(tracer, ScrapingService::newClient, pageArchive, pageStripper, meterRegistry, maxBodySize, properties);
+    }
+
+    // Visible for testing
+    ScrapingService(Tracer tracer, Function<FetchProfile, HttpClient> clientFactory, PageArchive pageArchive,
+                    PageStripper pageStripper, MeterRegistry meterRegistry, DataSize maxBodySize,
+                    ScrapeProperties properties) {
         this.tracer = tracer;
-        this.httpClient = HttpClient.newBuilder()
+        this.clientFactory = clientFactory;
+        this.pageArchive = pageArchive;
+        this.pageStripper = pageStripper;
+        this.meterRegistry = meterRegistry;
+        this.maxBodyBytes = maxBodySize.toBytes();
+        this.properties = properties;
+        this.rejectedUrls = Caffeine.newBuilder()
+                .maximumSize(properties.getNegativeCacheMaximumSize())
+                .expireAfterWrite(properties.getNegativeCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rejectedUrls, "scrapeRejectedUrls");
+    }
+
+    /**
+     * Hosts whose profiles agree on the client-level settings share one
+     * HttpClient, and with it one connection pool.
+     */
+    private record ClientSettings(Duration connectTimeout, HttpClient.Version httpVersion) {
+    }
+
+    /**
+     * The resolved profile for a host, the client it uses and the state that
+     * guards it: bulkhead, circuit breaker, retry budget and latency window.
+     */
+    private record HostPolicy(String host, FetchProfile profile, HttpClient client, Semaphore bulkhead,
+                              CircuitBreaker breaker, RetryBudget retryBudget, LatencyTracker latency) {
+    }
+
+    /**
+     * A download let through by {@link #admit}. It holds a slot in the host's
+     * bulkhead and reports to the breaker exactly once: closing it unreported,
+     * whatever ended the download, counts as abandoned so a probe can never
+     * leave the breaker stuck half-open.
+     */
+    private static final class Admission implements AutoCloseable {
+
+        private final HostPolicy policy;
+        private boolean reported;
+
+        Admission(HostPolicy policy) {
+            this.policy = policy;
+        }
+
+        HostPolicy policy() {
+            return policy;
+        }
+
+        void succeeded() {
+            reported = true;
+            policy.breaker().onSuccess();
+        }
+
+        void failed() {
+            reported = true;
+            policy.breaker().onFailure();
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (!reported) {
+                    policy.breaker().onAbandoned();
+                }
+            } finally {
+                policy.bulkhead().release();
+            }
+        }
+    }
+
+    private static HttpClient newClient(FetchProfile profile) {
+        return HttpClient.newBuilder()
                 .followRedirects(HttpClient.Redirect.NORMAL)
-                .connectTimeout(Duration.ofSeconds(15))
+                .connectTimeout(profile.getConnectTimeout())
+                .version(profile.getHttpVersion())
                 .build();
-        this.storageDir = Path.of(storageDir);
     }
 
-    // Visible for testing
-    ScrapingService(Tracer tracer, HttpClient httpClient, Path storageDir) {
-        this.tracer = tracer;
-        this.httpClient = httpClient;
-        this.storageDir = storageDir;
+    private HostPolicy policyFor(String host) {
+        return hostPolicies.computeIfAbsent(host, h -> {
+            FetchProfile profile = properties.profileFor(h);
+            HttpClient client = clients.computeIfAbsent(
+                    new ClientSettings(profile.getConnectTimeout(), profile.getHttpVersion()),
+                    settings -> clientFactory.apply(profile));
+            Semaphore bulkhead = new Semaphore(profile.getMaxConcurrent());
+            Gauge.builder("recipesniper.scrape.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                    .description("Free download slots in the host's bulkhead")
+                    .tag("host", h)
+                    .register(meterRegistry);
+            CircuitBreaker breaker = new CircuitBreaker(h, profile.getBreakerFailureThreshold(),
+                    profile.getBreakerOpenDuration(), Clock.systemUTC());
+            Gauge.builder("recipesniper.scrape.breaker.state", breaker, b -> b.state().ordinal())
+                    .description("Circuit breaker state of the host: 0 closed, 1 half-open, 2 open")
+                    .tag("host", h)
+                    .register(meterRegistry);
+            RetryBudget retryBudget = new RetryBudget(profile.getRetryBudgetRatio(), profile.getRetryBudgetReserve());
+            return new HostPolicy(h, profile, client, bulkhead, breaker, retryBudget, new LatencyTracker());
+        });
+    }
+
+    /**
+     * @param html        the whole page, which extraction and content hashes use
+     * @param storedHtml  what to keep of it in the database, see {@link PageStripper}
+     * @param notModified true when the page was served from the archive, either
+     *                    because it was still fresh or because the origin
+     *                    answered 304; callers may reuse earlier extraction results
+     */
+    public record ScrapeResult(String title, String html, String storedHtml, Path savedFile, boolean notModified) {
+
+        public ScrapeResult(String title, String html, Path savedFile) {
+            this(title, html, html, savedFile, false);
+        }
+
+        public ScrapeResult(String title, String html, Path savedFile, boolean notModified) {
+            this(title, html, html, savedFile, notModified);
+        }
     }
 
-    public record ScrapeResult(String title, String html, Path savedFile) {
+    /**
+     * A page downloaded to the archive, or found there fresh or revalidated,
+     * and not yet parsed.
+     *
+     * @param charset     the charset its response declared, or null to sniff it
+     * @param notModified as for {@link ScrapeResult#notModified()}
+     */
+    public record Download(String url, Path savedFile, String charset, boolean notModified) {
     }
 
+    /**
+     * Downloads and parses a page; see {@link #download} and {@link #parse}.
+     */
     public ScrapeResult scrape(String url) throws IOException {
+        Download download = download(url);
+        Document doc = parse(download);
+        return result(download, doc, doc.html());
+    }
+
+    /**
+     * Brings a page's archived copy up to date, downloading it or
+     * revalidating it as needed, without parsing it. The host's download slot
+     * is released and the response closed by the time this returns, so
+     * callers can leave the CPU-bound {@link #parse} to other threads.
+     */
+    public Download download(String url) throws IOException {
         if (url == null || url.isBlank()) {
             throw new IllegalArgumentException("URL must not be blank");
         }
 
-        Span span = tracer.spanBuilder("ScrapingService.scrape")
+        Span span = tracer.spanBuilder("ScrapingService.download")
                 .setAttribute("recipe.url", url)
                 .startSpan();
 
         try (Scope scope = span.makeCurrent()) {
-            log.info("Downloading URL: {}", url);
-
-            // Download the page using HttpClient with browser-like headers
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("User-Agent", USER_AGENT)
-                    .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
-                    .header("Accept-Language", "en-US,en;q=0.9")
-                    .timeout(Duration.ofSeconds(30))
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response;
-            try {
-                response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new IOException("Download interrupted for URL: " + url, e);
+            Optional<Validators> archived = pageArchive.validators(url);
+            if (archived.isPresent() && archived.get().isFresh(Instant.now())) {
+                span.setAttribute("scrape.cache", "fresh");
+                log.info("Archived page still fresh, skipping download: {}", url);
+                return new Download(url, archivedPage(url), archived.get().charset(), true);
             }
 
-            if (response.statusCode() >= 400) {
-                throw new IOException("HTTP " + response.statusCode() + " when fetching URL: " + url);
+            Integer rejectedStatus = rejectedUrls.getIfPresent(url);
+            if (rejectedStatus != null) {
+                span.setAttribute("scrape.cache", "rejected");
+                throw new IOException("HTTP " + rejectedStatus + " when recently fetching URL: " + url);
             }
 
-            String rawHtml = response.body();
-
-            // Save the HTML to a local file
-            Files.createDirectories(storageDir);
-            String safeName = url.replaceAll("[^a-zA-Z0-9.-]", "_");
-            if (safeName.length() > 200) {
-                safeName = safeName.substring(0, 200);
+            try (Admission admission = admit(url)) {
+                return fetch(url, archived, admission, span);
             }
-            Path savedFile = storageDir.resolve(safeName + ".html");
-            Files.writeString(savedFile, rawHtml);
-            log.info("Saved page to: {}", savedFile);
+        } catch (IOException e) {
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
 
-            // Parse the saved file with Jsoup
-            Document doc = Jsoup.parse(savedFile.toFile(), "UTF-8");
-            String title = doc.title();
-            String html = doc.html();
+    /**
+     * Downloads a resource that is not a recipe page, such as robots.txt or a
+     * sitemap, into {@code target} under the same per-host policies as
+     * {@link #scrape}. Content-Encoding is removed; the file holds the bytes
+     * the server meant to send, which for a .gz sitemap are still gzipped.
+     */
+    public Path downloadTo(String url, Path target, DataSize maxSize) throws IOException {
+        Span span = tracer.spanBuilder("ScrapingService.downloadTo")
+                .setAttribute("download.url", url)
+                .startSpan();
 
-            span.setAttribute("recipe.title", title);
-            span.setAttribute("recipe.savedFile", savedFile.toString());
-            log.info("Successfully scraped: {}", title);
+        try (Scope scope = span.makeCurrent()) {
+            Integer rejectedStatus = rejectedUrls.getIfPresent(url);
+            if (rejectedStatus != null) {
+                throw new IOException("HTTP " + rejectedStatus + " when recently fetching URL: " + url);
+            }
 
-            return new ScrapeResult(title, html, savedFile);
+            try (Admission admission = admit(url)) {
+                log.info("Downloading URL: {}", url);
+                HttpRequest request = requestFor(url, admission.policy().profile()).build();
+                HttpResponse<InputStream> response = exchange(url, request, admission, span);
+                try (InputStream body = response.body()) {
+                    if (response.statusCode() >= 400) {
+                        throw new IOException("HTTP " + response.statusCode() + " when fetching URL: " + url);
+                    }
+                    return copyBody(url, response.headers(), body, maxSize.toBytes(), decoded -> {
+                        Files.copy(decoded, target, StandardCopyOption.REPLACE_EXISTING);
+                        return target;
+                    }, span);
+                }
+            }
         } catch (IOException e) {
             span.setStatus(StatusCode.ERROR, e.getMessage());
             span.recordException(e);
@@ -137,4 +335,532 @@ public class ScrapingService {
             span.end();
         }
     }
+
+    /**
+     * Passes the host's circuit breaker and takes a slot in its bulkhead; the
+     * caller must close the admission.
+     */
+    private Admission admit(String url) throws IOException {
+        String host = hostOf(url);
+        HostPolicy policy = policyFor(host);
+        try {
+            policy.breaker().acquire();
+        } catch (HostUnavailableException e) {
+            Counter.builder("recipesniper.scrape.breaker.rejected")
+                    .description("Downloads refused because the host's circuit breaker is open")
+                    .tag("host", host)
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        }
+        try {
+            acquire(url, host, policy);
+        } catch (IOException | RuntimeException | Error e) {
+            policy.breaker().onAbandoned();
+            throw e;
+        }
+        return new Admission(policy);
+    }
+
+    /**
+     * Waits for a slot in the host's bulkhead, so a slow host can only tie up
+     * as many scrapes as its profile allows.
+     */
+    private void acquire(String url, String host, HostPolicy policy) throws IOException {
+        boolean acquired;
+        try {
+            acquired = policy.bulkhead().tryAcquire(
+                    policy.profile().getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting to download URL: " + url, e);
+        }
+        if (!acquired) {
+            Counter.builder("recipesniper.scrape.bulkhead.rejected")
+                    .description("Downloads refused because the host's bulkhead stayed full")
+                    .tag("host", host)
+                    .register(meterRegistry)
+                    .increment();
+            throw new HostUnavailableException("Too many concurrent downloads from " + host + " for URL: " + url,
+                    policy.profile().getAcquireTimeout());
+        }
+    }
+
+    private Download fetch(String url, Optional<Validators> archived, Admission admission, Span span)
+            throws IOException {
+        log.info("Downloading URL: {}", url);
+
+        HttpRequest.Builder requestBuilder = requestFor(url, admission.policy().profile());
+        archived.ifPresent(v -> {
+            if (v.etag() != null) {
+                requestBuilder.header("If-None-Match", v.etag());
+            }
+            if (v.lastModified() != null) {
+                requestBuilder.header("If-Modified-Since", v.lastModified());
+            }
+        });
+
+        HttpResponse<InputStream> response = exchange(url, requestBuilder.build(), admission, span);
+        HttpHeaders headers = response.headers();
+        try (InputStream body = response.body()) {
+            if (response.statusCode() == 304 && archived.isPresent()) {
+                Validators revalidated = validatorsOf(headers, archived.get());
+                pageArchive.saveValidators(url, revalidated);
+                span.setAttribute("scrape.cache", "revalidated");
+                log.info("Page not modified, reusing archived copy: {}", url);
+                return new Download(url, archivedPage(url), revalidated.charset(), true);
+            }
+
+            if (response.statusCode() >= 400) {
+                throw new IOException("HTTP " + response.statusCode() + " when fetching URL: " + url);
+            }
+
+            // Stream the page bytes to the archive; the parser decodes them once
+            Path savedFile = copyBody(url, headers, body, maxBodyBytes,
+                    decoded -> pageArchive.save(url, decoded), span);
+            Validators validators = validatorsOf(headers, null);
+            pageArchive.saveValidators(url, validators);
+            log.info("Saved page to: {}", savedFile);
+            span.setAttribute("scrape.cache", "miss");
+
+            return new Download(url, savedFile, validators.charset(), false);
+        }
+    }
+
+    /**
+     * Download the page using HttpClient with browser-like headers.
+     */
+    private static HttpRequest.Builder requestFor(String url, FetchProfile profile) {
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+                .header("Accept-Language", "en-US,en;q=0.9")
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .timeout(profile.getRequestTimeout())
+                .GET();
+        profile.getHeaders().forEach(requestBuilder::setHeader);
+        return requestBuilder;
+    }
+
+    /**
+     * Sends the request with retries and reports the outcome to the host's
+     * circuit breaker and the negative cache. Anything else that ends the
+     * send leaves the admission unreported, which abandons it on close.
+     */
+    private HttpResponse<InputStream> exchange(String url, HttpRequest request, Admission admission, Span span)
+            throws IOException {
+        HttpResponse<InputStream> response;
+        try {
+            response = send(request, admission.policy(), span);
+        } catch (IOException e) {
+            admission.failed();
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Download interrupted for URL: " + url, e);
+        }
+        span.setAttribute("http.version", String.valueOf(response.version()));
+        recordOutcome(url, response.statusCode(), admission);
+        return response;
+    }
+
+    /**
+     * Sends a GET, retrying connection failures, timeouts and transient
+     * statuses with jittered exponential backoff while the host's retry budget
+     * allows. The last response or failure is what the caller sees.
+     */
+    private HttpResponse<InputStream> send(HttpRequest request, HostPolicy policy, Span span)
+            throws IOException, InterruptedException {
+        FetchProfile profile = policy.profile();
+        policy.retryBudget().deposit();
+        for (int attempt = 1; ; attempt++) {
+            boolean lastAttempt = attempt >= profile.getMaxAttempts();
+            HttpResponse<InputStream> response;
+            try {
+                response = sendOnce(request, policy, span);
+            } catch (IOException e) {
+                Duration delay = backoff(profile, attempt, null);
+                if (lastAttempt || !retry(policy, "error", delay, span)) {
+                    throw e;
+                }
+                log.info("Retrying {} in {} ms after {}", request.uri(), delay.toMillis(), e.toString());
+                Thread.sleep(delay);
+                continue;
+            }
+
+            int status = response.statusCode();
+            if (lastAttempt || !isRetryable(status)) {
+                return response;
+            }
+            Duration delay = backoff(profile, attempt, retryAfterOf(response.headers()));
+            if (!retry(policy, String.valueOf(status), delay, span)) {
+                return response;
+            }
+            response.body().close();
+            log.info("Retrying {} in {} ms after HTTP {}", request.uri(), delay.toMillis(), status);
+            Thread.sleep(delay);
+        }
+    }
+
+    private boolean retry(HostPolicy policy, String reason, Duration delay, Span span) {
+        if (delay == null) {
+            return false;
+        }
+        if (!policy.retryBudget().tryWithdraw()) {
+            budgetExhausted(policy.host());
+            return false;
+        }
+        span.addEvent("retry");
+        Counter.builder("recipesniper.scrape.retries")
+                .description("Download attempts repeated after a transient failure")
+                .tag("host", policy.host())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return true;
+    }
+
+    private void budgetExhausted(String host) {
+        Counter.builder("recipesniper.scrape.retry.budget.exhausted")
+                .description("Retries and hedges skipped because the host's retry budget was spent")
+                .tag("host", host)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    static boolean isRetryable(int status) {
+        return status == 429 || status == 500 || status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * Full-jitter exponential backoff, stretched to honour Retry-After.
+     *
+     * @return the wait before the next attempt, or null when the server asked
+     * for longer than the profile is willing to wait
+     */
+    static Duration backoff(FetchProfile profile, int attempt, Duration retryAfter) {
+        long ceiling = Math.min(profile.getRetryMaxBackoff().toMillis(),
+                profile.getRetryBackoff().toMillis() << Math.min(attempt - 1, 20));
+        Duration delay = Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        if (retryAfter == null) {
+            return delay;
+        }
+        if (retryAfter.compareTo(profile.getRetryMaxBackoff()) > 0) {
+            return null;
+        }
+        return retryAfter.compareTo(delay) > 0 ? retryAfter : delay;
+    }
+
+    /**
+     * Parses Retry-After, which is either delta-seconds or an HTTP date.
+     */
+    static Duration retryAfterOf(HttpHeaders headers) {
+        Optional<String> value = headers.firstValue("Retry-After").map(String::trim);
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.get())));
+        } catch (NumberFormatException e) {
+            // Not delta-seconds, try the date form
+        }
+        try {
+            Instant at = ZonedDateTime.parse(value.get(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration wait = Duration.between(Instant.now(), at);
+            return wait.isNegative() ? Duration.ZERO : wait;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * One attempt. With hedging on and enough latency history for the host, a
+     * second copy of the request goes out if the first has no headers by the
+     * host's p95, and the first of the two to answer wins.
+     */
+    private HttpResponse<InputStream> sendOnce(HttpRequest request, HostPolicy policy, Span span)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Duration hedgeAfter = Boolean.TRUE.equals(policy.profile().getHedgeRequests())
+                ? policy.latency().percentile(0.95)
+                : null;
+        HttpResponse<InputStream> response = hedgeAfter == null
+                ? policy.client().send(request, HttpResponse.BodyHandlers.ofInputStream())
+                : sendHedged(request, policy, max(hedgeAfter, policy.profile().getHedgeMinDelay()), span);
+        policy.latency().record(Duration.ofNanos(System.nanoTime() - start));
+        return response;
+    }
+
+    private HttpResponse<InputStream> sendHedged(HttpRequest request, HostPolicy policy, Duration hedgeAfter,
+                                                 Span span) throws IOException, InterruptedException {
+        CompletableFuture<HttpResponse<InputStream>> primary =
+                policy.client().sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        try {
+            return primary.get(hedgeAfter.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Slower than usual for this host, consider hedging
+        } catch (ExecutionException e) {
+            throw ioExceptionOf(e);
+        }
+        if (!policy.retryBudget().tryWithdraw()) {
+            budgetExhausted(policy.host());
+            return await(primary);
+        }
+
+        span.addEvent("hedge");
+        Counter.builder("recipesniper.scrape.hedges")
+                .description("Second requests sent because the first was slower than the host's p95")
+                .tag("host", policy.host())
+                .register(meterRegistry)
+                .increment();
+        CompletableFuture<HttpResponse<InputStream>> hedge =
+                policy.client().sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        HttpResponse<InputStream> winner = null;
+        try {
+            winner = await(firstSuccessful(primary, hedge));
+            return winner;
+        } finally {
+            discardUnless(primary, winner);
+            discardUnless(hedge, winner);
+        }
+    }
+
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> a, CompletableFuture<T> b) {
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        BiConsumer<T, Throwable> race = (result, failure) -> {
+            if (failure == null) {
+                first.complete(result);
+            } else if (failures.incrementAndGet() == 2) {
+                first.completeExceptionally(failure);
+            }
+        };
+        a.whenComplete(race);
+        b.whenComplete(race);
+        return first;
+    }
+
+    /**
+     * Cancels a hedged request that is still running, or closes its body if it
+     * answered but lost the race, so the connection goes back to the pool.
+     */
+    private static void discardUnless(CompletableFuture<HttpResponse<InputStream>> request,
+                                      HttpResponse<InputStream> winner) {
+        request.cancel(true);
+        request.thenAccept(response -> {
+            if (response != winner) {
+                try {
+                    response.body().close();
+                } catch (IOException e) {
+                    log.debug("Failed to close hedged response body: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw ioExceptionOf(e);
+        }
+    }
+
+    private static IOException ioExceptionOf(ExecutionException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof IOException io ? io : new IOException(cause);
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    /**
+     * Feeds a response into the host's breaker and the negative cache. Blocking
+     * (403), throttling (429) and server errors count against the host; other
+     * client errors are about the URL, so only that URL is refused for a while.
+     */
+    private void recordOutcome(String url, int status, Admission admission) {
+        if (status == 403 || status == 429 || status >= 500) {
+            admission.failed();
+        } else {
+            admission.succeeded();
+        }
+        if (status >= 400 && status < 500 && status != 408 && status != 429) {
+            rejectedUrls.put(url, status);
+        }
+    }
+
+    /**
+     * Writes a decoded response body somewhere and returns where.
+     */
+    @FunctionalInterface
+    private interface BodySink {
+        Path write(InputStream decoded) throws IOException;
+    }
+
+    /**
+     * Streams the response body into a sink, decompressing on the way and
+     * counting bytes on both sides of the decompressor. The download is
+     * abandoned, and the connection released, as soon as either the declared
+     * or the actual decoded size passes {@code limit}.
+     */
+    private Path copyBody(String url, HttpHeaders headers, InputStream body, long limit, BodySink sink,
+                          Span span) throws IOException {
+        String host = hostOf(url);
+        long declaredLength = headers.firstValueAsLong("Content-Length").orElse(-1);
+        if (declaredLength > limit) {
+            abortedDownloads(host).increment();
+            throw new IOException("Response of " + declaredLength + " bytes exceeds limit of "
+                    + limit + " bytes for URL: " + url);
+        }
+
+        String encoding = headers.firstValue("Content-Encoding")
+                .map(e -> e.trim().toLowerCase(Locale.ROOT))
+                .orElse("identity");
+        CountingInputStream wire = new CountingInputStream(body);
+        CountingInputStream decoded = new CountingInputStream(decode(wire, encoding), limit);
+        Path savedFile;
+        try (decoded) {
+            savedFile = sink.write(decoded);
+        } catch (CountingInputStream.LimitExceededException e) {
+            abortedDownloads(host).increment();
+            throw new IOException("Response exceeds limit of " + limit + " bytes for URL: " + url, e);
+        }
+
+        DistributionSummary.builder("recipesniper.scrape.wire.bytes")
+                .description("Response body bytes received from the network")
+                .baseUnit("bytes")
+                .tag("host", host)
+                .tag("encoding", encoding)
+                .register(meterRegistry)
+                .record(wire.count());
+        DistributionSummary.builder("recipesniper.scrape.decoded.bytes")
+                .description("Response body bytes after content decoding")
+                .baseUnit("bytes")
+                .tag("host", host)
+                .register(meterRegistry)
+                .record(decoded.count());
+        span.setAttribute("http.response.encoding", encoding);
+        span.setAttribute("http.response.wireBytes", wire.count());
+        span.setAttribute("http.response.decodedBytes", decoded.count());
+
+        return savedFile;
+    }
+
+    private Counter abortedDownloads(String host) {
+        return Counter.builder("recipesniper.scrape.aborted")
+                .description("Downloads abandoned for exceeding the maximum body size")
+                .tag("host", host)
+                .register(meterRegistry);
+    }
+
+    static InputStream decode(InputStream in, String encoding) throws IOException {
+        return switch (encoding) {
+            case "identity", "" -> in;
+            case "gzip", "x-gzip" -> new GZIPInputStream(in, 8192);
+            case "deflate" -> inflate(in);
+            default -> throw new IOException("Unsupported Content-Encoding: " + encoding);
+        };
+    }
+
+    /**
+     * "deflate" is specified as zlib-wrapped, but some servers send a raw
+     * deflate stream; a zlib header is recognisable from its first two bytes.
+     */
+    private static InputStream inflate(InputStream in) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(in, 2);
+        byte[] header = pushback.readNBytes(2);
+        pushback.unread(header);
+        boolean zlibWrapped = header.length == 2
+                && (header[0] & 0x0F) == 8
+                && (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % 31 == 0;
+        return new InflaterInputStream(pushback, new Inflater(!zlibWrapped), 8192);
+    }
+
+    /**
+     * Returns the charset declared in the Content-Type header, or null so the
+     * parser sniffs it from a byte order mark or a meta tag.
+     */
+    static String charsetOf(HttpHeaders headers) {
+        return headers.firstValue("Content-Type")
+                .map(CHARSET::matcher)
+                .filter(Matcher::find)
+                .map(m -> m.group(1))
+                .filter(ScrapingService::isSupported)
+                .orElse(null);
+    }
+
+    private static boolean isSupported(String charset) {
+        try {
+            return Charset.isSupported(charset);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String hostOf(String url) {
+        String host = URI.create(url).getHost();
+        return host != null ? host.toLowerCase(Locale.ROOT) : "unknown";
+    }
+
+    private Path archivedPage(String url) throws IOException {
+        return pageArchive.find(url).orElseThrow(() -> new NoSuchFileException(pageArchive.pathFor(url).toString()));
+    }
+
+    /**
+     * Parses a downloaded page from the archive; without a declared charset
+     * Jsoup sniffs the BOM or meta tags.
+     */
+    public Document parse(Download download) throws IOException {
+        try (InputStream in = PageArchive.open(download.savedFile())) {
+            return Jsoup.parse(in, download.charset(), download.url());
+        }
+    }
+
+    /**
+     * Completes a parsed page. This strips {@code doc} in place for storage,
+     * so anything else that reads the document, such as extraction, must do
+     * so first.
+     *
+     * @param html {@code doc} as serialized before stripping
+     */
+    public ScrapeResult result(Download download, Document doc, String html) {
+        String title = doc.title();
+        String storedHtml = pageStripper.stored(doc, html);
+
+        Span span = Span.current();
+        span.setAttribute("recipe.title", title);
+        span.setAttribute("recipe.savedFile", download.savedFile().toString());
+        span.setAttribute("recipe.storedSize", storedHtml.length());
+        log.info("Successfully scraped: {}", title);
+
+        return new ScrapeResult(title, html, storedHtml, download.savedFile(), download.notModified());
+    }
+
+    /**
+     * Collects the validators from a response. A 304 may omit headers that
+     * are unchanged, so those fall back to the previously stored values.
+     */
+    private static Validators validatorsOf(HttpHeaders headers, Validators previous) {
+        String etag = headers.firstValue("ETag")
+                .orElse(previous != null ? previous.etag() : null);
+        String lastModified = headers.firstValue("Last-Modified")
+                .orElse(previous != null ? previous.lastModified() : null);
+        Duration maxAge = headers.firstValue("Cache-Control")
+                .map(ScrapingService::maxAgeOf)
+                .orElse(null);
+        String charset = previous != null ? previous.charset() : charsetOf(headers);
+        return new Validators(etag, lastModified, Instant.now(), maxAge, charset);
+    }
+
+    static Duration maxAgeOf(String cacheControl) {
+        String directives = cacheControl.toLowerCase();
+        if (directives.contains("no-cache") || directives.contains("no-store")) {
+            return null;
+        }
+        Matcher matcher = MAX_AGE.matcher(directives);
+        return matcher.find() ? Duration.ofSeconds(Long.parseLong(matcher.group(1))) : null;
+    }
 }
@@ -19,6 +19,8 @@
 
 package com.recipesniper.service;
 
+import com.recipesniper.cache.JsonResponseCache;
+import com.recipesniper.cache.ResourceVersions;
 import com.recipesniper.dto.RecipeResponse;
 import com.recipesniper.dto.ShoppingListDetailResponse;
 import com.recipesniper.dto.ShoppingListItemResponse;
@@ -39,6 +41,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -51,13 +54,19 @@ public class ShoppingListService {
 
     private final ShoppingListRepository shoppingListRepository;
     private final RecipeRepository recipeRepository;
+    private final JsonResponseCache jsonResponseCache;
+    private final ResourceVersions resourceVersions;
     private final Tracer tracer;
 
     public ShoppingListService(ShoppingListRepository shoppingListRepository,
                                RecipeRepository recipeRepository,
+                               JsonResponseCache jsonResponseCache,
+                               ResourceVersions resourceVersions,
                                Tracer tracer) {
         this.shoppingListRepository = shoppingListRepository;
         this.recipeRepository = recipeRepository;
+        this.jsonResponseCache = jsonResponseCache;
+        this.resourceVersions = resourceVersions;
         this.tracer = tracer;
     }
 
@@ -101,6 +110,7 @@ public class ShoppingListService {
             }
 
             ShoppingList saved = shoppingListRepository.save(shoppingList);
+            resourceVersions.shoppingListsChanged();
             span.setAttribute("shoppingList.id", saved.getId());
             span.setAttribute("shoppingList.itemCount", saved.getItems().size());
             log.info("Created shopping list '{}' with {} items", saved.getName(), saved.getItems().size());
@@ -124,9 +134,11 @@ public class ShoppingListService {
 
     @Transactional(readOnly = true)
     public ShoppingListDetailResponse getShoppingListById(Long id) {
-        ShoppingList list = shoppingListRepository.findById(id)
+        // Two statements regardless of recipe count: list + items, then recipe summaries
+        ShoppingList list = shoppingListRepository.findWithItemsById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Shopping list not found: " + id));
-        return toDetailResponse(list);
+        List<RecipeResponse> recipes = recipeRepository.findSummariesByShoppingListId(id);
+        return toDetailResponse(list, recipes);
     }
 
     @Transactional
@@ -142,6 +154,7 @@ public class ShoppingListService {
                     .orElseThrow(() -> new IllegalArgumentException("Shopping list not found: " + id));
 
             list.setName(request.name());
+            list.setUpdatedAt(LocalDateTime.now());
 
             // Clear existing items and rebuild from request
             list.getItems().clear();
@@ -155,6 +168,8 @@ public class ShoppingListService {
             }
 
             ShoppingList saved = shoppingListRepository.save(list);
+            jsonResponseCache.invalidate(JsonResponseCache.shoppingListKey(id));
+            resourceVersions.shoppingListsChanged();
             span.setAttribute("shoppingList.itemCount", saved.getItems().size());
             log.info("Updated shopping list '{}' with {} items", saved.getName(), saved.getItems().size());
 
@@ -186,6 +201,8 @@ public class ShoppingListService {
                 throw new IllegalArgumentException("No valid recipes found for IDs: " + recipeIds);
             }
 
+            list.setUpdatedAt(LocalDateTime.now());
+
             // Add new recipes to the list (avoid duplicates)
             List<Long> existingRecipeIds = list.getRecipes().stream()
                     .map(Recipe::getId)
@@ -212,6 +229,8 @@ public class ShoppingListService {
             }
 
             ShoppingList saved = shoppingListRepository.save(list);
+            jsonResponseCache.invalidate(JsonResponseCache.shoppingListKey(id));
+            resourceVersions.shoppingListsChanged();
             span.setAttribute("shoppingList.itemCount", saved.getItems().size());
             log.info("Shopping list '{}' now has {} items", saved.getName(), saved.getItems().size());
 
@@ -231,6 +250,8 @@ public class ShoppingListService {
             throw new IllegalArgumentException("Shopping list not found: " + id);
         }
         shoppingListRepository.deleteById(id);
+        jsonResponseCache.invalidate(JsonResponseCache.shoppingListKey(id));
+        resourceVersions.shoppingListsChanged();
         log.info("Deleted shopping list {}", id);
     }
 
@@ -326,13 +347,17 @@ public class ShoppingListService {
                         r.getId(), r.getUrl(), r.getTitle(),
                         r.getIngredients().size(), r.getCreatedAt()))
                 .toList();
+        return toDetailResponse(list, recipes);
+    }
 
+    private ShoppingListDetailResponse toDetailResponse(ShoppingList list, List<RecipeResponse> recipes) {
         List<ShoppingListItemResponse> items = list.getItems().stream()
                 .map(i -> new ShoppingListItemResponse(
                         i.getId(), i.getName(), i.getQuantity(), i.getUnit()))
                 .toList();
 
+        LocalDateTime updatedAt = list.getUpdatedAt() != null ? list.getUpdatedAt() : list.getCreatedAt();
         return new ShoppingListDetailResponse(
-                list.getId(), list.getName(), list.getCreatedAt(), recipes, items);
+                list.getId(), list.getName(), list.getCreatedAt(), updatedAt, recipes, items);
     }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.service.IngredientExtractionService.ParsedIngredient;
+import org.jsoup.nodes.Document;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Extracts ingredients from pages of sites whose structure is known, ahead of
+ * the generic JSON-LD and selector strategies in
+ * {@link IngredientExtractionService}. Adapters are Spring beans and are
+ * picked up by {@link SiteAdapterRegistry}.
+ */
+public interface SiteAdapter {
+
+    /**
+     * Short name used in traces and logs.
+     */
+    String name();
+
+    /**
+     * Hosts this adapter handles. Each entry also matches its subdomains, so
+     * {@code "example.com"} covers {@code "www.example.com"}.
+     */
+    Set<String> hostSuffixes();
+
+    /**
+     * CSS selector for the recipe card the adapter reads from. When pages are
+     * stored stripped, {@link PageStripper} keeps what it matches, so the
+     * adapter works on the stored copy as it did on the original.
+     */
+    String cardSelector();
+
+    /**
+     * Returns the page's ingredients, or an empty list if the page does not
+     * have the expected structure, in which case the generic strategies run.
+     */
+    List<ParsedIngredient> extract(Document doc);
+}
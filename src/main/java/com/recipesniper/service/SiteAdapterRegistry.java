@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds the {@link SiteAdapter} for a host by its most specific registered
+ * suffix. Lookups walk the host's labels from the left, so they cost one map
+ * probe per label regardless of how many adapters are registered.
+ */
+@Component
+public class SiteAdapterRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(SiteAdapterRegistry.class);
+
+    private final Map<String, SiteAdapter> bySuffix = new HashMap<>();
+
+    public SiteAdapterRegistry(List<SiteAdapter> adapters) {
+        for (SiteAdapter adapter : adapters) {
+            for (String suffix : adapter.hostSuffixes()) {
+                String key = suffix.toLowerCase(Locale.ROOT);
+                SiteAdapter existing = bySuffix.putIfAbsent(key, adapter);
+                if (existing != null) {
+                    throw new IllegalStateException("Host " + key + " is claimed by both site adapters "
+                            + existing.name() + " and " + adapter.name());
+                }
+            }
+        }
+        log.info("Registered {} site adapters for {} hosts", adapters.size(), bySuffix.size());
+    }
+
+    /**
+     * Returns the adapter for a host, or null if no adapter covers it.
+     */
+    public SiteAdapter find(String host) {
+        if (host == null || bySuffix.isEmpty()) {
+            return null;
+        }
+        String candidate = host.toLowerCase(Locale.ROOT);
+        while (true) {
+            SiteAdapter adapter = bySuffix.get(candidate);
+            if (adapter != null) {
+                return adapter;
+            }
+            int dot = candidate.indexOf('.');
+            if (dot < 0) {
+                return null;
+            }
+            candidate = candidate.substring(dot + 1);
+        }
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.dto.CrawlStatusResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Discovers recipes by walking a site's sitemaps. Sitemaps are found through
+ * the {@code Sitemap:} lines of {@code robots.txt} (falling back to
+ * {@code /sitemap.xml}), indexes are followed, and each sitemap is spooled to
+ * disk and streamed through {@link SitemapParser}, so even 50 MB sitemaps are
+ * read in constant memory. Page URLs that look like recipes are deduplicated
+ * in batches and imported at a fixed rate, and progress is checkpointed after
+ * every batch so a crawl that is stopped can pick up where it left off.
+ */
+@Service
+public class SitemapCrawler {
+
+    private static final Logger log = LoggerFactory.getLogger(SitemapCrawler.class);
+
+    private static final DataSize ROBOTS_MAX_SIZE = DataSize.ofKilobytes(512);
+
+    public enum State { RUNNING, COMPLETED, INTERRUPTED, FAILED }
+
+    private final ScrapingService scrapingService;
+    private final BulkImportService bulkImportService;
+    private final RecipeService recipeService;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final Path checkpointDir;
+    private final Pattern includePattern;
+    private final Pattern excludePattern;
+    private final double importsPerSecond;
+    private final int batchSize;
+    private final DataSize maxSitemapSize;
+    private final int maxSitemaps;
+
+    private final ConcurrentMap<String, Progress> crawls = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SitemapCrawler(ScrapingService scrapingService,
+                          BulkImportService bulkImportService,
+                          RecipeService recipeService,
+                          MeterRegistry meterRegistry,
+                          Tracer tracer,
+                          @Value("${recipesniper.crawl.checkpoint-dir:./data/crawl}") Path checkpointDir,
+                          @Value("${recipesniper.crawl.include-pattern:(?i)/recipes?/.+}") String includePattern,
+                          @Value("${recipesniper.crawl.exclude-pattern:(?i)/(tags?|categor(y|ies)|authors?|page|search|collections?)/}")
+                          String excludePattern,
+                          @Value("${recipesniper.crawl.imports-per-second:1.0}") double importsPerSecond,
+                          @Value("${recipesniper.crawl.batch-size:100}") int batchSize,
+                          @Value("${recipesniper.crawl.max-sitemap-size:100MB}") DataSize maxSitemapSize,
+                          @Value("${recipesniper.crawl.max-sitemaps:1000}") int maxSitemaps) {
+        this.scrapingService = scrapingService;
+        this.bulkImportService = bulkImportService;
+        this.recipeService = recipeService;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.checkpointDir = checkpointDir;
+        this.includePattern = Pattern.compile(includePattern);
+        this.excludePattern = Pattern.compile(excludePattern);
+        this.importsPerSecond = importsPerSecond;
+        this.batchSize = batchSize;
+        this.maxSitemapSize = maxSitemapSize;
+        this.maxSitemaps = maxSitemaps;
+    }
+
+    /**
+     * Starts crawling the site that {@code siteUrl} belongs to in the
+     * background, resuming from its checkpoint if an earlier crawl was stopped.
+     *
+     * @throws JobAlreadyRunningException if a crawl of the same host is running
+     */
+    public CrawlStatusResponse startCrawl(String siteUrl) {
+        URI site = siteOf(siteUrl);
+        Progress progress = register(site);
+        Context context = Context.current();
+        executor.execute(context.wrap(() -> run(site, progress)));
+        return progress.toResponse();
+    }
+
+    /**
+     * Crawls the site that {@code siteUrl} belongs to on the calling thread.
+     */
+    public CrawlStatusResponse crawl(String siteUrl) {
+        URI site = siteOf(siteUrl);
+        Progress progress = register(site);
+        run(site, progress);
+        return progress.toResponse();
+    }
+
+    public List<CrawlStatusResponse> getCrawls() {
+        return crawls.values().stream()
+                .sorted(Comparator.comparing(p -> p.host))
+                .map(Progress::toResponse)
+                .toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Interrupting leaves each running crawl's checkpoint in place
+        executor.shutdownNow();
+    }
+
+    private Progress register(URI site) {
+        Progress progress = new Progress(site.getHost());
+        Progress registered = crawls.compute(site.getHost(),
+                (host, current) -> current != null && current.state == State.RUNNING ? current : progress);
+        if (registered != progress) {
+            throw new JobAlreadyRunningException("A crawl of " + site.getHost() + " is already running");
+        }
+        return progress;
+    }
+
+    private void run(URI site, Progress progress) {
+        Span span = tracer.spanBuilder("SitemapCrawler.crawl")
+                .setAttribute("crawl.host", site.getHost())
+                .startSpan();
+
+        try (Scope scope = span.makeCurrent()) {
+            CrawlCheckpoint checkpoint = CrawlCheckpoint.load(checkpointDir.resolve(site.getHost() + ".properties"));
+            Path spool = Files.createTempFile("sitemap-", ".xml");
+            try {
+                Deque<String> pending = new ArrayDeque<>(discoverSitemaps(site, spool));
+                Set<String> visited = new HashSet<>();
+                RateLimiter rateLimiter = new RateLimiter(importsPerSecond);
+                while (!pending.isEmpty()) {
+                    String sitemap = pending.poll();
+                    if (!visited.add(sitemap)) {
+                        continue;
+                    }
+                    if (visited.size() > maxSitemaps) {
+                        log.warn("Stopping crawl of {} after {} sitemaps", site.getHost(), maxSitemaps);
+                        break;
+                    }
+                    if (!checkpoint.isDone(sitemap)) {
+                        crawlSitemap(site, sitemap, spool, pending, checkpoint, rateLimiter, progress);
+                    }
+                    progress.sitemaps.incrementAndGet();
+                }
+                checkpoint.delete();
+                progress.finish(State.COMPLETED, null);
+            } finally {
+                Files.deleteIfExists(spool);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.finish(State.INTERRUPTED, "Interrupted");
+        } catch (IOException | RuntimeException e) {
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            span.recordException(e);
+            log.warn("Crawl of {} failed: {}", site.getHost(), e.getMessage());
+            progress.finish(State.FAILED, e.getMessage());
+        } finally {
+            span.setAttribute("crawl.sitemaps", progress.sitemaps.get());
+            span.setAttribute("crawl.imported", progress.imported.get());
+            span.end();
+            log.info("Crawl of {} {}: {} sitemaps, {} URLs, {} recipe URLs, {} imported, {} skipped, {} failed",
+                    site.getHost(), progress.state.name().toLowerCase(Locale.ROOT), progress.sitemaps,
+                    progress.urlsSeen, progress.recipeUrls, progress.imported, progress.skipped, progress.failed);
+        }
+    }
+
+    private List<String> discoverSitemaps(URI site, Path spool) throws InterruptedException {
+        List<String> sitemaps = new ArrayList<>();
+        try {
+            scrapingService.downloadTo(site.resolve("/robots.txt").toString(), spool, ROBOTS_MAX_SIZE);
+            try (BufferedReader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int colon = line.indexOf(':');
+                    if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("sitemap")) {
+                        String sitemap = line.substring(colon + 1).trim();
+                        if (!sitemap.isEmpty()) {
+                            sitemaps.add(sitemap);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.info("No usable robots.txt for {}: {}", site.getHost(), e.getMessage());
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (sitemaps.isEmpty()) {
+            sitemaps.add(site.resolve("/sitemap.xml").toString());
+        }
+        return sitemaps;
+    }
+
+    private void crawlSitemap(URI site, String sitemap, Path spool, Deque<String> pending,
+                              CrawlCheckpoint checkpoint, RateLimiter rateLimiter, Progress progress)
+            throws IOException, InterruptedException {
+        try {
+            scrapingService.downloadTo(sitemap, spool, maxSitemapSize);
+        } catch (HostUnavailableException e) {
+            throw e;
+        } catch (IOException e) {
+            log.warn("Skipping sitemap {}: {}", sitemap, e.getMessage());
+            progress.failedSitemaps.incrementAndGet();
+            return;
+        }
+
+        long resumeFrom = checkpoint.position(sitemap);
+        long[] position = {0};
+        List<String> batch = new ArrayList<>(batchSize);
+        SitemapParser.Kind kind;
+        try (InputStream in = Files.newInputStream(spool)) {
+            kind = SitemapParser.parse(in, maxSitemapSize.toBytes(), pending::add, loc -> {
+                if (++position[0] <= resumeFrom) {
+                    return;
+                }
+                progress.urlsSeen.incrementAndGet();
+                if (isRecipeUrl(site, loc)) {
+                    batch.add(loc);
+                } else {
+                    urlCounter("filtered").increment();
+                }
+                if (batch.size() >= batchSize) {
+                    importBatch(batch, rateLimiter, progress);
+                    checkpoint.recordPosition(sitemap, position[0]);
+                }
+            });
+        }
+        importBatch(batch, rateLimiter, progress);
+        if (kind == SitemapParser.Kind.URLSET) {
+            checkpoint.recordDone(sitemap);
+        } else if (kind == SitemapParser.Kind.UNKNOWN) {
+            log.warn("Skipping {}: not a sitemap", sitemap);
+            progress.failedSitemaps.incrementAndGet();
+        }
+    }
+
+    private void importBatch(List<String> batch, RateLimiter rateLimiter, Progress progress)
+            throws HostUnavailableException, InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        BulkImportService.Deduplicated deduplicated = bulkImportService.deduplicate(batch);
+        int skipped = deduplicated.invalid() + deduplicated.duplicates() + deduplicated.alreadyImported();
+        progress.recipeUrls.addAndGet(batch.size());
+        progress.skipped.addAndGet(skipped);
+        urlCounter("skipped").increment(skipped);
+        batch.clear();
+
+        for (String url : deduplicated.newUrls()) {
+            rateLimiter.acquire();
+            try {
+                recipeService.addRecipe(url);
+                progress.imported.incrementAndGet();
+                urlCounter("imported").increment();
+            } catch (HostUnavailableException e) {
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to import {}: {}", url, e.getMessage());
+                progress.failed.incrementAndGet();
+                urlCounter("failed").increment();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    boolean isRecipeUrl(URI site, String url) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (uri.getHost() == null || !bareHost(uri.getHost()).equals(bareHost(site.getHost()))) {
+            return false;
+        }
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        return includePattern.matcher(path).find() && !excludePattern.matcher(path).find();
+    }
+
+    private static String bareHost(String host) {
+        String lower = host.toLowerCase(Locale.ROOT);
+        return lower.startsWith("www.") ? lower.substring(4) : lower;
+    }
+
+    private static URI siteOf(String siteUrl) {
+        URI uri = URI.create(UrlCanonicalizer.canonicalize(siteUrl));
+        return uri.resolve("/");
+    }
+
+    private Counter urlCounter(String result) {
+        return Counter.builder("recipesniper.crawl.urls")
+                .description("Page URLs found by sitemap crawls, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Progress {
+
+        final String host;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicInteger sitemaps = new AtomicInteger();
+        final AtomicInteger failedSitemaps = new AtomicInteger();
+        final AtomicInteger urlsSeen = new AtomicInteger();
+        final AtomicInteger recipeUrls = new AtomicInteger();
+        final AtomicInteger skipped = new AtomicInteger();
+        final AtomicInteger imported = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        volatile State state = State.RUNNING;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+
+        Progress(String host) {
+            this.host = host;
+        }
+
+        void finish(State state, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.state = state;
+        }
+
+        CrawlStatusResponse toResponse() {
+            return new CrawlStatusResponse(host, state.name(), sitemaps.get(), failedSitemaps.get(), urlsSeen.get(),
+                    recipeUrls.get(), skipped.get(), imported.get(), failed.get(), error, startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams {@code <loc>} entries out of a sitemap or sitemap index with StAX, so
+ * memory stays flat however large the file is. Gzipped sitemaps are detected by
+ * their magic bytes rather than the file name, since servers disagree on both
+ * the extension and the {@code Content-Encoding}.
+ */
+final class SitemapParser {
+
+    enum Kind { URLSET, SITEMAP_INDEX, UNKNOWN }
+
+    @FunctionalInterface
+    interface LocHandler {
+        void accept(String loc) throws IOException, InterruptedException;
+    }
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+    }
+
+    private SitemapParser() {
+    }
+
+    /**
+     * Parses one sitemap, handing each {@code <loc>} to {@code onSitemap} when
+     * the document is a {@code <sitemapindex>} and to {@code onPage} when it is
+     * a {@code <urlset>}.
+     *
+     * @param maxDecodedBytes cap on the uncompressed size, guarding against
+     *                        gzip bombs
+     */
+    static Kind parse(InputStream in, long maxDecodedBytes, LocHandler onSitemap, LocHandler onPage)
+            throws IOException, InterruptedException {
+        InputStream decoded = new CountingInputStream(decompressIfGzipped(in), maxDecodedBytes);
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(decoded);
+            Kind kind = Kind.UNKNOWN;
+            boolean rootSeen = false;
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                String name = reader.getLocalName();
+                if (!rootSeen) {
+                    rootSeen = true;
+                    kind = switch (name) {
+                        case "urlset" -> Kind.URLSET;
+                        case "sitemapindex" -> Kind.SITEMAP_INDEX;
+                        default -> Kind.UNKNOWN;
+                    };
+                    if (kind == Kind.UNKNOWN) {
+                        return kind;
+                    }
+                } else if ("loc".equals(name)) {
+                    String loc = reader.getElementText().trim();
+                    if (!loc.isEmpty()) {
+                        (kind == Kind.SITEMAP_INDEX ? onSitemap : onPage).accept(loc);
+                    }
+                }
+            }
+            return kind;
+        } catch (XMLStreamException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Malformed sitemap: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // the underlying stream is closed by the caller
+                }
+            }
+        }
+    }
+
+    private static InputStream decompressIfGzipped(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        if (first == 0x1f && second == 0x8b) {
+            return new GZIPInputStream(buffered);
+        }
+        return buffered;
+    }
+}
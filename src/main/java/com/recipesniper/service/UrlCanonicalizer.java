@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reduces the many spellings of a recipe page's URL to one, so imports can be
+ * deduplicated: lowercase scheme and host, no default port, fragment or
+ * tracking parameters, remaining query parameters sorted, and no trailing
+ * slash on a non-root path.
+ */
+public final class UrlCanonicalizer {
+
+    private static final Set<String> TRACKING_PARAMETERS = Set.of(
+            "fbclid", "gclid", "dclid", "msclkid", "yclid", "igshid",
+            "mc_cid", "mc_eid", "_hsenc", "_hsmi", "_ga", "_gl");
+
+    private UrlCanonicalizer() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the URL is not an absolute http(s) URL
+     */
+    public static String canonicalize(String url) {
+        URI uri;
+        try {
+            uri = new URI(url.trim());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid URL: " + url, e);
+        }
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : null;
+        if ((!"http".equals(scheme) && !"https".equals(scheme)) || uri.getHost() == null) {
+            throw new IllegalArgumentException("Not an http(s) URL: " + url);
+        }
+
+        StringBuilder canonical = new StringBuilder(scheme).append("://")
+                .append(uri.getHost().toLowerCase(Locale.ROOT));
+        int port = uri.getPort();
+        if (port != -1 && !(port == 80 && scheme.equals("http")) && !(port == 443 && scheme.equals("https"))) {
+            canonical.append(':').append(port);
+        }
+
+        String path = uri.getRawPath();
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        } else if (path.length() > 1 && path.endsWith("/")) {
+            path = path.replaceAll("/+$", "");
+            if (path.isEmpty()) {
+                path = "/";
+            }
+        }
+        canonical.append(path);
+
+        String query = uri.getRawQuery();
+        if (query != null) {
+            String kept = Arrays.stream(query.split("&"))
+                    .filter(parameter -> !parameter.isEmpty() && !isTracking(parameter))
+                    .sorted()
+                    .collect(Collectors.joining("&"));
+            if (!kept.isEmpty()) {
+                canonical.append('?').append(kept);
+            }
+        }
+        return canonical.toString();
+    }
+
+    private static boolean isTracking(String parameter) {
+        int eq = parameter.indexOf('=');
+        String name = (eq < 0 ? parameter : parameter.substring(0, eq)).toLowerCase(Locale.ROOT);
+        return name.startsWith("utm_") || TRACKING_PARAMETERS.contains(name);
+    }
+}
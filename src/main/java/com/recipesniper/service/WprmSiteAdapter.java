@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.service.IngredientExtractionService.ParsedIngredient;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Blogs built on the WP Recipe Maker plugin. WPRM marks up each ingredient's
+ * amount, unit, name and notes in separate spans, so they are read directly
+ * rather than split back out of the line's text, and notes such as "sifted"
+ * stay out of the name.
+ */
+@Component
+public class WprmSiteAdapter implements SiteAdapter {
+
+    private static final Evaluator INGREDIENT = QueryParser.parse("li.wprm-recipe-ingredient");
+
+    private final Set<String> hosts;
+
+    public WprmSiteAdapter(@Value("${recipesniper.extraction.wprm-hosts:budgetbytes.com,pinchofyum.com,"
+            + "cookieandkate.com,minimalistbaker.com,sallysbakingaddiction.com,recipetineats.com}")
+                           Set<String> hosts) {
+        this.hosts = Set.copyOf(hosts);
+    }
+
+    @Override
+    public String name() {
+        return "wprm";
+    }
+
+    @Override
+    public Set<String> hostSuffixes() {
+        return hosts;
+    }
+
+    @Override
+    public String cardSelector() {
+        return ".wprm-recipe-container";
+    }
+
+    @Override
+    public List<ParsedIngredient> extract(Document doc) {
+        List<ParsedIngredient> ingredients = new ArrayList<>();
+        for (Element item : doc.select(INGREDIENT)) {
+            String amount = null;
+            String unit = null;
+            String name = null;
+            for (Element span : item.children()) {
+                if (span.hasClass("wprm-recipe-ingredient-amount")) {
+                    amount = textOrNull(span);
+                } else if (span.hasClass("wprm-recipe-ingredient-unit")) {
+                    unit = textOrNull(span);
+                } else if (span.hasClass("wprm-recipe-ingredient-name")) {
+                    name = textOrNull(span);
+                }
+            }
+            if (name != null) {
+                ingredients.add(new ParsedIngredient(name, amount, unit, item.text().trim()));
+            }
+        }
+        return ingredients;
+    }
+
+    private static String textOrNull(Element element) {
+        String text = element.text().trim();
+        return text.isEmpty() ? null : text;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.cache;
+
+import com.recipesniper.repository.RecipeRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CanonicalUrlFilterTest {
+
+    @Test
+    void shouldHaveNoFalseNegativesAndRoughlyTheConfiguredFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("https://example.com/recipe/" + i));
+
+        assertThat(IntStream.range(0, 10_000)).allMatch(i -> filter.mightContain("https://example.com/recipe/" + i));
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("https://other.example/recipe/" + i))
+                .count();
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void shouldRebuildFromStoredRecipesAndTrackInserts() {
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        when(recipeRepository.findAllCanonicalUrls()).thenReturn(List.of("https://example.com/cake"));
+        CanonicalUrlFilter filter = new CanonicalUrlFilter(recipeRepository, 1_000, 0.01);
+
+        filter.rebuild();
+        filter.add("https://example.com/bread");
+
+        assertThat(filter.mightContain("https://example.com/cake")).isTrue();
+        assertThat(filter.mightContain("https://example.com/bread")).isTrue();
+        assertThat(filter.mightContain("https://example.com/pie")).isFalse();
+    }
+
+    @Test
+    void shouldRebuildOnlyOnceDeletionsMakeItStale() {
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        List<String> stored = new ArrayList<>(List.of("https://example.com/cake"));
+        when(recipeRepository.findAllCanonicalUrls()).thenAnswer(invocation -> List.copyOf(stored));
+        CanonicalUrlFilter filter = new CanonicalUrlFilter(recipeRepository, 100, 0.01);
+        filter.rebuild();
+
+        filter.recordDeletion();
+        filter.rebuildIfStale();
+        verify(recipeRepository, times(1)).findAllCanonicalUrls();
+
+        stored.clear();
+        for (int i = 0; i < 10; i++) {
+            filter.recordDeletion();
+        }
+        filter.rebuildIfStale();
+
+        verify(recipeRepository, times(2)).findAllCanonicalUrls();
+        assertThat(filter.mightContain("https://example.com/cake")).isFalse();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.cache;
+
+import com.recipesniper.cache.JsonResponseCache.CachedJson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonResponseCacheTest {
+
+    private JsonResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new JsonResponseCache(JsonMapper.builder().build(), DataSize.ofMegabytes(1),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldStoreSerializedBodyWithStrongEtag() {
+        CachedJson json = cache.get(JsonResponseCache.recipeKey(1L), () -> Map.of("title", "Cake"), v -> null);
+
+        assertThat(new String(json.body(), StandardCharsets.UTF_8)).isEqualTo("{\"title\":\"Cake\"}");
+        assertThat(json.etag()).startsWith("\"").endsWith("\"").doesNotStartWith("W/");
+        assertThat(cache.get(JsonResponseCache.recipeKey(1L), () -> Map.of("title", "Pie"), v -> null))
+                .isSameAs(json);
+    }
+
+    @Test
+    void shouldChangeEtagWhenContentChanges() {
+        CachedJson before = cache.get(JsonResponseCache.shoppingListKey(1L), () -> Map.of("name", "Weekly"), v -> null);
+        cache.invalidate(JsonResponseCache.shoppingListKey(1L));
+        CachedJson after = cache.get(JsonResponseCache.shoppingListKey(1L), () -> Map.of("name", "Monthly"), v -> null);
+
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+    }
+
+    @Test
+    void shouldInvalidateAllShoppingListsButKeepRecipes() {
+        CachedJson recipe = cache.get(JsonResponseCache.recipeKey(1L), () -> Map.of("title", "Cake"), v -> null);
+        CachedJson list = cache.get(JsonResponseCache.shoppingListKey(1L), () -> Map.of("name", "Weekly"), v -> null);
+
+        cache.invalidateShoppingLists();
+
+        assertThat(cache.get(JsonResponseCache.recipeKey(1L), () -> Map.of(), v -> null)).isSameAs(recipe);
+        assertThat(cache.get(JsonResponseCache.shoppingListKey(1L), () -> Map.of(), v -> null)).isNotSameAs(list);
+    }
+}
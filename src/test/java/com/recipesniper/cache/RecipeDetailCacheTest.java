@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.cache;
+
+import com.recipesniper.dto.RecipeDetailResponse;
+import com.recipesniper.dto.RecipeDetails;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipeDetailCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private RecipeDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RecipeDetailCache(2, Duration.ofMinutes(5), meterRegistry);
+    }
+
+    @Test
+    void shouldExportHitAndMissMetrics() {
+        cache.get(1L, this::recipe);
+        cache.get(1L, this::recipe);
+        cache.get(2L, this::recipe);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", RecipeDetailCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", RecipeDetailCache.CACHE_NAME)
+                .tag("result", "miss").functionCounter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictBeyondMaximumSize() {
+        for (long id = 1; id <= 10; id++) {
+            cache.get(id, this::recipe);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(2);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", RecipeDetailCache.CACHE_NAME)
+                .functionCounter().count()).isGreaterThan(0);
+    }
+
+    @Test
+    void shouldReloadAfterInvalidate() {
+        RecipeDetailResponse first = cache.get(1L, this::recipe);
+        cache.invalidate(1L);
+
+        assertThat(cache.get(1L, this::recipe)).isNotSameAs(first);
+    }
+
+    private RecipeDetailResponse recipe(Long id) {
+        return new RecipeDetailResponse(id, "https://example.com/" + id, "Recipe " + id,
+                LocalDateTime.now(), null, List.of(), RecipeDetails.EMPTY);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.cache;
+
+import com.recipesniper.cache.ResourceVersions.Validator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceVersionsTest {
+
+    private final ResourceVersions versions = new ResourceVersions();
+
+    @Test
+    void shouldChangeOnlyTheMutatedCollection() {
+        Validator recipes = versions.recipes();
+        Validator shoppingLists = versions.shoppingLists();
+
+        versions.recipesChanged();
+
+        assertThat(versions.recipes().etag()).isNotEqualTo(recipes.etag());
+        assertThat(versions.shoppingLists()).isEqualTo(shoppingLists);
+    }
+
+    @Test
+    void shouldIssueStrongEtagsThatDifferBetweenCollections() {
+        assertThat(versions.recipes().etag()).startsWith("\"recipes-").endsWith("\"");
+        assertThat(versions.shoppingLists().etag()).isNotEqualTo(versions.recipes().etag());
+    }
+}
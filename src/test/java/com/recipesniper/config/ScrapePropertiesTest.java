@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.config;
+
+import com.recipesniper.config.ScrapeProperties.FetchProfile;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScrapePropertiesTest {
+
+    @Test
+    void shouldMergeMostSpecificHostProfileOntoDefaults() {
+        ScrapeProperties properties = bind(Map.of(
+                "recipesniper.scrape.defaults.max-concurrent", "8",
+                "recipesniper.scrape.defaults.headers.Accept-Language", "en-GB",
+                "recipesniper.scrape.hosts[example.com].request-timeout", "60s",
+                "recipesniper.scrape.hosts[example.com].http-version", "http-1-1",
+                "recipesniper.scrape.hosts[blog.example.com].max-concurrent", "1",
+                "recipesniper.scrape.hosts[blog.example.com].headers.Cookie", "consent=yes"));
+
+        FetchProfile www = properties.profileFor("WWW.Example.com");
+        assertThat(www.getRequestTimeout()).isEqualTo(Duration.ofSeconds(60));
+        assertThat(www.getHttpVersion()).isEqualTo(HttpClient.Version.HTTP_1_1);
+        assertThat(www.getMaxConcurrent()).isEqualTo(8);
+        assertThat(www.getConnectTimeout()).isEqualTo(Duration.ofSeconds(15));
+
+        FetchProfile blog = properties.profileFor("blog.example.com");
+        assertThat(blog.getMaxConcurrent()).isEqualTo(1);
+        assertThat(blog.getRequestTimeout()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(blog.getHeaders()).containsEntry("Accept-Language", "en-GB").containsEntry("Cookie", "consent=yes");
+
+        assertThat(properties.profileFor("other.org")).isSameAs(properties.getDefaults());
+    }
+
+    private static ScrapeProperties bind(Map<String, String> values) {
+        return new Binder(new MapConfigurationPropertySource(values))
+                .bindOrCreate("recipesniper.scrape", ScrapeProperties.class);
+    }
+}
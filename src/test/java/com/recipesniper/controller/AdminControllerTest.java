@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.controller;
+
+import com.recipesniper.dto.PageTierStatsResponse;
+import com.recipesniper.dto.ReextractionStatusResponse;
+import com.recipesniper.service.JobAlreadyRunningException;
+import com.recipesniper.service.PageTieringService;
+import com.recipesniper.service.ReextractionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AdminController.class)
+class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReextractionService reextractionService;
+
+    @MockitoBean
+    private PageTieringService pageTieringService;
+
+    @Test
+    void shouldStartReextraction() throws Exception {
+        when(reextractionService.start()).thenReturn(running());
+
+        mockMvc.perform(post("/api/admin/reextraction"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.total").value(40));
+    }
+
+    @Test
+    void shouldReturnConflictWhenReextractionIsRunning() throws Exception {
+        when(reextractionService.start())
+                .thenThrow(new JobAlreadyRunningException("A re-extraction is already running"));
+
+        mockMvc.perform(post("/api/admin/reextraction"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldReturnNotFoundBeforeFirstRun() throws Exception {
+        when(reextractionService.getStatus()).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/admin/reextraction"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReportProgress() throws Exception {
+        when(reextractionService.getStatus()).thenReturn(Optional.of(running()));
+
+        mockMvc.perform(get("/api/admin/reextraction"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed").value(10));
+    }
+
+    @Test
+    void shouldReportPageTiers() throws Exception {
+        when(pageTieringService.stats()).thenReturn(new PageTierStatsResponse(3, 12_000, 40, 1, 90_000));
+
+        mockMvc.perform(get("/api/admin/page-tiers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hotPages").value(3))
+                .andExpect(jsonPath("$.coldPages").value(40))
+                .andExpect(jsonPath("$.segmentBytes").value(90_000));
+    }
+
+    @Test
+    void shouldMoveColdPagesAndReportTiers() throws Exception {
+        when(pageTieringService.stats()).thenReturn(new PageTierStatsResponse(0, 0, 43, 1, 95_000));
+
+        mockMvc.perform(post("/api/admin/page-tiers/cold"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.coldPages").value(43));
+        verify(pageTieringService).moveColdPages();
+    }
+
+    @Test
+    void shouldRestoreOneRecipeOrAllPages() throws Exception {
+        when(pageTieringService.stats()).thenReturn(new PageTierStatsResponse(43, 160_000, 0, 0, 0));
+
+        mockMvc.perform(post("/api/admin/page-tiers/restore").param("recipeId", "7"))
+                .andExpect(status().isOk());
+        verify(pageTieringService).restore(7L);
+        verify(pageTieringService, never()).restoreAll();
+
+        mockMvc.perform(post("/api/admin/page-tiers/restore"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hotPages").value(43));
+        verify(pageTieringService).restoreAll();
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenRestoringUnknownRecipe() throws Exception {
+        when(pageTieringService.restore(9L)).thenThrow(new IllegalArgumentException("Recipe not found: 9"));
+
+        mockMvc.perform(post("/api/admin/page-tiers/restore").param("recipeId", "9"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static ReextractionStatusResponse running() {
+        return new ReextractionStatusResponse("RUNNING", 1, 40, 10, 2, 8, 0, 0, 25.0, null,
+                LocalDateTime.now(), null);
+    }
+}
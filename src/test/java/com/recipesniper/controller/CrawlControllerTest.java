@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.controller;
+
+import com.recipesniper.dto.CrawlStatusResponse;
+import com.recipesniper.service.JobAlreadyRunningException;
+import com.recipesniper.service.SitemapCrawler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CrawlController.class)
+class CrawlControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SitemapCrawler sitemapCrawler;
+
+    @Test
+    void shouldStartCrawl() throws Exception {
+        when(sitemapCrawler.startCrawl("https://example.com")).thenReturn(running());
+
+        mockMvc.perform(post("/api/crawls")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"url\":\"https://example.com\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.host").value("example.com"))
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+    }
+
+    @Test
+    void shouldReturnConflictWhenHostIsAlreadyBeingCrawled() throws Exception {
+        when(sitemapCrawler.startCrawl("https://example.com"))
+                .thenThrow(new JobAlreadyRunningException("A crawl of example.com is already running"));
+
+        mockMvc.perform(post("/api/crawls")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"url\":\"https://example.com\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("A crawl of example.com is already running"));
+    }
+
+    @Test
+    void shouldListCrawls() throws Exception {
+        when(sitemapCrawler.getCrawls()).thenReturn(List.of(running()));
+
+        mockMvc.perform(get("/api/crawls"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].host").value("example.com"));
+    }
+
+    private static CrawlStatusResponse running() {
+        return new CrawlStatusResponse("example.com", "RUNNING", 0, 0, 0, 0, 0, 0, 0, null,
+                LocalDateTime.now(), null);
+    }
+}
@@ -20,47 +20,81 @@
 package com.recipesniper.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipesniper.cache.JsonResponseCache;
+import com.recipesniper.cache.ResourceVersions;
 import com.recipesniper.dto.AddRecipeRequest;
+import com.recipesniper.dto.BulkImportRequest;
+import com.recipesniper.dto.BulkImportResponse;
 import com.recipesniper.dto.IngredientResponse;
 import com.recipesniper.dto.RecipeDetailResponse;
+import com.recipesniper.dto.RecipeDetails;
 import com.recipesniper.dto.RecipeResponse;
+import com.recipesniper.service.BulkImportService;
+import com.recipesniper.service.HostUnavailableException;
+import com.recipesniper.service.PageArchive;
 import com.recipesniper.service.RecipeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(RecipeController.class)
+@Import({JsonResponseCache.class, ResourceVersions.class, SimpleMeterRegistry.class})
 class RecipeControllerTest {
 
+    private static final String PAGE = "<html><body><h1>Chocolate Cake</h1></body></html>";
+
     @Autowired
     private MockMvc mockMvc;
 
+    @TempDir
+    Path tempDir;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @MockitoBean
     private RecipeService recipeService;
 
+    @MockitoBean
+    private BulkImportService bulkImportService;
+
     @Test
     void shouldAddRecipe() throws Exception {
         var request = new AddRecipeRequest("https://example.com/recipe");
         var response = new RecipeDetailResponse(
                 1L, "https://example.com/recipe", "Chocolate Cake",
-                LocalDateTime.now(),
-                List.of(new IngredientResponse(1L, "flour", "2", "cups", "2 cups flour")));
+                LocalDateTime.now(), null,
+                List.of(new IngredientResponse(1L, "flour", "2", "cups", "2 cups flour")), RecipeDetails.EMPTY);
 
         when(recipeService.addRecipe("https://example.com/recipe")).thenReturn(response);
 
@@ -82,6 +116,34 @@ class RecipeControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void shouldBulkImportRecipes() throws Exception {
+        var request = new BulkImportRequest(List.of("https://example.com/a", "https://example.com/b"));
+        when(bulkImportService.importUrls(request.urls())).thenReturn(new BulkImportResponse(
+                2, 0, 0, 1, 1, List.of()));
+
+        mockMvc.perform(post("/api/recipes/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alreadyImported").value(1))
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+
+    @Test
+    void shouldReturnServiceUnavailableWhenHostIsFailing() throws Exception {
+        var request = new AddRecipeRequest("https://down.example/recipe");
+        when(recipeService.addRecipe("https://down.example/recipe"))
+                .thenThrow(new HostUnavailableException("down.example is failing", Duration.ofMillis(12_400)));
+
+        mockMvc.perform(post("/api/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "13"))
+                .andExpect(jsonPath("$.error").value("Failed to fetch recipe: down.example is failing"));
+    }
+
     @Test
     void shouldGetAllRecipes() throws Exception {
         var recipes = List.of(
@@ -111,8 +173,8 @@ class RecipeControllerTest {
     void shouldGetRecipeById() throws Exception {
         var response = new RecipeDetailResponse(
                 1L, "https://example.com/recipe", "Chocolate Cake",
-                LocalDateTime.now(),
-                List.of(new IngredientResponse(1L, "flour", "2", "cups", "2 cups flour")));
+                LocalDateTime.now(), null,
+                List.of(new IngredientResponse(1L, "flour", "2", "cups", "2 cups flour")), RecipeDetails.EMPTY);
         when(recipeService.getRecipeById(1L)).thenReturn(response);
 
         mockMvc.perform(get("/api/recipes/1"))
@@ -121,6 +183,90 @@ class RecipeControllerTest {
                 .andExpect(jsonPath("$.ingredients.length()").value(1));
     }
 
+    @Test
+    void shouldServeRepeatReadsFromSerializedCache() throws Exception {
+        var response = new RecipeDetailResponse(
+                7L, "https://example.com/bread", "Banana Bread",
+                LocalDateTime.of(2026, 1, 15, 10, 30), null,
+                List.of(new IngredientResponse(1L, "banana", "3", null, "3 bananas")), RecipeDetails.EMPTY);
+        when(recipeService.getRecipeById(7L)).thenReturn(response);
+
+        String etag = mockMvc.perform(get("/api/recipes/7"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.createdAt").value("2026-01-15T10:30:00"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/recipes/7"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(jsonPath("$.title").value("Banana Bread"));
+
+        verify(recipeService, times(1)).getRecipeById(7L);
+    }
+
+    @Test
+    void shouldReturnNotModifiedForMatchingRecipeEtag() throws Exception {
+        var response = new RecipeDetailResponse(
+                8L, "https://example.com/soup", "Tomato Soup",
+                LocalDateTime.of(2026, 1, 15, 10, 30), null, List.of(), RecipeDetails.EMPTY);
+        when(recipeService.getRecipeById(8L)).thenReturn(response);
+
+        var first = mockMvc.perform(get("/api/recipes/8"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse();
+
+        mockMvc.perform(get("/api/recipes/8").header("If-None-Match", first.getHeader("ETag")))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/recipes/8").header("If-Modified-Since", first.getHeader("Last-Modified")))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldReportUpdateTimeAsRecipeLastModified() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2026, 1, 15, 10, 30);
+        LocalDateTime updated = LocalDateTime.of(2026, 2, 1, 8, 0);
+        var response = new RecipeDetailResponse(
+                9L, "https://example.com/stew", "Beef Stew", created, updated, List.of(), RecipeDetails.EMPTY);
+        when(recipeService.getRecipeById(9L)).thenReturn(response);
+
+        var first = mockMvc.perform(get("/api/recipes/9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedAt").value("2026-02-01T08:00:00"))
+                .andReturn().getResponse();
+
+        assertThat(first.getDateHeader("Last-Modified"))
+                .isEqualTo(updated.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        mockMvc.perform(get("/api/recipes/9").header("If-Modified-Since",
+                        DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                                created.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldReturnNotModifiedForRecipeListWithoutQuerying() throws Exception {
+        String etag = mockMvc.perform(get("/api/recipes"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/recipes").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(recipeService, times(1)).getAllRecipes();
+    }
+
+    @Test
+    void shouldReturnNotModifiedForSearchWithoutQuerying() throws Exception {
+        String etag = mockMvc.perform(get("/api/recipes"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/recipes").param("search", "choco").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(recipeService, never()).searchRecipes("choco");
+    }
+
     @Test
     void shouldReturn404WhenRecipeNotFound() throws Exception {
         when(recipeService.getRecipeById(99L))
@@ -137,4 +283,96 @@ class RecipeControllerTest {
 
         verify(recipeService).deleteRecipe(1L);
     }
+
+    @Test
+    void shouldServeArchivedPage() throws Exception {
+        archivePage(false);
+
+        mockMvc.perform(get("/api/recipes/1/source"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/html;charset=UTF-8"))
+                .andExpect(content().string(PAGE))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("Content-Security-Policy", "sandbox"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                .andExpect(header().exists("ETag"));
+    }
+
+    @Test
+    void shouldServeRangeOfArchivedPage() throws Exception {
+        archivePage(false);
+
+        mockMvc.perform(get("/api/recipes/1/source").header("Range", "bytes=0-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 0-5/" + PAGE.length()))
+                .andExpect(content().string("<html>"));
+    }
+
+    @Test
+    void shouldSendGzippedPageAsIsWhenAccepted() throws Exception {
+        Path page = archivePage(true);
+
+        mockMvc.perform(get("/api/recipes/1/source").header("Accept-Encoding", "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().bytes(Files.readAllBytes(page)));
+    }
+
+    @Test
+    void shouldInflateGzippedPageWhenGzipNotAccepted() throws Exception {
+        archivePage(true);
+
+        mockMvc.perform(get("/api/recipes/1/source").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("Accept-Ranges", "none"))
+                .andExpect(content().string(PAGE));
+    }
+
+    @Test
+    void shouldReturnNotModifiedForUnchangedSource() throws Exception {
+        archivePage(false);
+        String etag = mockMvc.perform(get("/api/recipes/1/source"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/recipes/1/source").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldReturn404WhenSourceNotArchived() throws Exception {
+        when(recipeService.getArchivedPage(1L))
+                .thenThrow(new IllegalArgumentException("No archived page for recipe: 1"));
+
+        mockMvc.perform(get("/api/recipes/1/source"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturn404WhenArchivedFileWasRemoved() throws Exception {
+        Path page = archivePage(false);
+        Files.delete(page);
+
+        mockMvc.perform(get("/api/recipes/1/source"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldHonourGzipQualityInAcceptEncoding() {
+        assertThat(RecipeController.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(RecipeController.acceptsGzip("*")).isTrue();
+        assertThat(RecipeController.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(RecipeController.acceptsGzip("*;q=0.000, GZIP;q=0.5")).isTrue();
+        assertThat(RecipeController.acceptsGzip("identity")).isFalse();
+        assertThat(RecipeController.acceptsGzip(null)).isFalse();
+    }
+
+    private Path archivePage(boolean compressed) throws Exception {
+        String url = "https://example.com/cake";
+        PageArchive archive = new PageArchive(tempDir, compressed);
+        Path page = archive.save(url, new ByteArrayInputStream(PAGE.getBytes(StandardCharsets.UTF_8)));
+        when(recipeService.getArchivedPage(1L))
+                .thenReturn(new PageArchive.ArchivedFile(page, compressed, "UTF-8"));
+        return page;
+    }
 }
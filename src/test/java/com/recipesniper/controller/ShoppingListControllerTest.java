@@ -20,6 +20,8 @@
 package com.recipesniper.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipesniper.cache.JsonResponseCache;
+import com.recipesniper.cache.ResourceVersions;
 import com.recipesniper.dto.AddRecipesToShoppingListRequest;
 import com.recipesniper.dto.CreateShoppingListRequest;
 import com.recipesniper.dto.ShoppingListDetailResponse;
@@ -27,9 +29,11 @@ import com.recipesniper.dto.ShoppingListItemResponse;
 import com.recipesniper.dto.ShoppingListResponse;
 import com.recipesniper.dto.UpdateShoppingListRequest;
 import com.recipesniper.service.ShoppingListService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -37,6 +41,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.any;
@@ -45,10 +50,12 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ShoppingListController.class)
+@Import({JsonResponseCache.class, ResourceVersions.class, SimpleMeterRegistry.class})
 class ShoppingListControllerTest {
 
     @Autowired
@@ -63,7 +70,7 @@ class ShoppingListControllerTest {
     void shouldCreateShoppingList() throws Exception {
         var request = new CreateShoppingListRequest("Weekly", List.of(1L, 2L));
         var response = new ShoppingListDetailResponse(
-                1L, "Weekly", LocalDateTime.now(), List.of(),
+                1L, "Weekly", LocalDateTime.now(), LocalDateTime.now(), List.of(),
                 List.of(new ShoppingListItemResponse(1L, "flour", "2", "cups")));
 
         when(shoppingListService.createShoppingList("Weekly", List.of(1L, 2L)))
@@ -102,7 +109,7 @@ class ShoppingListControllerTest {
     @Test
     void shouldGetShoppingListById() throws Exception {
         var response = new ShoppingListDetailResponse(
-                1L, "Weekly", LocalDateTime.now(), List.of(),
+                1L, "Weekly", LocalDateTime.now(), LocalDateTime.now(), List.of(),
                 List.of(new ShoppingListItemResponse(1L, "flour", "2", "cups")));
         when(shoppingListService.getShoppingListById(1L)).thenReturn(response);
 
@@ -112,6 +119,37 @@ class ShoppingListControllerTest {
                 .andExpect(jsonPath("$.items.length()").value(1));
     }
 
+    @Test
+    void shouldReturnNotModifiedForMatchingShoppingListEtag() throws Exception {
+        var response = new ShoppingListDetailResponse(
+                5L, "Party", LocalDateTime.of(2026, 2, 1, 9, 0), LocalDateTime.of(2026, 2, 3, 18, 0),
+                List.of(), List.of(new ShoppingListItemResponse(1L, "chips", "2", "bags")));
+        when(shoppingListService.getShoppingListById(5L)).thenReturn(response);
+
+        var first = mockMvc.perform(get("/api/shopping-lists/5"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse();
+
+        mockMvc.perform(get("/api/shopping-lists/5").header("If-None-Match", first.getHeader("ETag")))
+                .andExpect(status().isNotModified());
+
+        verify(shoppingListService, times(1)).getShoppingListById(5L);
+    }
+
+    @Test
+    void shouldReturnNotModifiedForShoppingListsWithoutQuerying() throws Exception {
+        String etag = mockMvc.perform(get("/api/shopping-lists"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/shopping-lists").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(shoppingListService, times(1)).getAllShoppingLists();
+    }
+
     @Test
     void shouldReturn404WhenShoppingListNotFound() throws Exception {
         when(shoppingListService.getShoppingListById(99L))
@@ -126,7 +164,7 @@ class ShoppingListControllerTest {
         var request = new UpdateShoppingListRequest("Updated", List.of(
                 new UpdateShoppingListRequest.ItemUpdate(null, "butter", "1", "stick")));
         var response = new ShoppingListDetailResponse(
-                1L, "Updated", LocalDateTime.now(), List.of(),
+                1L, "Updated", LocalDateTime.now(), LocalDateTime.now(), List.of(),
                 List.of(new ShoppingListItemResponse(2L, "butter", "1", "stick")));
 
         when(shoppingListService.updateShoppingList(eq(1L), any(UpdateShoppingListRequest.class)))
@@ -144,7 +182,7 @@ class ShoppingListControllerTest {
     void shouldAddRecipesToShoppingList() throws Exception {
         var request = new AddRecipesToShoppingListRequest(List.of(2L));
         var response = new ShoppingListDetailResponse(
-                1L, "Weekly", LocalDateTime.now(), List.of(),
+                1L, "Weekly", LocalDateTime.now(), LocalDateTime.now(), List.of(),
                 List.of(
                         new ShoppingListItemResponse(1L, "flour", "2", "cups"),
                         new ShoppingListItemResponse(2L, "yeast", "1", "packet")));
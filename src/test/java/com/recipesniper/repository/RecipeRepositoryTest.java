@@ -19,17 +19,24 @@
 
 package com.recipesniper.repository;
 
+import com.recipesniper.dto.RecipeDetails;
 import com.recipesniper.entity.Recipe;
 import com.recipesniper.entity.RecipeIngredient;
+import com.recipesniper.entity.ShoppingList;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 class RecipeRepositoryTest {
@@ -56,6 +63,27 @@ class RecipeRepositoryTest {
         assertThat(found).isPresent();
         assertThat(found.get().getTitle()).isEqualTo("Test Recipe");
         assertThat(found.get().getUrl()).isEqualTo("https://example.com/recipe");
+        assertThat(recipeRepository.findUrlById(saved.getId())).contains("https://example.com/recipe");
+        assertThat(recipeRepository.findAllUrls()).containsExactly("https://example.com/recipe");
+    }
+
+    @Test
+    void shouldFindByCanonicalUrlAndRejectDuplicates() {
+        Recipe first = new Recipe();
+        first.setUrl("https://example.com/cake?utm_source=a");
+        first.setCanonicalUrl("https://example.com/cake");
+        first.setTitle("Cake");
+        recipeRepository.saveAndFlush(first);
+
+        assertThat(recipeRepository.findByCanonicalUrl("https://example.com/cake"))
+                .get().extracting(Recipe::getId).isEqualTo(first.getId());
+
+        Recipe duplicate = new Recipe();
+        duplicate.setUrl("https://example.com/cake/");
+        duplicate.setCanonicalUrl("https://example.com/cake");
+        duplicate.setTitle("Cake again");
+        assertThatThrownBy(() -> recipeRepository.saveAndFlush(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class);
     }
 
     @Test
@@ -163,4 +191,182 @@ class RecipeRepositoryTest {
 
         assertThat(recipeRepository.findById(saved.getId())).isEmpty();
     }
+
+    @Test
+    void shouldFindStaleRecrawlCandidatesWithPopularity() {
+        Recipe stale = new Recipe();
+        stale.setUrl("https://example.com/stale");
+        stale.setTitle("Stale");
+        stale.setContentHash("abc");
+        stale.setLastCrawledAt(LocalDateTime.now().minusDays(30));
+        entityManager.persist(stale);
+
+        Recipe fresh = new Recipe();
+        fresh.setUrl("https://example.com/fresh");
+        fresh.setTitle("Fresh");
+        fresh.setLastCrawledAt(LocalDateTime.now());
+        entityManager.persist(fresh);
+
+        for (String name : List.of("Weekday", "Weekend")) {
+            ShoppingList list = new ShoppingList();
+            list.setName(name);
+            list.getRecipes().add(stale);
+            list.getRecipes().add(fresh);
+            entityManager.persist(list);
+        }
+        entityManager.flush();
+
+        List<RecrawlCandidate> candidates = recipeRepository.findRecrawlCandidates(
+                LocalDateTime.now().minusDays(7), PageRequest.ofSize(10));
+
+        assertThat(candidates).singleElement().satisfies(c -> {
+            assertThat(c.id()).isEqualTo(stale.getId());
+            assertThat(c.contentHash()).isEqualTo("abc");
+            assertThat(c.popularity()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void shouldFindRecipesExtractedByOlderVersions() {
+        Recipe unversioned = new Recipe();
+        unversioned.setUrl("https://example.com/old");
+        unversioned.setTitle("Old");
+        unversioned.setRawHtml("<html>old</html>");
+        entityManager.persist(unversioned);
+
+        Recipe current = new Recipe();
+        current.setUrl("https://example.com/current");
+        current.setTitle("Current");
+        current.setExtractorVersion(2);
+        entityManager.persist(current);
+        entityManager.flush();
+
+        List<Long> ids = recipeRepository.findIdsExtractedBefore(2);
+
+        assertThat(ids).containsExactly(unversioned.getId());
+        assertThat(recipeRepository.findStoredPages(ids)).singleElement()
+                .satisfies(page -> assertThat(page.rawHtml()).isEqualTo("<html>old</html>"));
+    }
+
+    @Test
+    void shouldFindNewestRecipeWithSameContentAndExtractorVersion() {
+        Recipe older = new Recipe();
+        older.setUrl("https://example.com/soup");
+        older.setTitle("Soup");
+        older.setContentHash("abc");
+        older.setExtractorVersion(2);
+        entityManager.persist(older);
+
+        Recipe syndicated = new Recipe();
+        syndicated.setUrl("https://mirror.example.org/soup");
+        syndicated.setTitle("Soup");
+        syndicated.setContentHash("abc");
+        syndicated.setExtractorVersion(2);
+        RecipeIngredient salt = new RecipeIngredient();
+        salt.setName("salt");
+        salt.setRawText("salt");
+        salt.setRecipe(syndicated);
+        syndicated.getIngredients().add(salt);
+        entityManager.persist(syndicated);
+
+        Recipe outdated = new Recipe();
+        outdated.setUrl("https://example.com/soup-amp");
+        outdated.setTitle("Soup");
+        outdated.setContentHash("abc");
+        outdated.setExtractorVersion(1);
+        entityManager.persist(outdated);
+        entityManager.flush();
+        entityManager.clear();
+
+        Optional<Recipe> found = recipeRepository.findFirstByContentHashAndExtractorVersionOrderByIdDesc("abc", 2);
+
+        assertThat(found).get().satisfies(r -> {
+            assertThat(r.getUrl()).isEqualTo("https://mirror.example.org/soup");
+            assertThat(r.getIngredients()).extracting(RecipeIngredient::getName).containsExactly("salt");
+        });
+        assertThat(recipeRepository.findFirstByContentHashAndExtractorVersionOrderByIdDesc("def", 2)).isEmpty();
+    }
+
+    @Test
+    void shouldStoreRecipeDetailsWithTheRecipe() {
+        Recipe withDetails = new Recipe();
+        withDetails.setUrl("https://example.com/muffins");
+        withDetails.setTitle("Muffins");
+        withDetails.setDetails(new RecipeDetails("12 muffins", 15, 25, 40,
+                List.of("Mix.", "Bake."), Map.of("calories", "180 kcal"), List.of("https://example.com/muffins.jpg")));
+        entityManager.persist(withDetails);
+
+        Recipe without = new Recipe();
+        without.setUrl("https://example.com/toast");
+        without.setTitle("Toast");
+        entityManager.persist(without);
+        entityManager.flush();
+        entityManager.clear();
+
+        RecipeDetails details = recipeRepository.findById(withDetails.getId()).orElseThrow().getDetails();
+        assertThat(details.recipeYield()).isEqualTo("12 muffins");
+        assertThat(details.totalTimeMinutes()).isEqualTo(40);
+        assertThat(details.instructions()).containsExactly("Mix.", "Bake.");
+        assertThat(details.nutrition()).containsEntry("calories", "180 kcal");
+        assertThat(details.imageUrls()).containsExactly("https://example.com/muffins.jpg");
+        assertThat(recipeRepository.findById(without.getId()).orElseThrow().getDetails()).isEqualTo(RecipeDetails.EMPTY);
+    }
+
+    @Test
+    void shouldMovePagesBetweenStorageTiers() {
+        Recipe old = new Recipe();
+        old.setUrl("https://example.com/old");
+        old.setTitle("Old");
+        old.setRawHtml("<html>old</html>");
+        old.setContentHash("abc");
+        old.setUpdatedAt(LocalDateTime.now().minusDays(200));
+        entityManager.persist(old);
+
+        Recipe recent = new Recipe();
+        recent.setUrl("https://example.com/recent");
+        recent.setTitle("Recent");
+        recent.setRawHtml("<html>recent</html>");
+        entityManager.persist(recent);
+
+        Recipe recrawled = new Recipe();
+        recrawled.setUrl("https://example.com/recrawled");
+        recrawled.setTitle("Recrawled");
+        recrawled.setRawHtml("<html>recrawled</html>");
+        recrawled.setUpdatedAt(LocalDateTime.now().minusDays(200));
+        recrawled.setPageStoredAt(LocalDateTime.now().minusDays(1));
+        entityManager.persist(recrawled);
+        entityManager.flush();
+
+        List<HotPage> hot = recipeRepository.findHotPages(LocalDateTime.now().minusDays(90), 0, PageRequest.ofSize(10));
+        assertThat(hot).singleElement().satisfies(page -> {
+            assertThat(page.id()).isEqualTo(old.getId());
+            assertThat(page.contentHash()).isEqualTo("abc");
+            assertThat(page.rawHtml()).isEqualTo("<html>old</html>");
+        });
+
+        String ref = "segment-000001.seg:0:42";
+        // A re-crawl changed the page after it was read
+        assertThat(recipeRepository.moveToColdStorage(old.getId(), "stale", ref)).isZero();
+        assertThat(recipeRepository.moveToColdStorage(old.getId(), "abc", ref)).isEqualTo(1);
+        entityManager.clear();
+
+        assertThat(recipeRepository.countByRawHtmlIsNotNull()).isEqualTo(2);
+        assertThat(recipeRepository.sumRawHtmlLength())
+                .isEqualTo("<html>recent</html>".length() + "<html>recrawled</html>".length());
+        assertThat(recipeRepository.countByRawHtmlRefIsNotNull()).isEqualTo(1);
+        assertThat(recipeRepository.findColdSegments()).containsExactly("segment-000001.seg");
+        assertThat(recipeRepository.findColdPages(0, PageRequest.ofSize(10))).singleElement()
+                .satisfies(page -> {
+                    assertThat(page.rawHtml()).isNull();
+                    assertThat(page.rawHtmlRef()).isEqualTo(ref);
+                });
+
+        assertThat(recipeRepository.restoreFromColdStorage(old.getId(), ref, "<html>old</html>")).isEqualTo(1);
+        entityManager.clear();
+
+        Recipe restored = recipeRepository.findById(old.getId()).orElseThrow();
+        assertThat(restored.getRawHtml()).isEqualTo("<html>old</html>");
+        assertThat(restored.getRawHtmlRef()).isNull();
+        assertThat(recipeRepository.findColdSegments()).isEmpty();
+    }
 }
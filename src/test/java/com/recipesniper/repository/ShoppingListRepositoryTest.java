@@ -19,19 +19,24 @@
 
 package com.recipesniper.repository;
 
+import com.recipesniper.dto.RecipeResponse;
 import com.recipesniper.entity.Recipe;
+import com.recipesniper.entity.RecipeIngredient;
 import com.recipesniper.entity.ShoppingList;
 import com.recipesniper.entity.ShoppingListItem;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class ShoppingListRepositoryTest {
 
     @Autowired
@@ -40,6 +45,9 @@ class ShoppingListRepositoryTest {
     @Autowired
     private ShoppingListRepository shoppingListRepository;
 
+    @Autowired
+    private RecipeRepository recipeRepository;
+
     @Test
     void shouldSaveAndFindShoppingList() {
         ShoppingList list = new ShoppingList();
@@ -97,6 +105,46 @@ class ShoppingListRepositoryTest {
         assertThat(found.getRecipes().get(0).getTitle()).isEqualTo("Test Recipe");
     }
 
+    @Test
+    void shouldLoadDetailWithConstantStatementCount() {
+        ShoppingList list = new ShoppingList();
+        list.setName("Weekly Groceries");
+        for (int r = 1; r <= 5; r++) {
+            Recipe recipe = new Recipe();
+            recipe.setUrl("https://example.com/recipe" + r);
+            recipe.setTitle("Recipe " + r);
+            recipe.setRawHtml("<html>" + r + "</html>");
+            for (int i = 0; i < r; i++) {
+                RecipeIngredient ingredient = new RecipeIngredient();
+                ingredient.setName("ingredient " + i);
+                ingredient.setRawText("ingredient " + i);
+                ingredient.setRecipe(recipe);
+                recipe.getIngredients().add(ingredient);
+            }
+            entityManager.persist(recipe);
+            list.getRecipes().add(recipe);
+
+            ShoppingListItem item = new ShoppingListItem();
+            item.setName("item " + r);
+            item.setShoppingList(list);
+            list.getItems().add(item);
+        }
+        ShoppingList saved = shoppingListRepository.save(list);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ShoppingList found = shoppingListRepository.findWithItemsById(saved.getId()).orElseThrow();
+        List<RecipeResponse> recipes = recipeRepository.findSummariesByShoppingListId(saved.getId());
+        assertThat(found.getItems()).hasSize(5);
+
+        assertThat(recipes).extracting(RecipeResponse::ingredientCount).containsExactly(1, 2, 3, 4, 5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
     @Test
     void shouldCascadeDeleteItems() {
         ShoppingList list = new ShoppingList();
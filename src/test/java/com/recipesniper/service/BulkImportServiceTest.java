@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.cache.CanonicalUrlFilter;
+import com.recipesniper.dto.BulkImportResponse;
+import com.recipesniper.repository.RecipeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkImportServiceTest {
+
+    @Mock
+    private IngestPipeline ingestPipeline;
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private CanonicalUrlFilter canonicalUrlFilter;
+
+    private MeterRegistry meterRegistry;
+    private BulkImportService bulkImportService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkImportService = new BulkImportService(ingestPipeline, recipeRepository, canonicalUrlFilter,
+                meterRegistry, OpenTelemetry.noop().getTracer("test"), 2);
+    }
+
+    @Test
+    void shouldConfirmOnlyProbableHitsInBatches() {
+        when(canonicalUrlFilter.mightContain(anyString())).thenAnswer(invocation ->
+                !invocation.<String>getArgument(0).contains("new"));
+        when(recipeRepository.findExistingCanonicalUrls(List.of("https://example.com/a", "https://example.com/b")))
+                .thenReturn(List.of("https://example.com/a", "https://example.com/b"));
+        when(recipeRepository.findExistingCanonicalUrls(List.of("https://example.com/c")))
+                .thenReturn(List.of());
+
+        BulkImportService.Deduplicated result = bulkImportService.deduplicate(List.of(
+                "https://example.com/a",
+                "https://example.com/new-1?utm_source=x",
+                "https://example.com/b",
+                "https://EXAMPLE.com/a/",
+                "https://example.com/c",
+                "https://example.com/new-2",
+                "mailto:someone@example.com"));
+
+        assertThat(result.newUrls()).containsExactly(
+                "https://example.com/new-1?utm_source=x", "https://example.com/c", "https://example.com/new-2");
+        assertThat(result.alreadyImported()).isEqualTo(2);
+        assertThat(result.duplicates()).isEqualTo(1);
+        assertThat(result.invalid()).isEqualTo(1);
+        verify(canonicalUrlFilter).rebuildIfStale();
+        assertThat(meterRegistry.get("recipesniper.import.dedup").tag("result", "filter-negative")
+                .counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("recipesniper.import.dedup").tag("result", "false-positive")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldImportNewUrlsAndReportFailures() throws InterruptedException {
+        when(canonicalUrlFilter.mightContain(anyString())).thenReturn(false);
+        when(ingestPipeline.submit("https://example.com/cake")).thenReturn(CompletableFuture.completedFuture(null));
+        when(ingestPipeline.submit("https://example.com/broken"))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("HTTP 500")));
+
+        BulkImportResponse response = bulkImportService.importUrls(List.of(
+                "https://example.com/cake", "https://example.com/broken", "https://example.com/cake#top"));
+
+        assertThat(response.requested()).isEqualTo(3);
+        assertThat(response.duplicates()).isEqualTo(1);
+        assertThat(response.imported()).isEqualTo(1);
+        assertThat(response.failures()).containsExactly(
+                new BulkImportResponse.Failure("https://example.com/broken", "HTTP 500"));
+        verify(recipeRepository, never()).findExistingCanonicalUrls(any());
+    }
+}
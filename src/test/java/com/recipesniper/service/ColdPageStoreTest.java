@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.repository.StoredPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColdPageStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldReadBackAppendedPagesByReference() throws IOException {
+        ColdPageStore store = store(DataSize.ofMegabytes(1));
+        String soup = "<html><body>Soup with leeks ✓</body></html>";
+        String stew = "<html><body>" + "Stew ".repeat(1000) + "</body></html>";
+
+        List<String> refs = store.append(List.of(soup, stew));
+
+        assertThat(refs).hasSize(2).allMatch(ref -> ref.startsWith("segment-000001.seg:"));
+        assertThat(store.read(refs.get(1))).isEqualTo(stew);
+        assertThat(store.read(refs.get(0))).isEqualTo(soup);
+        // Compressed, so the repetitive page takes far less than its length
+        assertThat(store.usage().bytes()).isLessThan(stew.length() / 10);
+        assertThat(meterRegistry.get("recipesniper.storage.tiering.loads").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStartNewSegmentOnceTheNewestIsFull() throws IOException {
+        ColdPageStore store = store(DataSize.ofBytes(1));
+
+        List<String> first = store.append(List.of("<html>a</html>", "<html>b</html>"));
+        List<String> second = store.append(List.of("<html>c</html>"));
+
+        assertThat(first.get(0)).startsWith("segment-000001.seg:");
+        assertThat(first.get(1)).startsWith("segment-000002.seg:");
+        assertThat(second.get(0)).startsWith("segment-000003.seg:");
+        assertThat(store.read(first.get(1))).isEqualTo("<html>b</html>");
+        assertThat(store.usage().segments()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldAppendToNewestSegmentAcrossRuns() throws IOException {
+        ColdPageStore store = store(DataSize.ofMegabytes(1));
+
+        String first = store.append(List.of("<html>a</html>")).getFirst();
+        String second = store.append(List.of("<html>b</html>")).getFirst();
+
+        assertThat(second).startsWith("segment-000001.seg:").isNotEqualTo(first);
+        assertThat(store.read(first)).isEqualTo("<html>a</html>");
+        assertThat(store.read(second)).isEqualTo("<html>b</html>");
+    }
+
+    @Test
+    void shouldLoadPagesFromEitherTier() throws IOException {
+        ColdPageStore store = store(DataSize.ofMegabytes(1));
+        String ref = store.append(List.of("<html>cold</html>")).getFirst();
+
+        assertThat(store.load(new StoredPage(1L, "https://example.com/a", "<html>hot</html>", null)))
+                .isEqualTo("<html>hot</html>");
+        assertThat(store.load(new StoredPage(2L, "https://example.com/b", null, ref))).isEqualTo("<html>cold</html>");
+        assertThat(store.load(new StoredPage(3L, "https://example.com/c", null, null))).isNull();
+    }
+
+    @Test
+    void shouldRejectReferencesOutsideTheSegments() throws IOException {
+        ColdPageStore store = store(DataSize.ofMegabytes(1));
+        String ref = store.append(List.of("<html>a</html>")).getFirst();
+        String pastEnd = ref.substring(0, ref.lastIndexOf(':')) + ":100000";
+
+        assertThatThrownBy(() -> store.read("../recipe-sniper.mv.db:0:10")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> store.read(pastEnd)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void shouldDeleteOnlyUnreferencedSegments() throws IOException {
+        ColdPageStore store = store(DataSize.ofBytes(1));
+        List<String> refs = store.append(List.of("<html>a</html>", "<html>b</html>"));
+        Files.writeString(tempDir.resolve("notes.txt"), "not a segment");
+
+        int deleted = store.deleteSegmentsExcept(Set.of("segment-000002.seg"));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(store.read(refs.get(1))).isEqualTo("<html>b</html>");
+        assertThat(tempDir.resolve("segment-000001.seg")).doesNotExist();
+        assertThat(tempDir.resolve("notes.txt")).exists();
+    }
+
+    private ColdPageStore store(DataSize segmentSize) {
+        return new ColdPageStore(tempDir, segmentSize, meterRegistry);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.dto.RecipeDetails;
+import com.recipesniper.entity.Recipe;
+import com.recipesniper.repository.RecipeRepository;
+import com.recipesniper.service.IngredientExtractionService.ExtractedRecipe;
+import com.recipesniper.service.IngredientExtractionService.ParsedIngredient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExtractionResultCacheTest {
+
+    private static final List<ParsedIngredient> SALT = List.of(new ParsedIngredient("salt", "1", "tsp", "1 tsp salt"));
+    private static final RecipeDetails DETAILS =
+            new RecipeDetails("4 servings", 5, 20, 25, List.of("Simmer."), Map.of("calories", "90"), List.of());
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SiteAdapterRegistry siteAdapters =
+            new SiteAdapterRegistry(List.of(new WprmSiteAdapter(Set.of("budgetbytes.com"))));
+
+    @Test
+    void shouldAnswerRepeatedContentFromMemory() {
+        ExtractionResultCache cache = cache(false);
+
+        cache.put("abc", null, new ExtractedRecipe(SALT, DETAILS));
+
+        assertThat(cache.get("abc", null)).isEqualTo(new ExtractedRecipe(SALT, DETAILS));
+        assertThat(cache.get("abc", "wprm")).isNull();
+        assertThat(cache.get("def", null)).isNull();
+        verify(recipeRepository, never()).findFirstByContentHashAndExtractorVersionOrderByIdDesc(anyString(), any());
+    }
+
+    @Test
+    void shouldFallBackToStoredRecipeWithSameContent() {
+        ExtractionResultCache cache = cache(true);
+        when(recipeRepository.findFirstByContentHashAndExtractorVersionOrderByIdDesc(
+                "abc", IngredientExtractionService.VERSION))
+                .thenReturn(Optional.of(recipe("https://example.com/soup")));
+
+        assertThat(cache.get("abc", null)).isEqualTo(new ExtractedRecipe(SALT, DETAILS));
+        assertThat(cache.get("abc", null)).isEqualTo(new ExtractedRecipe(SALT, DETAILS));
+
+        verify(recipeRepository, times(1))
+                .findFirstByContentHashAndExtractorVersionOrderByIdDesc("abc", IngredientExtractionService.VERSION);
+        assertThat(meterRegistry.get("recipesniper.extraction.cache.persistent.hits").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldIgnoreStoredRecipeExtractedByDifferentSiteAdapter() {
+        ExtractionResultCache cache = cache(true);
+        when(recipeRepository.findFirstByContentHashAndExtractorVersionOrderByIdDesc(
+                "abc", IngredientExtractionService.VERSION))
+                .thenReturn(Optional.of(recipe("https://www.budgetbytes.com/soup")));
+
+        assertThat(cache.get("abc", null)).isNull();
+    }
+
+    private ExtractionResultCache cache(boolean persistent) {
+        return new ExtractionResultCache(recipeRepository, siteAdapters, meterRegistry, 100, persistent);
+    }
+
+    private static Recipe recipe(String url) {
+        Recipe recipe = new Recipe();
+        recipe.setUrl(url);
+        recipe.setDetails(DETAILS);
+        RecipeService.addIngredients(recipe, SALT);
+        return recipe;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.entity.HostExtractionStrategy;
+import com.recipesniper.repository.HostExtractionStrategyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExtractionStrategyMemoryTest {
+
+    @Mock
+    private HostExtractionStrategyRepository repository;
+
+    private ExtractionStrategyMemory memory;
+
+    @BeforeEach
+    void setUp() {
+        memory = new ExtractionStrategyMemory(repository);
+    }
+
+    @Test
+    void shouldKeepEstablishedStrategyThroughOneOddPage() {
+        for (int i = 0; i < 4; i++) {
+            memory.recordSuccess("example.com", "json-ld");
+        }
+
+        memory.recordSuccess("example.com", ".ingredients li");
+
+        assertThat(memory.preferred("example.com")).isEqualTo("json-ld");
+    }
+
+    @Test
+    void shouldRelearnAfterLayoutChange() {
+        for (int i = 0; i < 20; i++) {
+            memory.recordSuccess("example.com", "json-ld");
+        }
+
+        int pagesToSwitch = 0;
+        while ("json-ld".equals(memory.preferred("example.com"))) {
+            memory.recordSuccess("example.com", ".ingredients li");
+            pagesToSwitch++;
+        }
+
+        // Confidence is capped, so relearning takes log2(MAX_CONFIDENCE) + 1 pages
+        assertThat(pagesToSwitch).isEqualTo(4);
+        assertThat(memory.preferred("EXAMPLE.com")).isEqualTo(".ingredients li");
+    }
+
+    @Test
+    void shouldPersistOnlyChangedHostsAndReloadThem() {
+        memory.recordSuccess("www.example.com", "json-ld");
+        memory.flush();
+        memory.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<HostExtractionStrategy>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(captor.capture());
+        HostExtractionStrategy stored = captor.getValue().getFirst();
+        assertThat(stored.getHost()).isEqualTo("example.com");
+        assertThat(stored.getStrategy()).isEqualTo("json-ld");
+        assertThat(stored.getConfidence()).isEqualTo(1);
+
+        stored.setUpdatedAt(LocalDateTime.now());
+        when(repository.findAll()).thenReturn(List.of(stored));
+        ExtractionStrategyMemory restarted = new ExtractionStrategyMemory(repository);
+        restarted.load();
+
+        assertThat(restarted.preferred("example.com")).isEqualTo("json-ld");
+    }
+
+    @Test
+    void shouldNotWriteWhenConfidenceIsAlreadyAtMaximum() {
+        for (int i = 0; i < ExtractionStrategyMemory.MAX_CONFIDENCE; i++) {
+            memory.recordSuccess("example.com", "json-ld");
+        }
+        memory.flush();
+
+        memory.recordSuccess("example.com", "json-ld");
+        memory.flush();
+
+        verify(repository).saveAll(anyList());
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.dto.RecipeDetailResponse;
+import com.recipesniper.dto.RecipeDetails;
+import com.recipesniper.entity.Recipe;
+import com.recipesniper.service.IngredientExtractionService.ExtractedRecipe;
+import com.recipesniper.service.IngredientExtractionService.ParsedIngredient;
+import com.recipesniper.service.ScrapingService.Download;
+import com.recipesniper.service.ScrapingService.ScrapeResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IngestPipelineTest {
+
+    @Mock
+    private ScrapingService scrapingService;
+
+    @Mock
+    private IngredientExtractionService extractionService;
+
+    @Mock
+    private RecipeBatchWriter recipeWriter;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private IngestPipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void shouldFetchExtractAndPersistEachUrl() throws Exception {
+        pipeline = pipeline(4, 1);
+        Download download = download("https://example.com/soup?utm_source=feed");
+        when(scrapingService.download(download.url())).thenReturn(download);
+        when(scrapingService.download("https://example.com/gone")).thenThrow(new IOException("HTTP 404"));
+        Document doc = Jsoup.parse("<html><head><title>Soup</title></head><body>soup</body></html>");
+        when(scrapingService.parse(download)).thenReturn(doc);
+        stubResult();
+        when(extractionService.extractRecipe(eq(doc), eq(download.url()), anyString()))
+                .thenReturn(new ExtractedRecipe(
+                        List.of(new ParsedIngredient("leeks", "2", null, "2 leeks")), RecipeDetails.EMPTY));
+        when(recipeWriter.write(any(Recipe.class))).thenAnswer(inv -> {
+            Recipe recipe = inv.getArgument(0);
+            return CompletableFuture.completedFuture(
+                    new RecipeDetailResponse(7L, recipe.getUrl(), recipe.getTitle(), LocalDateTime.now(), null, List.of(),
+                            RecipeDetails.EMPTY));
+        });
+
+        CompletableFuture<RecipeDetailResponse> soup = pipeline.submit("https://example.com/soup?utm_source=feed");
+        CompletableFuture<RecipeDetailResponse> gone = pipeline.submit("https://example.com/gone");
+
+        assertThat(soup.get(5, TimeUnit.SECONDS).id()).isEqualTo(7L);
+        assertThat(gone).failsWithin(5, TimeUnit.SECONDS)
+                .withThrowableThat().havingCause().isInstanceOf(IOException.class);
+
+        ArgumentCaptor<Recipe> captor = ArgumentCaptor.forClass(Recipe.class);
+        verify(recipeWriter).write(captor.capture());
+        Recipe saved = captor.getValue();
+        assertThat(saved.getCanonicalUrl()).isEqualTo("https://example.com/soup");
+        assertThat(saved.getTitle()).isEqualTo("Soup");
+        assertThat(saved.getExtractorVersion()).isEqualTo(IngredientExtractionService.VERSION);
+        assertThat(saved.getIngredients()).extracting(i -> i.getName()).containsExactly("leeks");
+        assertThat(meterRegistry.get("recipesniper.ingest.stage").tag("stage", "extract").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("recipesniper.ingest.queue.depth").tag("stage", "extract").gauge().value())
+                .isZero();
+    }
+
+    @Test
+    void shouldKeepExtractWorkersRunningAfterAnError() throws Exception {
+        pipeline = pipeline(4, 4);
+        when(scrapingService.download(anyString())).thenAnswer(inv -> download(inv.getArgument(0)));
+        when(scrapingService.parse(any(Download.class))).thenAnswer(inv -> Jsoup.parse("<html>soup</html>"));
+        stubResult();
+        when(extractionService.extractRecipe(any(Document.class), anyString(), anyString())).thenAnswer(inv -> {
+            if (inv.<String>getArgument(1).contains("deep")) {
+                throw new StackOverflowError();
+            }
+            return new ExtractedRecipe(List.of(), RecipeDetails.EMPTY);
+        });
+        when(recipeWriter.write(any(Recipe.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // More failing pages than extract workers
+        List<CompletableFuture<RecipeDetailResponse>> deep = List.of(
+                pipeline.submit("https://example.com/deep/1"),
+                pipeline.submit("https://example.com/deep/2"),
+                pipeline.submit("https://example.com/deep/3"));
+        for (CompletableFuture<RecipeDetailResponse> page : deep) {
+            assertThat(page).failsWithin(5, TimeUnit.SECONDS)
+                    .withThrowableThat().havingCause().isInstanceOf(StackOverflowError.class);
+        }
+
+        assertThat(pipeline.submit("https://example.com/soup")).succeedsWithin(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldBlockSubmitWhileFetchStageIsFull() throws Exception {
+        pipeline = pipeline(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(scrapingService.download(anyString())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return download(inv.getArgument(0));
+        });
+        when(scrapingService.parse(any(Download.class))).thenAnswer(inv -> Jsoup.parse("<html>soup</html>"));
+        stubResult();
+        when(extractionService.extractRecipe(any(Document.class), anyString(), anyString()))
+                .thenReturn(new ExtractedRecipe(List.of(), RecipeDetails.EMPTY));
+        when(recipeWriter.write(any(Recipe.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        pipeline.submit("https://example.com/first");
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> {
+            try {
+                pipeline.submit("https://example.com/second");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Thread.sleep(200);
+        assertThat(second).isNotDone();
+        release.countDown();
+        second.get(5, TimeUnit.SECONDS);
+        verify(recipeWriter, timeout(5_000).times(2)).write(any(Recipe.class));
+    }
+
+    private static Download download(String url) {
+        return new Download(url, Path.of("/tmp/soup.html"), null, false);
+    }
+
+    private void stubResult() {
+        when(scrapingService.result(any(Download.class), any(Document.class), anyString())).thenAnswer(inv ->
+                new ScrapeResult(inv.<Document>getArgument(1).title(), inv.getArgument(2),
+                        inv.<Download>getArgument(0).savedFile()));
+    }
+
+    private IngestPipeline pipeline(int fetchConcurrency, int queueCapacity) {
+        return new IngestPipeline(scrapingService, extractionService, recipeWriter, meterRegistry,
+                OpenTelemetry.noop().getTracer("test"), fetchConcurrency, 2, queueCapacity);
+    }
+}
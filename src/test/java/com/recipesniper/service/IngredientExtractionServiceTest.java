@@ -19,17 +19,29 @@
 
 package com.recipesniper.service;
 
+import com.recipesniper.dto.RecipeDetails;
+import com.recipesniper.repository.HostExtractionStrategyRepository;
+import com.recipesniper.repository.RecipeRepository;
+import com.recipesniper.service.IngredientExtractionService.ExtractedRecipe;
 import com.recipesniper.service.IngredientExtractionService.ParsedIngredient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.opentelemetry.api.trace.Tracer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.anyString;
 
@@ -39,13 +51,38 @@ class IngredientExtractionServiceTest {
     @Mock
     private Tracer tracer;
 
+    @Mock
+    private HostExtractionStrategyRepository strategyRepository;
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    private ExtractionStrategyMemory strategyMemory;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SiteAdapterRegistry siteAdapters;
+    private ExtractionResultCache resultCache;
     private IngredientExtractionService extractionService;
 
     @BeforeEach
     void setUp() {
+        strategyMemory = new ExtractionStrategyMemory(strategyRepository);
         // Use noop tracer for tests
-        extractionService = new IngredientExtractionService(
-                io.opentelemetry.api.OpenTelemetry.noop().getTracer("test"));
+        siteAdapters = new SiteAdapterRegistry(List.of(new WprmSiteAdapter(Set.of("budgetbytes.com"))));
+        resultCache = new ExtractionResultCache(recipeRepository, siteAdapters, meterRegistry, 100, false);
+        extractionService = service(siteAdapters, budget(DataSize.ofMegabytes(2), 100_000, Duration.ofSeconds(30)));
+    }
+
+    private IngredientExtractionService service(SiteAdapterRegistry adapters, ExtractionBudget budget) {
+        return new IngredientExtractionService(io.opentelemetry.api.OpenTelemetry.noop().getTracer("test"),
+                strategyMemory, adapters, resultCache, budget);
+    }
+
+    private ExtractionBudget budget(DataSize maxInput, int maxDomNodes, Duration deadline) {
+        return new ExtractionBudget(maxInput, maxDomNodes, DataSize.ofKilobytes(1), deadline, meterRegistry);
+    }
+
+    private double exceeded(String budget) {
+        return meterRegistry.get("recipesniper.extraction.budget.exceeded").tag("budget", budget).counter().count();
     }
 
     @Test
@@ -75,6 +112,23 @@ class IngredientExtractionServiceTest {
         assertThat(ingredients.get(2).rawText()).isEqualTo("3 large eggs");
     }
 
+    @Test
+    void shouldExtractFromAlreadyParsedDocument() {
+        String html = """
+                <html><head>
+                <script type="application/ld+json">
+                {"@type": "Recipe", "recipeIngredient": ["2 cups flour", "1 cup sugar"]}
+                </script>
+                </head><body></body></html>
+                """;
+        Document doc = Jsoup.parse(html, "https://example.com/cake");
+
+        ExtractedRecipe extracted = extractionService.extractRecipe(doc, "https://example.com/cake", ContentHash.of(html));
+
+        assertThat(extracted.ingredients()).extracting(ParsedIngredient::name).containsExactly("flour", "sugar");
+        assertThat(extracted.partial()).isFalse();
+    }
+
     @Test
     void shouldParseQuantityUnitAndName() {
         String html = """
@@ -185,4 +239,301 @@ class IngredientExtractionServiceTest {
         assertThat(ingredients.get(0).quantity()).isEqualTo("3");
         assertThat(ingredients.get(0).name()).isEqualTo("eggs");
     }
+
+    @Test
+    void shouldRememberWhichStrategyWorkedForHost() {
+        String html = """
+                <html><body>
+                <ul class="ingredients"><li>2 cups flour</li></ul>
+                </body></html>
+                """;
+
+        extractionService.extract(html, "https://www.example.com/recipes/bread");
+
+        assertThat(strategyMemory.preferred("example.com")).isEqualTo(".ingredients li");
+        assertThat(strategyMemory.preferred("other.example")).isNull();
+    }
+
+    @Test
+    void shouldTryRememberedStrategyFirst() {
+        strategyMemory.recordSuccess("example.com", "[itemprop=recipeIngredient]");
+        String html = """
+                <html><head>
+                <script type="application/ld+json">
+                {"@type": "Recipe", "recipeIngredient": ["1 cup stale json"]}
+                </script>
+                </head><body>
+                <span itemprop="recipeIngredient">2 cups fresh markup</span>
+                </body></html>
+                """;
+
+        List<ParsedIngredient> remembered = extractionService.extract(html, "https://example.com/recipes/bread");
+
+        // JSON-LD would win in the generic order
+        assertThat(remembered).extracting(ParsedIngredient::rawText).containsExactly("2 cups fresh markup");
+    }
+
+    @Test
+    void shouldFallBackWhenRememberedStrategyFindsNothing() {
+        strategyMemory.recordSuccess("example.com", ".wprm-recipe-ingredients li");
+        String html = """
+                <html><body>
+                <ul class="recipe-ingredients"><li>3 eggs</li></ul>
+                </body></html>
+                """;
+
+        List<ParsedIngredient> ingredients = extractionService.extract(html, "https://example.com/recipes/cake");
+
+        assertThat(ingredients).extracting(ParsedIngredient::name).containsExactly("eggs");
+        // One success for a new strategy halves confidence 1 to 0, handing over
+        assertThat(strategyMemory.preferred("example.com")).isEqualTo(".recipe-ingredients li");
+    }
+
+    @Test
+    void shouldUseSiteAdapterForRegisteredHost() throws Exception {
+        String html = SiteAdapterFixtures.html("wprm-banana-bread.html");
+
+        List<ParsedIngredient> adapted = extractionService.extract(html, "https://www.budgetbytes.com/banana-bread/");
+        List<ParsedIngredient> generic = extractionService.extract(html);
+
+        assertThat(adapted).hasSize(8);
+        assertThat(adapted.get(3).name()).isEqualTo("egg");
+        // The generic JSON-LD path leaves the notes in the name
+        assertThat(generic.get(3).name()).isEqualTo("large egg, beaten ($0.27)");
+        assertThat(strategyMemory.preferred("budgetbytes.com")).isNull();
+    }
+
+    @Test
+    void shouldFallBackToGenericExtractionWhenSiteAdapterFindsNothing() {
+        String html = """
+                <html><body>
+                <ul class="ingredients"><li>2 cups flour</li></ul>
+                </body></html>
+                """;
+
+        List<ParsedIngredient> ingredients = extractionService.extract(html, "https://budgetbytes.com/old-post/");
+
+        assertThat(ingredients).extracting(ParsedIngredient::name).containsExactly("flour");
+    }
+
+    @Test
+    void shouldFallBackToGenericExtractionWhenSiteAdapterFails() {
+        SiteAdapter broken = new WprmSiteAdapter(Set.of("example.com")) {
+            @Override
+            public List<ParsedIngredient> extract(Document doc) {
+                throw new IllegalStateException("unexpected markup");
+            }
+        };
+        IngredientExtractionService service = service(new SiteAdapterRegistry(List.of(broken)),
+                budget(DataSize.ofMegabytes(2), 100_000, Duration.ofSeconds(30)));
+        String html = """
+                <html><body>
+                <ul class="ingredients"><li>2 cups flour</li></ul>
+                </body></html>
+                """;
+
+        assertThat(service.extract(html, "https://example.com/bread")).hasSize(1);
+    }
+
+    @Test
+    void shouldReuseResultForIdenticalContentWithoutParsing() {
+        String html = """
+                <html><body>
+                <ul class="ingredients"><li>2 cups flour</li></ul>
+                </body></html>
+                """;
+        List<ParsedIngredient> first = extractionService.extract(html, "https://example.com/bread");
+        // Swap in a different answer to show the second page is not parsed
+        resultCache.put(ContentHash.of(html), null, new ExtractedRecipe(
+                List.of(new ParsedIngredient("rye", "1", "cup", "1 cup rye")), RecipeDetails.EMPTY));
+
+        List<ParsedIngredient> syndicated = extractionService.extract(html, "https://mirror.example.org/bread");
+
+        assertThat(first).extracting(ParsedIngredient::name).containsExactly("flour");
+        assertThat(syndicated).extracting(ParsedIngredient::name).containsExactly("rye");
+    }
+
+    @Test
+    void shouldNotShareResultsBetweenHostsWithDifferentSiteAdapters() throws Exception {
+        String html = SiteAdapterFixtures.html("wprm-banana-bread.html");
+
+        List<ParsedIngredient> generic = extractionService.extract(html, "https://mirror.example.org/banana-bread/");
+        List<ParsedIngredient> adapted = extractionService.extract(html, "https://www.budgetbytes.com/banana-bread/");
+
+        assertThat(generic.get(3).name()).isEqualTo("large egg, beaten ($0.27)");
+        assertThat(adapted.get(3).name()).isEqualTo("egg");
+    }
+
+    @Test
+    void shouldExtractFromTruncatedPageWhenInputIsTooLarge() {
+        String html = """
+                <html><body>
+                <ul class="ingredients"><li>2 cups flour</li></ul>
+                <svg>""" + "<path d=\"M0 0L1 1\"/>".repeat(100_000) + "</svg></body></html>";
+        IngredientExtractionService service = service(siteAdapters,
+                budget(DataSize.ofKilobytes(64), 100_000, Duration.ofSeconds(30)));
+
+        List<ParsedIngredient> first = service.extract(html, "https://example.com/bread");
+        List<ParsedIngredient> second = service.extract(html, "https://example.com/bread");
+
+        assertThat(first).extracting(ParsedIngredient::name).containsExactly("flour");
+        assertThat(second).isEqualTo(first);
+        // Partial results aren't cached, so both calls hit the budget
+        assertThat(exceeded("input-size")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStopBuildingDomAtNodeBudget() {
+        String html = """
+                <html><head>
+                <script type="application/ld+json">
+                {"@type": "Recipe", "recipeIngredient": ["1 tsp salt"]}
+                </script>
+                </head><body>""" + "<div><span>comment</span></div>".repeat(10_000) + """
+                <ul class="ingredients"><li>2 cups flour</li></ul>
+                </body></html>
+                """;
+        IngredientExtractionService service = service(siteAdapters,
+                budget(DataSize.ofMegabytes(2), 1_000, Duration.ofSeconds(30)));
+
+        List<ParsedIngredient> ingredients = service.extract(html, "https://example.com/bread");
+
+        assertThat(ingredients).extracting(ParsedIngredient::name).containsExactly("salt");
+        assertThat(exceeded("dom-nodes")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSkipOversizedJsonLdBlocks() {
+        String html = """
+                <html><head>
+                <script type="application/ld+json">
+                {"@type": "Recipe", "recipeIngredient": ["1 tsp salt"], "padding": "%s"}
+                </script>
+                </head><body>
+                <ul class="ingredients"><li>2 cups flour</li></ul>
+                </body></html>
+                """.formatted("x".repeat(2_000));
+
+        List<ParsedIngredient> ingredients = extractionService.extract(html, "https://example.com/bread");
+
+        assertThat(ingredients).extracting(ParsedIngredient::name).containsExactly("flour");
+        assertThat(exceeded("json-ld-size")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReturnWhatWasFoundWhenDeadlinePasses() {
+        String html = """
+                <html><head>
+                <script type="application/ld+json">
+                {"@type": "Recipe", "recipeIngredient": ["1 tsp salt"]}
+                </script>
+                </head><body>""" + "<p>filler</p>".repeat(5_000) + "</body></html>";
+        IngredientExtractionService service = service(siteAdapters,
+                budget(DataSize.ofMegabytes(2), 100_000, Duration.ZERO));
+
+        ExtractedRecipe extracted = service.extractRecipe(html, "https://example.com/bread");
+
+        assertThat(extracted.ingredients()).extracting(ParsedIngredient::name).containsExactly("salt");
+        assertThat(extracted.partial()).isTrue();
+        assertThat(extracted.extractorVersion()).isNull();
+        assertThat(exceeded("deadline")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldExtractRecipeDetailsFromSameJsonLdNode() {
+        String html = """
+                <html><head>
+                <script type="application/ld+json">
+                {"@context": "https://schema.org", "@graph": [
+                  {"@type": "WebPage", "image": "https://example.com/banner.jpg"},
+                  {"@type": "Recipe",
+                   "recipeIngredient": ["2 cups flour"],
+                   "recipeYield": ["12", "12 muffins"],
+                   "prepTime": "PT15M",
+                   "cookTime": "PT1H5M",
+                   "totalTime": "P0DT1H20M",
+                   "image": [{"@type": "ImageObject", "url": "https://example.com/muffins.jpg"},
+                             "https://example.com/muffins-square.jpg"],
+                   "nutrition": {"@type": "NutritionInformation", "calories": "180 kcal", "fatContent": "6 g"},
+                   "recipeInstructions": [
+                     {"@type": "HowToSection", "name": "Batter", "itemListElement": [
+                       {"@type": "HowToStep", "text": "Whisk the <b>dry</b> ingredients."},
+                       {"@type": "HowToStep", "text": "Fold in the wet ones."}]},
+                     {"@type": "HowToStep", "text": "Bake for 25 minutes."}]}
+                ]}
+                </script>
+                </head><body></body></html>
+                """;
+
+        ExtractedRecipe extracted = extractionService.extractRecipe(html, "https://example.com/muffins");
+
+        assertThat(extracted.ingredients()).extracting(ParsedIngredient::name).containsExactly("flour");
+        RecipeDetails details = extracted.details();
+        assertThat(details.recipeYield()).isEqualTo("12 muffins");
+        assertThat(details.prepTimeMinutes()).isEqualTo(15);
+        assertThat(details.cookTimeMinutes()).isEqualTo(65);
+        assertThat(details.totalTimeMinutes()).isEqualTo(80);
+        assertThat(details.instructions())
+                .containsExactly("Whisk the dry ingredients.", "Fold in the wet ones.", "Bake for 25 minutes.");
+        assertThat(details.nutrition()).containsExactly(entry("calories", "180 kcal"), entry("fatContent", "6 g"));
+        assertThat(details.imageUrls())
+                .containsExactly("https://example.com/muffins.jpg", "https://example.com/muffins-square.jpg");
+    }
+
+    @Test
+    void shouldFallBackToMicrodataForRecipeDetails() {
+        String html = """
+                <html><body>
+                <div itemscope itemtype="https://schema.org/Recipe">
+                  <h1 itemprop="name">Lentil Soup</h1>
+                  <img itemprop="image" src="https://example.com/soup.jpg">
+                  <span itemprop="recipeYield">4 bowls</span>
+                  <meta itemprop="prepTime" content="PT10M">
+                  <time itemprop="cookTime" datetime="PT40M">40 minutes</time>
+                  <ul><li itemprop="recipeIngredient">1 cup lentils</li></ul>
+                  <ol itemprop="recipeInstructions"><li>Rinse the lentils.</li><li>Simmer until soft.</li></ol>
+                  <div itemprop="nutrition" itemscope itemtype="https://schema.org/NutritionInformation">
+                    <span itemprop="calories">230 calories</span>
+                  </div>
+                  <div itemprop="author" itemscope itemtype="https://schema.org/Person">
+                    <img itemprop="image" src="https://example.com/author.jpg">
+                  </div>
+                </div>
+                </body></html>
+                """;
+
+        ExtractedRecipe extracted = extractionService.extractRecipe(html, "https://example.com/soup");
+
+        assertThat(extracted.ingredients()).extracting(ParsedIngredient::name).containsExactly("lentils");
+        RecipeDetails details = extracted.details();
+        assertThat(details.recipeYield()).isEqualTo("4 bowls");
+        assertThat(details.prepTimeMinutes()).isEqualTo(10);
+        assertThat(details.cookTimeMinutes()).isEqualTo(40);
+        assertThat(details.totalTimeMinutes()).isNull();
+        assertThat(details.instructions()).containsExactly("Rinse the lentils.", "Simmer until soft.");
+        assertThat(details.nutrition()).containsExactly(entry("calories", "230 calories"));
+        // The author's photo belongs to the Person, not the recipe
+        assertThat(details.imageUrls()).containsExactly("https://example.com/soup.jpg");
+    }
+
+    @Test
+    void shouldReadDetailsFromJsonLdWhenSiteAdapterSuppliesIngredients() throws Exception {
+        String html = SiteAdapterFixtures.html("dotdash-meredith-cookies.html");
+        IngredientExtractionService service = service(
+                new SiteAdapterRegistry(List.of(new DotdashMeredithSiteAdapter(Set.of("allrecipes.com")))),
+                budget(DataSize.ofMegabytes(2), 100_000, Duration.ofSeconds(30)));
+
+        ExtractedRecipe extracted = service.extractRecipe(html, "https://www.allrecipes.com/recipe/10813/");
+
+        assertThat(extracted.ingredients()).hasSize(10);
+        assertThat(extracted.details().recipeYield()).isEqualTo("24 cookies");
+        assertThat(extracted.details().totalTimeMinutes()).isEqualTo(60);
+    }
+
+    @Test
+    void shouldIgnoreDurationsThatAreNotIso8601() {
+        assertThat(RecipeDetailsExtractor.minutes("PT2H")).isEqualTo(120);
+        assertThat(RecipeDetailsExtractor.minutes("20 mins")).isNull();
+        assertThat(RecipeDetailsExtractor.minutes(null)).isNull();
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.service.PageArchive.Validators;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldKeepUrlsThatSanitizeAlikeApart() throws IOException {
+        PageArchive archive = new PageArchive(tempDir, false);
+        String query = "https://example.com/r?id=1";
+        String path = "https://example.com/r/id=1";
+        save(archive, query, "<html>query</html>");
+        archive.saveValidators(query, new Validators("\"q\"", null, Instant.now(), Duration.ofHours(1), null));
+
+        assertThat(archive.pathFor(query)).isNotEqualTo(archive.pathFor(path));
+        assertThat(archive.find(path)).isEmpty();
+        assertThat(archive.validators(path)).isEmpty();
+
+        save(archive, path, "<html>path</html>");
+
+        assertThat(archive.read(query)).contains("<html>query</html>");
+        assertThat(archive.read(path)).contains("<html>path</html>");
+        assertThat(archive.validators(query)).get().extracting(Validators::etag).isEqualTo("\"q\"");
+    }
+
+    @Test
+    void shouldKeepUrlsSharingALongPrefixApart() throws IOException {
+        PageArchive archive = new PageArchive(tempDir, true);
+        String base = "https://example.com/recipes/" + "very-long-slug-".repeat(20);
+        save(archive, base + "soup", "<html>soup</html>");
+        save(archive, base + "stew", "<html>stew</html>");
+
+        assertThat(archive.read(base + "soup")).contains("<html>soup</html>");
+        assertThat(archive.read(base + "stew")).contains("<html>stew</html>");
+        assertThat(archive.pathFor(base + "soup").getFileName().toString())
+                .startsWith("example.com_recipes_very-long-slug-")
+                .endsWith(".html.gz");
+    }
+
+    @Test
+    void shouldRenameLegacyPagesToHashedNames() throws IOException {
+        PageArchive archive = new PageArchive(tempDir, false);
+        String soup = "https://example.com/soup";
+        String query = "https://example.com/r?id=1";
+        String path = "https://example.com/r/id=1";
+        Files.writeString(tempDir.resolve("https___example.com_soup.html"), "<html>soup</html>");
+        Files.writeString(tempDir.resolve("https___example.com_soup.html.meta"),
+                "#" + soup + "\netag=\"s\"\nfetchedAt=2026-01-01T00\\:00\\:00Z\n");
+        // Shared by two URLs; its validators say which one it was saved for
+        Files.writeString(tempDir.resolve("https___example.com_r_id_1.html.gz"), "gzipped");
+        Files.writeString(tempDir.resolve("https___example.com_r_id_1.html.meta"),
+                "#" + path + "\nfetchedAt=2026-01-01T00\\:00\\:00Z\n");
+        Files.writeString(tempDir.resolve("https___example.com_deleted.html"), "<html>gone</html>");
+
+        assertThat(archive.hasLegacyPages()).isTrue();
+        int migrated = archive.migrateLegacyPages(List.of(soup, query, path, soup));
+
+        assertThat(migrated).isEqualTo(2);
+        assertThat(archive.read(soup)).contains("<html>soup</html>");
+        assertThat(archive.validators(soup)).get().extracting(Validators::etag).isEqualTo("\"s\"");
+        assertThat(archive.find(path)).get().satisfies(page -> assertThat(PageArchive.isCompressed(page)).isTrue());
+        assertThat(archive.find(query)).isEmpty();
+        assertThat(archive.hasLegacyPages()).isFalse();
+        assertThat(tempDir.resolve("https___example.com_deleted.html")).doesNotExist();
+    }
+
+    @Test
+    void shouldPreferPageArchivedUnderNewNameOverLegacyCopy() throws IOException {
+        PageArchive archive = new PageArchive(tempDir, false);
+        String soup = "https://example.com/soup";
+        save(archive, soup, "<html>new</html>");
+        Files.writeString(tempDir.resolve(PageArchive.legacyName(soup)), "<html>old</html>");
+
+        archive.migrateLegacyPages(List.of(soup));
+
+        assertThat(archive.read(soup)).contains("<html>new</html>");
+        assertThat(archive.hasLegacyPages()).isFalse();
+    }
+
+    private static void save(PageArchive archive, String url, String html) throws IOException {
+        archive.save(url, new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.repository.HostExtractionStrategyRepository;
+import com.recipesniper.repository.RecipeRepository;
+import com.recipesniper.service.IngredientExtractionService.ExtractedRecipe;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class PageStripperTest {
+
+    @Mock
+    private HostExtractionStrategyRepository strategyRepository;
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    private SiteAdapterRegistry siteAdapters;
+    private PageStripper stripper;
+    private IngredientExtractionService extractionService;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        siteAdapters = new SiteAdapterRegistry(List.of(
+                new WprmSiteAdapter(Set.of("budgetbytes.com")),
+                new DotdashMeredithSiteAdapter(Set.of("allrecipes.com"))));
+        stripper = new PageStripper(PageStripper.Mode.STRIPPED, siteAdapters);
+        extractionService = new IngredientExtractionService(OpenTelemetry.noop().getTracer("test"),
+                new ExtractionStrategyMemory(strategyRepository), siteAdapters,
+                new ExtractionResultCache(recipeRepository, siteAdapters, meterRegistry, 100, false),
+                new ExtractionBudget(DataSize.ofMegabytes(2), 100_000, DataSize.ofKilobytes(512),
+                        Duration.ofSeconds(30), meterRegistry));
+    }
+
+    @Test
+    void shouldExtractTheSameFromStrippedWprmPage() throws Exception {
+        assertStrippedExtractsTheSame("wprm-banana-bread.html", "https://www.budgetbytes.com/banana-bread/");
+    }
+
+    @Test
+    void shouldExtractTheSameFromStrippedDotdashMeredithPage() throws Exception {
+        assertStrippedExtractsTheSame("dotdash-meredith-cookies.html", "https://www.allrecipes.com/recipe/10813/");
+    }
+
+    @Test
+    void shouldKeepAncestorsOfIngredientListsAsEmptyShells() {
+        String html = """
+                <html><head><title>Soup</title><style>body { color: red }</style></head><body>
+                <nav><a href="/">Home</a></nav>
+                <main class="post"><p>My grandmother's story...</p>
+                <div class="ingredients"><h3>You need</h3><ul><li>2 leeks</li><li>1 tsp salt</li></ul></div>
+                <script>ads()</script></main>
+                <footer>Copyright</footer></body></html>
+                """;
+
+        String stored = strip(html, "https://example.com/soup");
+
+        Document doc = Jsoup.parse(stored);
+        assertThat(doc.title()).isEqualTo("Soup");
+        assertThat(doc.select(".post > .ingredients li")).extracting(e -> e.text())
+                .containsExactly("2 leeks", "1 tsp salt");
+        assertThat(stored).doesNotContain("grandmother", "You need", "Home", "Copyright", "ads()", "color");
+        assertThat(extractionService.extractRecipe(stored, "https://example.com/soup"))
+                .isEqualTo(extractionService.extractRecipe(html, "https://example.com/soup"));
+    }
+
+    @Test
+    void shouldKeepMicrodataRecipeWithItsMetaProperties() {
+        String html = """
+                <html><head><title>Stew</title><meta name="viewport" content="width=device-width"></head><body>
+                <aside>Newsletter</aside>
+                <div itemscope itemtype="https://schema.org/Recipe">
+                  <meta itemprop="prepTime" content="PT15M"><span itemprop="recipeYield">4</span>
+                  <span itemprop="recipeIngredient">2 carrots</span>
+                  <div itemprop="recipeInstructions">Simmer.</div>
+                </div></body></html>
+                """;
+
+        String stored = strip(html, "https://example.com/stew");
+
+        assertThat(stored).doesNotContain("Newsletter", "viewport");
+        ExtractedRecipe extracted = extractionService.extractRecipe(stored, "https://example.com/stew");
+        assertThat(extracted).isEqualTo(extractionService.extractRecipe(html, "https://example.com/stew"));
+        assertThat(extracted.details().prepTimeMinutes()).isEqualTo(15);
+    }
+
+    @Test
+    void shouldKeepOnlyRecipeJsonLdBlocks() {
+        String html = """
+                <html><head><title>Cake</title>
+                <script type="application/ld+json">{"@type":"BreadcrumbList","itemListElement":[]}</script>
+                </head><body><div class="content">Cake text</div>
+                <script type="application/ld+json">{"@type":"Recipe","recipeIngredient":["2 eggs"]}</script>
+                </body></html>
+                """;
+
+        String stored = strip(html, "https://example.com/cake");
+
+        assertThat(stored).contains("\"recipeIngredient\":[\"2 eggs\"]").doesNotContain("BreadcrumbList");
+        assertThat(Jsoup.parse(stored).head().select("script")).hasSize(1);
+        assertThat(extractionService.extract(stored, "https://example.com/cake"))
+                .extracting(i -> i.rawText()).containsExactly("2 eggs");
+    }
+
+    @Test
+    void shouldKeepBodyTextWithoutChromeWhenNoRecipeIsFound() {
+        String html = """
+                <html><head><title>Notes</title><script>track()</script></head><body>
+                <header>Site</header><article><p>Mix flour and water.</p><!-- ad slot --></article>
+                <form><input name="q"></form></body></html>
+                """;
+
+        String stored = strip(html, "https://example.com/notes");
+
+        assertThat(stored).contains("<p>Mix flour and water.</p>")
+                .doesNotContain("Site", "track()", "ad slot", "input");
+    }
+
+    @Test
+    void shouldStorePageAsScrapedInFullMode() {
+        PageStripper full = new PageStripper(PageStripper.Mode.FULL, siteAdapters);
+        Document doc = Jsoup.parse("<html><body><nav>Home</nav><p>Text</p></body></html>", "https://example.com/");
+        String html = doc.html();
+
+        assertThat(full.stored(doc, html)).isSameAs(html);
+    }
+
+    private void assertStrippedExtractsTheSame(String fixture, String url) throws Exception {
+        String html = SiteAdapterFixtures.html(fixture);
+
+        String stored = strip(html, url);
+
+        assertThat(stored.length()).isLessThan(html.length() / 5);
+        assertThat(extractionService.extractRecipe(stored, url))
+                .isEqualTo(extractionService.extractRecipe(html, url));
+    }
+
+    private String strip(String html, String url) {
+        Document doc = Jsoup.parse(html, url);
+        return stripper.stored(doc, doc.html());
+    }
+}
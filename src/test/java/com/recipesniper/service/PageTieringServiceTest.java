@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.repository.HotPage;
+import com.recipesniper.repository.RecipeRepository;
+import com.recipesniper.repository.StoredPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PageTieringServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ColdPageStore coldPageStore;
+    private PageTieringService tieringService;
+
+    @BeforeEach
+    void setUp() {
+        coldPageStore = new ColdPageStore(tempDir, DataSize.ofMegabytes(1), meterRegistry);
+        tieringService = new PageTieringService(recipeRepository, coldPageStore,
+                new TransactionTemplate(transactionManager), meterRegistry, OpenTelemetry.noop().getTracer("test"),
+                true, Duration.ofDays(90), 2);
+    }
+
+    @Test
+    void shouldMoveUnchangedPagesToColdStorageInBatches() throws IOException {
+        when(recipeRepository.findHotPages(any(LocalDateTime.class), eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new HotPage(1L, "a", "<html>soup</html>"),
+                new HotPage(2L, "b", "<html>stew</html>")));
+        when(recipeRepository.findHotPages(any(LocalDateTime.class), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(new HotPage(3L, "c", "<html>bread</html>")));
+        when(recipeRepository.findHotPages(any(LocalDateTime.class), eq(3L), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(recipeRepository.moveToColdStorage(any(), anyString(), anyString())).thenReturn(1);
+        // Re-crawled since it was read
+        when(recipeRepository.moveToColdStorage(eq(2L), eq("b"), anyString())).thenReturn(0);
+
+        int moved = tieringService.moveColdPages();
+
+        assertThat(moved).isEqualTo(2);
+        ArgumentCaptor<String> ref = ArgumentCaptor.forClass(String.class);
+        verify(recipeRepository).moveToColdStorage(eq(3L), eq("c"), ref.capture());
+        assertThat(coldPageStore.read(ref.getValue())).isEqualTo("<html>bread</html>");
+        assertThat(meterRegistry.get("recipesniper.storage.tiering.pages").tag("action", "moved").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldRestoreEveryColdPageAndDeleteTheSegments() throws IOException {
+        List<String> refs = coldPageStore.append(List.of("<html>soup</html>", "<html>stew</html>"));
+        when(recipeRepository.findColdPages(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new StoredPage(1L, "https://example.com/soup", null, refs.get(0)),
+                new StoredPage(2L, "https://example.com/stew", null, refs.get(1))));
+        when(recipeRepository.findColdPages(eq(2L), any(Pageable.class))).thenReturn(List.of());
+        when(recipeRepository.restoreFromColdStorage(any(), anyString(), anyString())).thenReturn(1);
+        when(recipeRepository.findColdSegments()).thenReturn(List.of());
+
+        int restored = tieringService.restoreAll();
+
+        assertThat(restored).isEqualTo(2);
+        verify(recipeRepository).restoreFromColdStorage(1L, refs.get(0), "<html>soup</html>");
+        verify(recipeRepository).restoreFromColdStorage(2L, refs.get(1), "<html>stew</html>");
+        assertThat(coldPageStore.usage().segments()).isZero();
+    }
+
+    @Test
+    void shouldRestoreOneRecipe() throws IOException {
+        String ref = coldPageStore.append(List.of("<html>soup</html>")).getFirst();
+        when(recipeRepository.findStoredPages(List.of(1L)))
+                .thenReturn(List.of(new StoredPage(1L, "https://example.com/soup", null, ref)));
+        when(recipeRepository.restoreFromColdStorage(1L, ref, "<html>soup</html>")).thenReturn(1);
+
+        assertThat(tieringService.restore(1L)).isTrue();
+        // Other cold pages may still be in the segment
+        assertThat(coldPageStore.usage().segments()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLeavePagesAlreadyInTheDatabase() {
+        when(recipeRepository.findStoredPages(List.of(1L)))
+                .thenReturn(List.of(new StoredPage(1L, "https://example.com/soup", "<html>soup</html>", null)));
+
+        assertThat(tieringService.restore(1L)).isFalse();
+        verify(recipeRepository, never()).restoreFromColdStorage(any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectUnknownRecipe() {
+        when(recipeRepository.findStoredPages(List.of(9L))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> tieringService.restore(9L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRefuseToRestoreWhileMovingPages() {
+        when(recipeRepository.findHotPages(any(LocalDateTime.class), eq(0L), any(Pageable.class))).thenAnswer(call -> {
+            assertThatThrownBy(() -> tieringService.restoreAll()).isInstanceOf(JobAlreadyRunningException.class);
+            return List.of();
+        });
+
+        assertThat(tieringService.moveColdPages()).isZero();
+        // The flag is released afterwards
+        when(recipeRepository.findColdPages(eq(0L), any(Pageable.class))).thenReturn(List.of());
+        assertThat(tieringService.restoreAll()).isZero();
+    }
+}
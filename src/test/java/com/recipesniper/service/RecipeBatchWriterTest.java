@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.cache.CanonicalUrlFilter;
+import com.recipesniper.cache.ResourceVersions;
+import com.recipesniper.dto.RecipeDetailResponse;
+import com.recipesniper.dto.RecipeDetails;
+import com.recipesniper.entity.Recipe;
+import com.recipesniper.repository.RecipeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RecipeBatchWriterTest {
+
+    @Mock
+    private RecipeService recipeService;
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private CanonicalUrlFilter canonicalUrlFilter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RecipeBatchWriter writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    @Test
+    void shouldInsertRecipesWaitingTogetherInOneTransaction() throws Exception {
+        writer = writer(3, Duration.ofSeconds(5));
+        List<Recipe> saved = new ArrayList<>();
+        when(recipeRepository.saveAll(anyList())).thenAnswer(inv -> {
+            saved.addAll(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(recipeService.toDetailResponse(any(Recipe.class)))
+                .thenAnswer(inv -> response(inv.getArgument(0)));
+
+        List<CompletableFuture<RecipeDetailResponse>> results = new ArrayList<>();
+        for (String name : List.of("soup", "stew", "bread")) {
+            results.add(writer.write(recipe(name)));
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS).url()).isEqualTo(saved.get(i).getUrl());
+        }
+        verify(recipeRepository).saveAll(anyList());
+        verify(transactionManager).commit(any());
+        verify(canonicalUrlFilter).add("https://example.com/stew");
+        assertThat(meterRegistry.get("recipesniper.ingest.write.batch.size").summary().max()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldFlushPartialBatchAfterInterval() throws Exception {
+        writer = writer(50, Duration.ofMillis(20));
+        when(recipeRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(recipeService.toDetailResponse(any(Recipe.class)))
+                .thenAnswer(inv -> response(inv.getArgument(0)));
+
+        RecipeDetailResponse response = writer.write(recipe("soup")).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.url()).isEqualTo("https://example.com/soup");
+    }
+
+    @Test
+    void shouldRetryFailedBatchOneRecipeAtATime() throws Exception {
+        writer = writer(2, Duration.ofSeconds(5));
+        Recipe soup = recipe("soup");
+        Recipe stew = recipe("stew");
+        when(recipeRepository.saveAll(anyList())).thenAnswer(inv -> {
+            soup.setId(41L);
+            throw new DataIntegrityViolationException("uk_recipe_canonical_url");
+        });
+        when(recipeService.saveImported(soup)).thenAnswer(inv -> response(soup));
+        when(recipeService.saveImported(stew)).thenThrow(new IllegalStateException("disk full"));
+
+        CompletableFuture<RecipeDetailResponse> first = writer.write(soup);
+        CompletableFuture<RecipeDetailResponse> second = writer.write(stew);
+
+        assertThat(first.get(5, TimeUnit.SECONDS).url()).isEqualTo("https://example.com/soup");
+        assertThat(second).failsWithin(5, TimeUnit.SECONDS)
+                .withThrowableThat().havingCause().withMessage("disk full");
+        assertThat(soup.getId()).isNull();
+        assertThat(meterRegistry.get("recipesniper.ingest.write.fallbacks").counter().count()).isEqualTo(1);
+    }
+
+    private RecipeBatchWriter writer(int batchSize, Duration flushInterval) {
+        return new RecipeBatchWriter(recipeService, recipeRepository, canonicalUrlFilter, new ResourceVersions(),
+                new TransactionTemplate(transactionManager), meterRegistry, OpenTelemetry.noop().getTracer("test"),
+                batchSize, flushInterval, 8);
+    }
+
+    private static Recipe recipe(String name) {
+        Recipe recipe = new Recipe();
+        recipe.setUrl("https://example.com/" + name);
+        recipe.setCanonicalUrl("https://example.com/" + name);
+        recipe.setTitle(name);
+        return recipe;
+    }
+
+    private static RecipeDetailResponse response(Recipe recipe) {
+        return new RecipeDetailResponse(recipe.getId(), recipe.getUrl(), recipe.getTitle(), LocalDateTime.now(), null,
+                List.of(), RecipeDetails.EMPTY);
+    }
+}
@@ -19,32 +19,55 @@
 
 package com.recipesniper.service;
 
+import com.recipesniper.cache.CanonicalUrlFilter;
+import com.recipesniper.cache.JsonResponseCache;
+import com.recipesniper.cache.ResourceVersions;
+import com.recipesniper.cache.RecipeDetailCache;
 import com.recipesniper.dto.RecipeDetailResponse;
+import com.recipesniper.dto.RecipeDetails;
 import com.recipesniper.dto.RecipeResponse;
 import com.recipesniper.entity.Recipe;
 import com.recipesniper.entity.RecipeIngredient;
 import com.recipesniper.repository.RecipeRepository;
+import com.recipesniper.service.IngredientExtractionService.ExtractedRecipe;
 import com.recipesniper.service.IngredientExtractionService.ParsedIngredient;
 import com.recipesniper.service.ScrapingService.ScrapeResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.opentelemetry.api.OpenTelemetry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -59,12 +82,27 @@ class RecipeServiceTest {
     @Mock
     private IngredientExtractionService extractionService;
 
+    @Mock
+    private JsonResponseCache jsonResponseCache;
+
+    @Mock
+    private CanonicalUrlFilter canonicalUrlFilter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
     private RecipeService recipeService;
 
     @BeforeEach
     void setUp() {
         recipeService = new RecipeService(
-                recipeRepository, scrapingService, extractionService,
+                recipeRepository, scrapingService, extractionService, new PageArchive(tempDir, false),
+                new RecipeDetailCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry()),
+                jsonResponseCache, new ResourceVersions(), canonicalUrlFilter,
+                new TransactionTemplate(transactionManager),
                 OpenTelemetry.noop().getTracer("test"));
     }
 
@@ -73,11 +111,11 @@ class RecipeServiceTest {
         String url = "https://example.com/recipe";
         when(scrapingService.scrape(url))
                 .thenReturn(new ScrapeResult("Chocolate Cake", "<html>cake</html>", Path.of("/tmp/test.html")));
-        when(extractionService.extract(anyString()))
-                .thenReturn(List.of(
+        when(extractionService.extractRecipe(anyString(), anyString()))
+                .thenReturn(new ExtractedRecipe(List.of(
                         new ParsedIngredient("flour", "2", "cups", "2 cups flour"),
                         new ParsedIngredient("sugar", "1", "cup", "1 cup sugar")
-                ));
+                ), RecipeDetails.EMPTY));
 
         Recipe savedRecipe = new Recipe();
         savedRecipe.setId(1L);
@@ -96,6 +134,104 @@ class RecipeServiceTest {
         verify(recipeRepository).save(captor.capture());
         Recipe captured = captor.getValue();
         assertThat(captured.getIngredients()).hasSize(2);
+        assertThat(captured.getCanonicalUrl()).isEqualTo(url);
+        verify(canonicalUrlFilter).add(url);
+    }
+
+    @Test
+    void shouldReturnExistingRecipeForSameCanonicalUrlWithoutScraping() throws IOException {
+        Recipe existing = new Recipe();
+        existing.setId(4L);
+        existing.setUrl("https://example.com/recipe");
+        existing.setCanonicalUrl("https://example.com/recipe");
+        existing.setTitle("Chocolate Cake");
+        existing.setCreatedAt(LocalDateTime.now());
+        when(recipeRepository.findByCanonicalUrl("https://example.com/recipe")).thenReturn(Optional.of(existing));
+
+        RecipeDetailResponse response = recipeService.addRecipe("https://EXAMPLE.com/recipe/?utm_source=pin#top");
+
+        assertThat(response.id()).isEqualTo(4L);
+        verifyNoInteractions(scrapingService, extractionService);
+        verify(recipeRepository, never()).save(any(Recipe.class));
+    }
+
+    @Test
+    void shouldShareOneScrapeBetweenConcurrentImportsOfSameUrl() throws Exception {
+        CountDownLatch scraping = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(scrapingService.scrape("https://example.com/cake?utm_source=a")).thenAnswer(invocation -> {
+            scraping.countDown();
+            release.await();
+            return new ScrapeResult("Chocolate Cake", "<html>cake</html>", Path.of("/tmp/test.html"));
+        });
+        when(extractionService.extractRecipe(anyString(), anyString())).thenReturn(ExtractedRecipe.NONE);
+        Recipe savedRecipe = new Recipe();
+        savedRecipe.setId(5L);
+        savedRecipe.setUrl("https://example.com/cake?utm_source=a");
+        savedRecipe.setTitle("Chocolate Cake");
+        savedRecipe.setCreatedAt(LocalDateTime.now());
+        AtomicBoolean committed = new AtomicBoolean();
+        when(recipeRepository.save(any(Recipe.class))).thenAnswer(invocation -> {
+            committed.set(true);
+            return savedRecipe;
+        });
+        when(recipeRepository.findByCanonicalUrl("https://example.com/cake")).thenAnswer(invocation ->
+                committed.get() ? Optional.of(savedRecipe) : Optional.empty());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<RecipeDetailResponse> leader =
+                    executor.submit(() -> recipeService.addRecipe("https://example.com/cake?utm_source=a"));
+            assertThat(scraping.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<RecipeDetailResponse> follower =
+                    executor.submit(() -> recipeService.addRecipe("https://example.com/cake/?utm_source=b"));
+            // The follower finds no saved recipe and joins the leader's flight
+            verify(recipeRepository, timeout(5_000).times(3)).findByCanonicalUrl("https://example.com/cake");
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS).id()).isEqualTo(5L);
+            assertThat(follower.get(5, TimeUnit.SECONDS).id()).isEqualTo(5L);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        verify(scrapingService, times(1)).scrape(anyString());
+        verify(recipeRepository, times(1)).save(any(Recipe.class));
+    }
+
+    @Test
+    void shouldReuseEarlierExtractionWhenPageNotModified() throws IOException {
+        String url = "https://example.com/recipe";
+        when(scrapingService.scrape(url))
+                .thenReturn(new ScrapeResult("Chocolate Cake", "<html>cake</html>",
+                        Path.of("/tmp/test.html"), true));
+
+        Recipe earlier = new Recipe();
+        earlier.setId(1L);
+        earlier.setUrl(url);
+        earlier.setExtractorVersion(IngredientExtractionService.VERSION);
+        RecipeIngredient flour = new RecipeIngredient();
+        flour.setName("flour");
+        flour.setQuantity("2");
+        flour.setUnit("cups");
+        flour.setRawText("2 cups flour");
+        earlier.getIngredients().add(flour);
+        when(recipeRepository.findFirstByUrlOrderByIdDesc(url)).thenReturn(Optional.of(earlier));
+
+        Recipe savedRecipe = new Recipe();
+        savedRecipe.setId(2L);
+        savedRecipe.setUrl(url);
+        savedRecipe.setTitle("Chocolate Cake");
+        savedRecipe.setCreatedAt(LocalDateTime.now());
+        when(recipeRepository.save(any(Recipe.class))).thenReturn(savedRecipe);
+
+        recipeService.addRecipe(url);
+
+        ArgumentCaptor<Recipe> captor = ArgumentCaptor.forClass(Recipe.class);
+        verify(recipeRepository).save(captor.capture());
+        assertThat(captor.getValue().getIngredients()).extracting(RecipeIngredient::getName)
+                .containsExactly("flour");
+        verifyNoInteractions(extractionService);
     }
 
     @Test
@@ -130,7 +266,7 @@ class RecipeServiceTest {
         ing.setRecipe(recipe);
         recipe.getIngredients().add(ing);
 
-        when(recipeRepository.findById(1L)).thenReturn(Optional.of(recipe));
+        when(recipeRepository.findWithIngredientsById(1L)).thenReturn(Optional.of(recipe));
 
         RecipeDetailResponse response = recipeService.getRecipeById(1L);
 
@@ -139,6 +275,41 @@ class RecipeServiceTest {
         assertThat(response.ingredients().get(0).name()).isEqualTo("flour");
     }
 
+    @Test
+    void shouldServeRepeatedRecipeLookupsFromCache() {
+        Recipe recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setUrl("https://example.com/recipe");
+        recipe.setTitle("Test Recipe");
+        recipe.setCreatedAt(LocalDateTime.now());
+        when(recipeRepository.findWithIngredientsById(1L)).thenReturn(Optional.of(recipe));
+
+        RecipeDetailResponse first = recipeService.getRecipeById(1L);
+        RecipeDetailResponse second = recipeService.getRecipeById(1L);
+
+        assertThat(second).isSameAs(first);
+        verify(recipeRepository, times(1)).findWithIngredientsById(1L);
+    }
+
+    @Test
+    void shouldInvalidateCachedRecipeOnDelete() {
+        Recipe recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setUrl("https://example.com/recipe");
+        recipe.setTitle("Test Recipe");
+        recipe.setCreatedAt(LocalDateTime.now());
+        when(recipeRepository.findWithIngredientsById(1L))
+                .thenReturn(Optional.of(recipe), Optional.empty());
+        when(recipeRepository.existsById(1L)).thenReturn(true);
+
+        recipeService.getRecipeById(1L);
+        recipeService.deleteRecipe(1L);
+
+        assertThatThrownBy(() -> recipeService.getRecipeById(1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Recipe not found");
+    }
+
     @Test
     void shouldSearchRecipesByTitle() {
         Recipe recipe = new Recipe();
@@ -156,13 +327,66 @@ class RecipeServiceTest {
 
     @Test
     void shouldThrowWhenRecipeNotFound() {
-        when(recipeRepository.findById(99L)).thenReturn(Optional.empty());
+        when(recipeRepository.findWithIngredientsById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> recipeService.getRecipeById(99L))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Recipe not found");
     }
 
+    @Test
+    void shouldStorePartialExtractionWithoutVersion() {
+        ScrapeResult scraped = new ScrapeResult("Chocolate Cake", "<html>cake</html>", Path.of("/tmp/test.html"));
+        List<ParsedIngredient> flour = List.of(new ParsedIngredient("flour", "2", "cups", "2 cups flour"));
+
+        Recipe complete = RecipeService.newRecipe("https://example.com/cake", "https://example.com/cake",
+                scraped, new ExtractedRecipe(flour, RecipeDetails.EMPTY));
+        Recipe partial = RecipeService.newRecipe("https://example.com/cake", "https://example.com/cake",
+                scraped, new ExtractedRecipe(flour, RecipeDetails.EMPTY, true));
+
+        assertThat(complete.getExtractorVersion()).isEqualTo(IngredientExtractionService.VERSION);
+        assertThat(partial.getExtractorVersion()).isNull();
+        assertThat(partial.getIngredients()).hasSize(1);
+    }
+
+    @Test
+    void shouldLocateArchivedPage() throws IOException {
+        String url = "https://example.com/cake";
+        new PageArchive(tempDir, false).save(url, new ByteArrayInputStream("<html></html>".getBytes()));
+        when(recipeRepository.findUrlById(1L)).thenReturn(Optional.of(url));
+
+        PageArchive.ArchivedFile page = recipeService.getArchivedPage(1L);
+
+        assertThat(page.path()).exists();
+        assertThat(page.compressed()).isFalse();
+    }
+
+    @Test
+    void shouldRenameLegacyArchivedPagesOnStartup() throws IOException {
+        String url = "https://example.com/cake";
+        Files.writeString(tempDir.resolve(PageArchive.legacyName(url)), "<html>cake</html>");
+        when(recipeRepository.findAllUrls()).thenReturn(List.of(url));
+
+        recipeService.migrateArchivedPages();
+        recipeService.migrateArchivedPages();
+
+        assertThat(new PageArchive(tempDir, false).read(url)).contains("<html>cake</html>");
+        verify(recipeRepository, times(1)).findAllUrls();
+    }
+
+    @Test
+    void shouldThrowWhenPageNotArchived() {
+        when(recipeRepository.findUrlById(1L)).thenReturn(Optional.of("https://example.com/cake"));
+        when(recipeRepository.findUrlById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> recipeService.getArchivedPage(1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No archived page");
+        assertThatThrownBy(() -> recipeService.getArchivedPage(99L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Recipe not found");
+    }
+
     @Test
     void shouldDeleteRecipe() {
         when(recipeRepository.existsById(1L)).thenReturn(true);
@@ -170,5 +394,7 @@ class RecipeServiceTest {
         recipeService.deleteRecipe(1L);
 
         verify(recipeRepository).deleteById(1L);
+        verify(jsonResponseCache).invalidate(JsonResponseCache.recipeKey(1L));
+        verify(jsonResponseCache).invalidateShoppingLists();
     }
 }
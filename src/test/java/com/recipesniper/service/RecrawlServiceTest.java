@@ -0,0 +1,245 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.cache.JsonResponseCache;
+import com.recipesniper.cache.RecipeDetailCache;
+import com.recipesniper.cache.ResourceVersions;
+import com.recipesniper.dto.RecipeDetails;
+import com.recipesniper.entity.Recipe;
+import com.recipesniper.repository.RecipeRepository;
+import com.recipesniper.repository.RecrawlCandidate;
+import com.recipesniper.service.IngredientExtractionService.ExtractedRecipe;
+import com.recipesniper.service.IngredientExtractionService.ParsedIngredient;
+import com.recipesniper.service.RecrawlService.Outcome;
+import com.recipesniper.service.RecrawlService.RecrawlSummary;
+import com.recipesniper.service.ScrapingService.ScrapeResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RecrawlServiceTest {
+
+    private static final String URL = "https://example.com/recipes/soup";
+    private static final String HTML = "<html>soup</html>";
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private ScrapingService scrapingService;
+
+    @Mock
+    private IngredientExtractionService extractionService;
+
+    @Mock
+    private JsonResponseCache jsonResponseCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ResourceVersions resourceVersions = new ResourceVersions();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RecrawlService recrawlService;
+
+    @BeforeEach
+    void setUp() {
+        recrawlService = recrawlService(50);
+    }
+
+    @Test
+    void shouldOnlyMarkCrawledWhenContentHashIsUnchanged() throws IOException {
+        when(scrapingService.scrape(URL)).thenReturn(new ScrapeResult("Soup", HTML, Path.of("/tmp/soup.html"), true));
+
+        Outcome outcome = recrawlService.recrawl(candidate(1L, ContentHash.of(HTML), 0));
+
+        assertThat(outcome).isEqualTo(Outcome.UNCHANGED);
+        verify(recipeRepository).markCrawled(eq(1L), any(LocalDateTime.class));
+        verifyNoInteractions(extractionService);
+    }
+
+    @Test
+    void shouldReplaceIngredientsAndInvalidateCachesWhenRecipeChanged() throws IOException {
+        Recipe recipe = recipe(1L, new ParsedIngredient("salt", null, null, "salt"));
+        recipe.setRawHtmlRef("segment-000001.seg:0:120");
+        String recipesEtag = resourceVersions.recipes().etag();
+        when(scrapingService.scrape(URL)).thenReturn(new ScrapeResult("Better Soup", HTML, Path.of("/tmp/soup.html")));
+        when(extractionService.extractRecipe(HTML, URL, ContentHash.of(HTML))).thenReturn(new ExtractedRecipe(List.of(
+                new ParsedIngredient("salt", "1", "tsp", "1 tsp salt"),
+                new ParsedIngredient("leeks", "2", null, "2 leeks")), RecipeDetails.EMPTY));
+        when(recipeRepository.findWithIngredientsById(1L)).thenReturn(Optional.of(recipe));
+
+        Outcome outcome = recrawlService.recrawl(candidate(1L, "old-hash", 0));
+
+        assertThat(outcome).isEqualTo(Outcome.UPDATED);
+        assertThat(recipe.getTitle()).isEqualTo("Better Soup");
+        assertThat(recipe.getIngredients()).extracting(i -> i.getRawText()).containsExactly("1 tsp salt", "2 leeks");
+        assertThat(recipe.getContentHash()).isEqualTo(ContentHash.of(HTML));
+        assertThat(recipe.getUpdatedAt()).isNotNull();
+        // The new page is stored in the row, not the old one in cold storage
+        assertThat(recipe.getRawHtml()).isEqualTo(HTML);
+        assertThat(recipe.getRawHtmlRef()).isNull();
+        assertThat(recipe.getLastCrawledAt()).isNotNull();
+        verify(jsonResponseCache).invalidate(JsonResponseCache.recipeKey(1L));
+        verify(jsonResponseCache).invalidateShoppingLists();
+        assertThat(resourceVersions.recipes().etag()).isNotEqualTo(recipesEtag);
+    }
+
+    @Test
+    void shouldKeepRecipeWhenChangedPageExtractsTheSame() throws IOException {
+        ParsedIngredient salt = new ParsedIngredient("salt", null, null, "salt");
+        Recipe recipe = recipe(1L, salt);
+        when(scrapingService.scrape(URL)).thenReturn(new ScrapeResult("Soup", HTML, Path.of("/tmp/soup.html")));
+        when(extractionService.extractRecipe(HTML, URL, ContentHash.of(HTML)))
+                .thenReturn(new ExtractedRecipe(List.of(salt), RecipeDetails.EMPTY));
+        when(recipeRepository.findWithIngredientsById(1L)).thenReturn(Optional.of(recipe));
+
+        Outcome outcome = recrawlService.recrawl(candidate(1L, "old-hash", 0));
+
+        assertThat(outcome).isEqualTo(Outcome.REHASHED);
+        assertThat(recipe.getContentHash()).isEqualTo(ContentHash.of(HTML));
+        assertThat(recipe.getRawHtml()).isEqualTo(HTML);
+        assertThat(recipe.getPageStoredAt()).isNotNull();
+        // Nothing the API returns changed, so cached responses stay valid
+        assertThat(recipe.getUpdatedAt()).isNull();
+        verifyNoInteractions(jsonResponseCache);
+    }
+
+    @Test
+    void shouldKeepStoredIngredientsWhenExtractionFindsNone() throws IOException {
+        Recipe recipe = recipe(1L, new ParsedIngredient("salt", null, null, "salt"));
+        when(scrapingService.scrape(URL)).thenReturn(new ScrapeResult("Access denied", HTML, Path.of("/tmp/soup.html")));
+        when(extractionService.extractRecipe(HTML, URL, ContentHash.of(HTML)))
+                .thenReturn(new ExtractedRecipe(List.of(), RecipeDetails.EMPTY));
+        when(recipeRepository.findWithIngredientsById(1L)).thenReturn(Optional.of(recipe));
+
+        Outcome outcome = recrawlService.recrawl(candidate(1L, "old-hash", 0));
+
+        assertThat(outcome).isEqualTo(Outcome.FAILED);
+        assertThat(recipe.getTitle()).isEqualTo("Soup");
+        assertThat(recipe.getIngredients()).hasSize(1);
+        assertThat(recipe.getContentHash()).isEqualTo("old-hash");
+    }
+
+    @Test
+    void shouldKeepStoredIngredientsWhenExtractionIsPartial() throws IOException {
+        Recipe recipe = recipe(1L, new ParsedIngredient("salt", null, null, "salt"),
+                new ParsedIngredient("leeks", "2", null, "2 leeks"));
+        when(scrapingService.scrape(URL)).thenReturn(new ScrapeResult("Soup", HTML, Path.of("/tmp/soup.html")));
+        when(extractionService.extractRecipe(HTML, URL, ContentHash.of(HTML)))
+                .thenReturn(new ExtractedRecipe(
+                        List.of(new ParsedIngredient("salt", null, null, "salt")), RecipeDetails.EMPTY, true));
+        when(recipeRepository.findWithIngredientsById(1L)).thenReturn(Optional.of(recipe));
+
+        Outcome outcome = recrawlService.recrawl(candidate(1L, "old-hash", 0));
+
+        assertThat(outcome).isEqualTo(Outcome.FAILED);
+        assertThat(recipe.getIngredients()).extracting(i -> i.getName()).containsExactly("salt", "leeks");
+        assertThat(recipe.getContentHash()).isEqualTo("old-hash");
+        assertThat(recipe.getLastCrawledAt()).isNotNull();
+        verifyNoInteractions(jsonResponseCache);
+    }
+
+    @Test
+    void shouldMarkCrawledWhenFetchFails() throws IOException {
+        when(scrapingService.scrape(URL)).thenThrow(new IOException("HTTP 404"));
+
+        Outcome outcome = recrawlService.recrawl(candidate(1L, "old-hash", 0));
+
+        assertThat(outcome).isEqualTo(Outcome.FAILED);
+        verify(recipeRepository).markCrawled(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldSpendBudgetOnStalestMostPopularRecipes() throws IOException {
+        recrawlService = recrawlService(1);
+        LocalDateTime now = LocalDateTime.now();
+        RecrawlCandidate stalest = new RecrawlCandidate(1L, "https://example.com/recipes/a", null,
+                now.minusDays(10), 0);
+        RecrawlCandidate popular = new RecrawlCandidate(2L, URL, ContentHash.of(HTML), now.minusDays(8), 3);
+        when(recipeRepository.findRecrawlCandidates(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(stalest, popular));
+        when(scrapingService.scrape(URL)).thenReturn(new ScrapeResult("Soup", HTML, Path.of("/tmp/soup.html"), true));
+
+        RecrawlSummary summary = recrawlService.recrawl();
+
+        assertThat(summary).isEqualTo(new RecrawlSummary(1, 0, 0, 0));
+        verify(scrapingService, never()).scrape("https://example.com/recipes/a");
+        assertThat(meterRegistry.get("recipesniper.recrawl.recipes").tag("outcome", "unchanged").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldWeighPopularityAgainstAge() {
+        LocalDateTime now = LocalDateTime.now();
+
+        double unpopular = RecrawlService.priority(new RecrawlCandidate(1L, URL, null, now.minusDays(10), 0), now);
+        double popular = RecrawlService.priority(new RecrawlCandidate(2L, URL, null, now.minusDays(8), 1), now);
+
+        assertThat(popular).isGreaterThan(unpopular);
+    }
+
+    private RecrawlService recrawlService(int budget) {
+        return new RecrawlService(recipeRepository, scrapingService, extractionService,
+                new RecipeDetailCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry()),
+                jsonResponseCache, resourceVersions, new TransactionTemplate(transactionManager),
+                meterRegistry, OpenTelemetry.noop().getTracer("test"),
+                true, Duration.ofDays(7), budget);
+    }
+
+    private static RecrawlCandidate candidate(Long id, String contentHash, long popularity) {
+        return new RecrawlCandidate(id, URL, contentHash, LocalDateTime.now().minusDays(30), popularity);
+    }
+
+    private static Recipe recipe(Long id, ParsedIngredient... ingredients) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setUrl(URL);
+        recipe.setTitle("Soup");
+        recipe.setContentHash("old-hash");
+        recipe.setCreatedAt(LocalDateTime.now().minusDays(30));
+        RecipeService.addIngredients(recipe, List.of(ingredients));
+        return recipe;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.cache.JsonResponseCache;
+import com.recipesniper.cache.RecipeDetailCache;
+import com.recipesniper.cache.ResourceVersions;
+import com.recipesniper.dto.RecipeDetails;
+import com.recipesniper.dto.ReextractionStatusResponse;
+import com.recipesniper.entity.Recipe;
+import com.recipesniper.repository.RecipeRepository;
+import com.recipesniper.repository.StoredPage;
+import com.recipesniper.service.IngredientExtractionService.ExtractedRecipe;
+import com.recipesniper.service.IngredientExtractionService.ParsedIngredient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReextractionServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private IngredientExtractionService extractionService;
+
+    @Mock
+    private JsonResponseCache jsonResponseCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PageArchive pageArchive;
+    private ColdPageStore coldPageStore;
+    private ReextractionService reextractionService;
+
+    @BeforeEach
+    void setUp() {
+        pageArchive = new PageArchive(tempDir, false);
+        coldPageStore = new ColdPageStore(tempDir.resolve("segments"), DataSize.ofMegabytes(1), meterRegistry);
+        reextractionService = new ReextractionService(recipeRepository, extractionService, pageArchive, coldPageStore,
+                new RecipeDetailCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry()),
+                jsonResponseCache, new ResourceVersions(), new TransactionTemplate(transactionManager),
+                meterRegistry, OpenTelemetry.noop().getTracer("test"), 2, 2);
+    }
+
+    @Test
+    void shouldReadPagesMovedToColdStorage() throws IOException {
+        ParsedIngredient salt = new ParsedIngredient("salt", "1", "tsp", "1 tsp salt");
+        Recipe soup = recipe(1L, "https://example.com/soup", salt);
+        String ref = coldPageStore.append(List.of("<html>soup</html>")).getFirst();
+
+        when(recipeRepository.findIdsExtractedBefore(IngredientExtractionService.VERSION)).thenReturn(List.of(1L));
+        when(recipeRepository.findStoredPages(List.of(1L)))
+                .thenReturn(List.of(new StoredPage(1L, soup.getUrl(), null, ref)));
+        when(recipeRepository.findWithIngredientsByIdIn(List.of(1L))).thenReturn(List.of(soup));
+        when(extractionService.extractRecipe("<html>soup</html>", soup.getUrl()))
+                .thenReturn(new ExtractedRecipe(List.of(salt), RecipeDetails.EMPTY));
+
+        ReextractionStatusResponse status = reextractionService.reextract();
+
+        assertThat(status.unchanged()).isEqualTo(1);
+        assertThat(status.missing()).isZero();
+        assertThat(soup.getExtractorVersion()).isEqualTo(IngredientExtractionService.VERSION);
+    }
+
+    @Test
+    void shouldReextractStoredPagesAndRecordVersion() throws IOException {
+        ParsedIngredient salt = new ParsedIngredient("salt", "1", "tsp", "1 tsp salt");
+        ParsedIngredient leeks = new ParsedIngredient("leeks", "2", null, "2 leeks");
+        Recipe soup = recipe(1L, "https://example.com/soup", salt);
+        Recipe stew = recipe(2L, "https://example.com/stew", salt);
+        Recipe bread = recipe(3L, "https://example.com/bread", salt);
+        pageArchive.save(stew.getUrl(), new ByteArrayInputStream("<html>stew</html>".getBytes(StandardCharsets.UTF_8)));
+
+        when(recipeRepository.findIdsExtractedBefore(IngredientExtractionService.VERSION))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(recipeRepository.findStoredPages(List.of(1L, 2L))).thenReturn(List.of(
+                new StoredPage(1L, soup.getUrl(), "<html>soup</html>", null),
+                new StoredPage(2L, stew.getUrl(), null, null)));
+        when(recipeRepository.findStoredPages(List.of(3L))).thenReturn(List.of(
+                new StoredPage(3L, bread.getUrl(), null, null)));
+        when(recipeRepository.findWithIngredientsByIdIn(List.of(1L, 2L))).thenReturn(List.of(soup, stew));
+        when(recipeRepository.findWithIngredientsByIdIn(List.of(3L))).thenReturn(List.of(bread));
+        RecipeDetails soupDetails = new RecipeDetails("4 bowls", 10, 40, 50, List.of("Simmer."), null, null);
+        when(extractionService.extractRecipe("<html>soup</html>", soup.getUrl()))
+                .thenReturn(new ExtractedRecipe(List.of(salt, leeks), soupDetails));
+        when(extractionService.extractRecipe("<html>stew</html>", stew.getUrl()))
+                .thenReturn(new ExtractedRecipe(List.of(salt), RecipeDetails.EMPTY));
+
+        ReextractionStatusResponse status = reextractionService.reextract();
+
+        assertThat(status.state()).isEqualTo("COMPLETED");
+        assertThat(status.total()).isEqualTo(3);
+        assertThat(status.processed()).isEqualTo(3);
+        assertThat(status.updated()).isEqualTo(1);
+        assertThat(status.unchanged()).isEqualTo(1);
+        assertThat(status.missing()).isEqualTo(1);
+        assertThat(soup.getIngredients()).extracting(i -> i.getRawText()).containsExactly("1 tsp salt", "2 leeks");
+        assertThat(soup.getDetails()).isEqualTo(soupDetails);
+        assertThat(soup.getExtractorVersion()).isEqualTo(IngredientExtractionService.VERSION);
+        assertThat(stew.getExtractorVersion()).isEqualTo(IngredientExtractionService.VERSION);
+        assertThat(bread.getExtractorVersion()).isNull();
+        verify(jsonResponseCache).invalidate(JsonResponseCache.recipeKey(1L));
+        verify(jsonResponseCache, never()).invalidate(JsonResponseCache.recipeKey(2L));
+        assertThat(meterRegistry.get("recipesniper.reextraction.recipes").tag("outcome", "updated").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepStoredIngredientsWhenExtractorFindsNone() {
+        Recipe soup = recipe(1L, "https://example.com/soup", new ParsedIngredient("salt", null, null, "salt"));
+        when(recipeRepository.findIdsExtractedBefore(IngredientExtractionService.VERSION)).thenReturn(List.of(1L));
+        when(recipeRepository.findStoredPages(List.of(1L)))
+                .thenReturn(List.of(new StoredPage(1L, soup.getUrl(), "<html>blocked</html>", null)));
+        when(recipeRepository.findWithIngredientsByIdIn(List.of(1L))).thenReturn(List.of(soup));
+        when(extractionService.extractRecipe("<html>blocked</html>", soup.getUrl()))
+                .thenReturn(new ExtractedRecipe(List.of(), RecipeDetails.EMPTY));
+
+        ReextractionStatusResponse status = reextractionService.reextract();
+
+        assertThat(status.kept()).isEqualTo(1);
+        assertThat(soup.getIngredients()).hasSize(1);
+        assertThat(soup.getExtractorVersion()).isEqualTo(IngredientExtractionService.VERSION);
+    }
+
+    @Test
+    void shouldKeepStoredIngredientsAndRetryWhenExtractionIsPartial() {
+        Recipe soup = recipe(1L, "https://example.com/soup", new ParsedIngredient("salt", null, null, "salt"));
+        when(recipeRepository.findIdsExtractedBefore(IngredientExtractionService.VERSION)).thenReturn(List.of(1L));
+        when(recipeRepository.findStoredPages(List.of(1L)))
+                .thenReturn(List.of(new StoredPage(1L, soup.getUrl(), "<html>huge</html>", null)));
+        when(recipeRepository.findWithIngredientsByIdIn(List.of(1L))).thenReturn(List.of(soup));
+        when(extractionService.extractRecipe("<html>huge</html>", soup.getUrl()))
+                .thenReturn(new ExtractedRecipe(List.of(), RecipeDetails.EMPTY, true));
+
+        ReextractionStatusResponse status = reextractionService.reextract();
+
+        assertThat(status.kept()).isEqualTo(1);
+        assertThat(soup.getIngredients()).hasSize(1);
+        assertThat(soup.getExtractorVersion()).isNull();
+    }
+
+    @Test
+    void shouldReportLastRunStatus() {
+        when(recipeRepository.findIdsExtractedBefore(IngredientExtractionService.VERSION)).thenReturn(List.of());
+
+        assertThat(reextractionService.getStatus()).isEmpty();
+        reextractionService.reextract();
+
+        assertThat(reextractionService.getStatus()).get()
+                .extracting(ReextractionStatusResponse::state).isEqualTo("COMPLETED");
+    }
+
+    private static Recipe recipe(Long id, String url, ParsedIngredient... ingredients) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setUrl(url);
+        recipe.setTitle("Recipe " + id);
+        recipe.setCreatedAt(LocalDateTime.now());
+        RecipeService.addIngredients(recipe, List.of(ingredients));
+        return recipe;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.config.ScrapeProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exercises retries and hedging against a local HTTP server that answers
+ * each path from a script of delays and statuses.
+ */
+class ScrapingServiceHttpTest {
+
+    private static final String HTML =
+            "<html><head><title>Stub Recipe</title></head><body>content</body></html>";
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<String, List<Reply>> scripts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private HttpServer server;
+    private MeterRegistry meterRegistry;
+    private ScrapeProperties properties;
+    private ScrapingService scrapingService;
+
+    private record Reply(int status, long delayMillis, String... headers) {
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ScrapeProperties();
+        properties.getDefaults().setRetryBackoff(Duration.ofMillis(1));
+        scrapingService = new ScrapingService(
+                OpenTelemetry.noop().getTracer("test"),
+                new PageArchive(tempDir, false),
+                new PageStripper(PageStripper.Mode.FULL, new SiteAdapterRegistry(List.of())),
+                meterRegistry,
+                DataSize.ofMegabytes(1),
+                properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldRetryTransientStatusesHonouringRetryAfter() throws Exception {
+        script("/flaky", new Reply(503, 0, "Retry-After", "0"), new Reply(502, 0), new Reply(200, 0));
+
+        ScrapingService.ScrapeResult result = scrapingService.scrape(url("/flaky"));
+
+        assertThat(result.title()).isEqualTo("Stub Recipe");
+        assertThat(hits("/flaky")).isEqualTo(3);
+        assertThat(meterRegistry.get("recipesniper.scrape.retries").tag("reason", "503").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldRetryRequestThatTimesOut() throws Exception {
+        properties.getDefaults().setRequestTimeout(Duration.ofMillis(200));
+        script("/stall", new Reply(200, 2_000), new Reply(200, 0));
+
+        ScrapingService.ScrapeResult result = scrapingService.scrape(url("/stall"));
+
+        assertThat(result.title()).isEqualTo("Stub Recipe");
+        assertThat(hits("/stall")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        script("/down", new Reply(503, 0));
+
+        assertThatThrownBy(() -> scrapingService.scrape(url("/down")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("HTTP 503");
+        assertThat(hits("/down")).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotRetryClientErrorsOrLongRetryAfter() {
+        script("/missing", new Reply(404, 0));
+        script("/busy", new Reply(429, 0, "Retry-After", "120"));
+
+        assertThatThrownBy(() -> scrapingService.scrape(url("/missing"))).hasMessageContaining("HTTP 404");
+        assertThatThrownBy(() -> scrapingService.scrape(url("/busy"))).hasMessageContaining("HTTP 429");
+        assertThat(hits("/missing")).isEqualTo(1);
+        assertThat(hits("/busy")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStopRetryingWhenBudgetIsSpent() {
+        properties.getDefaults().setRetryBudgetReserve(1);
+        properties.getDefaults().setRetryBudgetRatio(0.0);
+        script("/down", new Reply(500, 0));
+
+        assertThatThrownBy(() -> scrapingService.scrape(url("/down"))).hasMessageContaining("HTTP 500");
+        assertThat(hits("/down")).isEqualTo(2);
+        assertThat(meterRegistry.get("recipesniper.scrape.retry.budget.exhausted").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldHedgeRequestSlowerThanHostP95() throws Exception {
+        properties.getDefaults().setHedgeRequests(true);
+        properties.getDefaults().setHedgeMinDelay(Duration.ofMillis(50));
+        properties.getDefaults().setRetryBudgetReserve(100);
+        script("/fast", new Reply(200, 0));
+        for (int i = 0; i < LatencyTracker.MIN_SAMPLES; i++) {
+            scrapingService.scrape(url("/fast"));
+        }
+        script("/tail", new Reply(200, 5_000), new Reply(200, 0));
+
+        long start = System.nanoTime();
+        ScrapingService.ScrapeResult result = scrapingService.scrape(url("/tail"));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(result.title()).isEqualTo("Stub Recipe");
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(2));
+        assertThat(hits("/tail")).isEqualTo(2);
+        assertThat(meterRegistry.get("recipesniper.scrape.hedges").counter().count()).isEqualTo(1);
+    }
+
+    private void script(String path, Reply... replies) {
+        scripts.put(path, List.of(replies));
+    }
+
+    private int hits(String path) {
+        return hits.getOrDefault(path, new AtomicInteger()).get();
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        List<Reply> replies = scripts.getOrDefault(path, List.of(new Reply(404, 0)));
+        int attempt = hits.computeIfAbsent(path, p -> new AtomicInteger()).getAndIncrement();
+        Reply reply = replies.get(Math.min(attempt, replies.size() - 1));
+        try {
+            Thread.sleep(reply.delayMillis());
+            for (int i = 0; i < reply.headers().length; i += 2) {
+                exchange.getResponseHeaders().add(reply.headers()[i], reply.headers()[i + 1]);
+            }
+            byte[] body = reply.status() == 200 ? HTML.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            exchange.sendResponseHeaders(reply.status(), body.length > 0 ? body.length : -1);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -19,57 +19,99 @@
 
 package com.recipesniper.service;
 
+import com.recipesniper.config.ScrapeProperties;
+import com.recipesniper.config.ScrapeProperties.FetchProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.opentelemetry.api.OpenTelemetry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class ScrapingServiceTest {
 
+    private static final String HTML =
+            "<html><head><title>Test Recipe</title></head><body>content</body></html>";
+
     @Mock
     private HttpClient httpClient;
 
     @Mock
-    private HttpResponse<String> httpResponse;
+    private HttpResponse<InputStream> httpResponse;
 
     @TempDir
     Path tempDir;
 
+    private MeterRegistry meterRegistry;
+    private ScrapeProperties properties;
     private ScrapingService scrapingService;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ScrapeProperties();
+        properties.getDefaults().setRetryBackoff(Duration.ofMillis(1));
         scrapingService = new ScrapingService(
                 OpenTelemetry.noop().getTracer("test"),
-                httpClient,
-                tempDir);
+                profile -> httpClient,
+                new PageArchive(tempDir, false),
+                new PageStripper(PageStripper.Mode.FULL, new SiteAdapterRegistry(List.of())),
+                meterRegistry,
+                DataSize.ofKilobytes(4),
+                properties);
     }
 
     @Test
     void shouldDownloadSaveAndParseHtml() throws Exception {
         String url = "https://example.com/recipe";
-        String html = "<html><head><title>Test Recipe</title></head><body>content</body></html>";
 
-        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
-                .thenReturn(httpResponse);
+        when(httpClient.send(any(HttpRequest.class), anyHandler())).thenReturn(httpResponse);
         when(httpResponse.statusCode()).thenReturn(200);
-        when(httpResponse.body()).thenReturn(html);
+        when(httpResponse.headers()).thenReturn(headers());
+        when(httpResponse.body()).thenReturn(body(HTML.getBytes(StandardCharsets.UTF_8)));
 
         ScrapingService.ScrapeResult result = scrapingService.scrape(url);
 
@@ -77,6 +119,344 @@ class ScrapingServiceTest {
         assertThat(result.html()).contains("content");
         assertThat(result.savedFile()).exists();
         assertThat(result.savedFile().getParent()).isEqualTo(tempDir);
+        assertThat(result.notModified()).isFalse();
+    }
+
+    @Test
+    void shouldNegotiateAndDecodeGzip() throws Exception {
+        String url = "https://example.com/recipe";
+        byte[] gzipped = gzip(HTML.getBytes(StandardCharsets.UTF_8));
+
+        when(httpClient.send(any(HttpRequest.class), anyHandler())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.headers()).thenReturn(headers("Content-Encoding", "gzip"));
+        when(httpResponse.body()).thenReturn(body(gzipped));
+
+        ScrapingService.ScrapeResult result = scrapingService.scrape(url);
+
+        ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).send(captor.capture(), anyHandler());
+        assertThat(captor.getValue().headers().firstValue("Accept-Encoding")).hasValue("gzip, deflate");
+        assertThat(result.title()).isEqualTo("Test Recipe");
+        assertThat(meterRegistry.get("recipesniper.scrape.wire.bytes")
+                .tag("host", "example.com").tag("encoding", "gzip")
+                .summary().totalAmount()).isEqualTo(gzipped.length);
+        assertThat(meterRegistry.get("recipesniper.scrape.decoded.bytes")
+                .tag("host", "example.com")
+                .summary().totalAmount()).isEqualTo(HTML.length());
+    }
+
+    @Test
+    void shouldDecodeZlibAndRawDeflate() throws Exception {
+        byte[] html = HTML.getBytes(StandardCharsets.UTF_8);
+
+        try (InputStream zlib = ScrapingService.decode(body(deflate(html, false)), "deflate");
+             InputStream raw = ScrapingService.decode(body(deflate(html, true)), "deflate")) {
+            assertThat(zlib.readAllBytes()).isEqualTo(html);
+            assertThat(raw.readAllBytes()).isEqualTo(html);
+        }
+    }
+
+    @Test
+    void shouldRejectUnsupportedContentEncoding() {
+        assertThatThrownBy(() -> ScrapingService.decode(body(new byte[0]), "br"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("br");
+    }
+
+    @Test
+    void shouldRevalidateWithStoredValidatorsAndReuseArchiveOn304() throws Exception {
+        String url = "https://example.com/recipe";
+
+        when(httpClient.send(any(HttpRequest.class), anyHandler())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200, 304);
+        when(httpResponse.headers()).thenReturn(
+                headers("ETag", "\"v1\"", "Last-Modified", "Wed, 01 Jan 2026 00:00:00 GMT"),
+                headers());
+        when(httpResponse.body()).thenReturn(body(HTML.getBytes(StandardCharsets.UTF_8)), body(new byte[0]));
+
+        scrapingService.scrape(url);
+        ScrapingService.ScrapeResult result = scrapingService.scrape(url);
+
+        ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient, times(2)).send(captor.capture(), anyHandler());
+        HttpRequest revalidation = captor.getAllValues().get(1);
+        assertThat(revalidation.headers().firstValue("If-None-Match")).hasValue("\"v1\"");
+        assertThat(revalidation.headers().firstValue("If-Modified-Since"))
+                .hasValue("Wed, 01 Jan 2026 00:00:00 GMT");
+        assertThat(result.notModified()).isTrue();
+        assertThat(result.title()).isEqualTo("Test Recipe");
+    }
+
+    @Test
+    void shouldSkipNetworkWhileArchivedPageIsFresh() throws Exception {
+        String url = "https://example.com/recipe";
+
+        when(httpClient.send(any(HttpRequest.class), anyHandler())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.headers()).thenReturn(headers("Cache-Control", "public, max-age=3600"));
+        when(httpResponse.body()).thenReturn(body(HTML.getBytes(StandardCharsets.UTF_8)));
+
+        scrapingService.scrape(url);
+        ScrapingService.ScrapeResult result = scrapingService.scrape(url);
+
+        verify(httpClient, times(1)).send(any(HttpRequest.class), anyHandler());
+        assertThat(result.notModified()).isTrue();
+        assertThat(result.html()).contains("content");
+    }
+
+    @Test
+    void shouldArchiveGzippedAndStoreStrippedPage() throws Exception {
+        String url = "https://example.com/recipe";
+        String page = "<html><head><title>Test Recipe</title><script>track()</script></head><body>"
+                + "<nav>Home</nav><div class=\"ingredients\"><ul><li>1 cup flour</li></ul></div>"
+                + "<footer>About</footer></body></html>";
+        scrapingService = new ScrapingService(
+                OpenTelemetry.noop().getTracer("test"),
+                profile -> httpClient,
+                new PageArchive(tempDir, true),
+                new PageStripper(PageStripper.Mode.STRIPPED, new SiteAdapterRegistry(List.of())),
+                meterRegistry,
+                DataSize.ofKilobytes(4),
+                properties);
+
+        when(httpClient.send(any(HttpRequest.class), anyHandler())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.headers()).thenReturn(headers("Cache-Control", "public, max-age=3600"));
+        when(httpResponse.body()).thenReturn(body(page.getBytes(StandardCharsets.UTF_8)));
+
+        ScrapingService.ScrapeResult result = scrapingService.scrape(url);
+
+        assertThat(result.savedFile().getFileName().toString()).endsWith(".html.gz");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(result.savedFile()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(page);
+        }
+        assertThat(result.html()).contains("Home", "track()");
+        assertThat(result.storedHtml())
+                .contains("<title>Test Recipe</title>", "1 cup flour")
+                .doesNotContain("Home", "About", "track()");
+
+        // The fresh copy is read back from the gzipped archive
+        ScrapingService.ScrapeResult cached = scrapingService.scrape(url);
+        assertThat(cached.notModified()).isTrue();
+        assertThat(cached.html()).isEqualTo(result.html());
+    }
+
+    @Test
+    void shouldSniffMetaCharsetWhenHeaderHasNone() throws Exception {
+        String url = "https://example.com/creme";
+        String latin1 = "<html><head><meta charset=\"ISO-8859-1\"><title>Crème brûlée</title></head>"
+                + "<body>crème</body></html>";
+
+        when(httpClient.send(any(HttpRequest.class), anyHandler())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.headers()).thenReturn(headers("Content-Type", "text/html"));
+        when(httpResponse.body()).thenReturn(body(latin1.getBytes(StandardCharsets.ISO_8859_1)));
+
+        ScrapingService.ScrapeResult result = scrapingService.scrape(url);
+
+        assertThat(result.title()).isEqualTo("Crème brûlée");
+        assertThat(result.savedFile()).hasBinaryContent(latin1.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void shouldPreferHeaderCharsetAndRememberItForTheArchive() throws Exception {
+        String url = "https://example.com/creme";
+        String latin1 = "<html><head><title>Crème brûlée</title></head><body>crème</body></html>";
+
+        when(httpClient.send(any(HttpRequest.class), anyHandler())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.headers()).thenReturn(headers(
+                "Content-Type", "text/html; charset=ISO-8859-1",
+                "Cache-Control", "max-age=3600"));
+        when(httpResponse.body()).thenReturn(body(latin1.getBytes(StandardCharsets.ISO_8859_1)));
+
+        scrapingService.scrape(url);
+        ScrapingService.ScrapeResult result = scrapingService.scrape(url);
+
+        verify(httpClient, times(1)).send(any(HttpRequest.class), anyHandler());
+        assertThat(result.notModified()).isTrue();
+        assertThat(result.title()).isEqualTo("Crème brûlée");
+    }
+
+    @Test
+    void shouldAbortWhenContentLengthExceedsLimit() throws Exception {
+        String url = "https://example.com/huge";
+        InputStream body = spy(body(new byte[0]));
+
+        when(httpClient.send(any(HttpRequest.class), anyHandler())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.headers()).thenReturn(headers("Content-Length", "1000000"));
+        when(httpResponse.body()).thenReturn(body);
+
+        assertThatThrownBy(() -> scrapingService.scrape(url))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("exceeds limit");
+        verify(body, never()).read(any(byte[].class), anyInt(), anyInt());
+        verify(body).close();
+        assertThat(meterRegistry.get("recipesniper.scrape.aborted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAbortWhenDecodedBodyExceedsLimitAndKeepPreviousCopy() throws Exception {
+        String url = "https://example.com/bomb";
+        byte[] expanded = ("<html>" + "x".repeat(64 * 1024) + "</html>").getBytes(StandardCharsets.UTF_8);
+
+        when(httpClient.send(any(HttpRequest.class), anyHandler())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.headers()).thenReturn(headers(), headers("Content-Encoding", "gzip"));
+        when(httpResponse.body()).thenReturn(body(HTML.getBytes(StandardCharsets.UTF_8)), body(gzip(expanded)));
+
+        Path archived = scrapingService.scrape(url).savedFile();
+
+        assertThatThrownBy(() -> scrapingService.scrape(url))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("exceeds limit");
+        assertThat(archived).content().isEqualTo(HTML);
+        assertThat(tempDir).isDirectoryNotContaining("glob:**.part");
+    }
+
+    @Test
+    void shouldApplyHostProfileToRequests() throws Exception {
+        FetchProfile slow = new FetchProfile();
+        slow.setRequestTimeout(Duration.ofSeconds(90));
+        slow.setHeaders(Map.of("Accept-Language", "de-DE"));
+        properties.getHosts().put("example.com", slow);
+
+        when(httpClient.send(any(HttpRequest.class), anyHandler())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.headers()).thenReturn(headers());
+        when(httpResponse.body()).thenReturn(body(HTML.getBytes(StandardCharsets.UTF_8)));
+
+        scrapingService.scrape("https://www.example.com/recipe");
+
+        ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).send(captor.capture(), anyHandler());
+        assertThat(captor.getValue().timeout()).hasValue(Duration.ofSeconds(90));
+        assertThat(captor.getValue().headers().allValues("Accept-Language")).containsExactly("de-DE");
+        assertThat(captor.getValue().headers().firstValue("Accept-Encoding")).hasValue("gzip, deflate");
+    }
+
+    @Test
+    void shouldRejectScrapesBeyondTheHostBulkhead() throws Exception {
+        FetchProfile single = new FetchProfile();
+        single.setMaxConcurrent(1);
+        single.setAcquireTimeout(Duration.ZERO);
+        properties.getHosts().put("slow.example", single);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        InputStream stalled = new FilterInputStream(body(HTML.getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return super.read(b, off, len);
+            }
+        };
+
+        when(httpClient.send(any(HttpRequest.class), anyHandler())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.headers()).thenReturn(headers());
+        when(httpResponse.body()).thenReturn(stalled, body(HTML.getBytes(StandardCharsets.UTF_8)));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ScrapingService.ScrapeResult> first =
+                    executor.submit(() -> scrapingService.scrape("https://slow.example/one"));
+            assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> scrapingService.scrape("https://slow.example/two"))
+                    .isInstanceOf(HostUnavailableException.class)
+                    .hasMessageContaining("Too many concurrent downloads");
+            ScrapingService.ScrapeResult other = scrapingService.scrape("https://fast.example/one");
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).title()).isEqualTo("Test Recipe");
+            assertThat(other.title()).isEqualTo("Test Recipe");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertThat(meterRegistry.get("recipesniper.scrape.bulkhead.rejected")
+                .tag("host", "slow.example").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("recipesniper.scrape.bulkhead.available")
+                .tag("host", "slow.example").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRefuseRecentlyRejectedUrlWithoutNetwork() throws Exception {
+        String url = "https://example.com/missing";
+
+        when(httpClient.send(any(HttpRequest.class), anyHandler())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(404);
+        when(httpResponse.body()).thenReturn(body(new byte[0]));
+
+        assertThatThrownBy(() -> scrapingService.scrape(url)).hasMessageContaining("404");
+        assertThatThrownBy(() -> scrapingService.scrape(url))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("HTTP 404 when recently fetching");
+        verify(httpClient, times(1)).send(any(HttpRequest.class), anyHandler());
+    }
+
+    @Test
+    void shouldOpenBreakerAfterConsecutiveHostFailures() throws Exception {
+        properties.getDefaults().setBreakerFailureThreshold(2);
+        properties.getDefaults().setMaxAttempts(1);
+
+        when(httpClient.send(any(HttpRequest.class), anyHandler()))
+                .thenThrow(new HttpConnectTimeoutException("connect timed out"));
+
+        assertThatThrownBy(() -> scrapingService.scrape("https://down.example/a")).hasMessageContaining("timed out");
+        assertThatThrownBy(() -> scrapingService.scrape("https://down.example/b")).hasMessageContaining("timed out");
+        assertThatThrownBy(() -> scrapingService.scrape("https://down.example/c"))
+                .isInstanceOf(HostUnavailableException.class)
+                .hasMessageContaining("down.example is failing");
+
+        verify(httpClient, times(2)).send(any(HttpRequest.class), anyHandler());
+        assertThat(meterRegistry.get("recipesniper.scrape.breaker.state")
+                .tag("host", "down.example").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("recipesniper.scrape.breaker.rejected")
+                .tag("host", "down.example").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReopenBreakerWhenProbeFailsBeforeSending() throws Exception {
+        FetchProfile defaults = properties.getDefaults();
+        defaults.setBreakerFailureThreshold(1);
+        defaults.setBreakerOpenDuration(Duration.ZERO);
+        defaults.setMaxAttempts(1);
+
+        when(httpClient.send(any(HttpRequest.class), anyHandler()))
+                .thenThrow(new HttpConnectTimeoutException("connect timed out"))
+                .thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.headers()).thenReturn(headers());
+        when(httpResponse.body()).thenReturn(body(HTML.getBytes(StandardCharsets.UTF_8)));
+
+        assertThatThrownBy(() -> scrapingService.scrape("https://flaky.example/a"))
+                .hasMessageContaining("timed out");
+
+        // HttpRequest.Builder refuses restricted headers, failing the probe before it is sent
+        defaults.setHeaders(Map.of("Connection", "close"));
+        assertThatThrownBy(() -> scrapingService.scrape("https://flaky.example/b"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        defaults.setHeaders(Map.of());
+        assertThat(scrapingService.scrape("https://flaky.example/c").title()).isEqualTo("Test Recipe");
+        assertThat(meterRegistry.get("recipesniper.scrape.breaker.state")
+                .tag("host", "flaky.example").gauge().value()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldParseMaxAgeFromCacheControl() {
+        assertThat(ScrapingService.maxAgeOf("public, max-age=600")).isEqualTo(Duration.ofMinutes(10));
+        assertThat(ScrapingService.maxAgeOf("no-cache, max-age=600")).isNull();
+        assertThat(ScrapingService.maxAgeOf("private")).isNull();
     }
 
     @Test
@@ -89,9 +469,9 @@ class ScrapingServiceTest {
     void shouldThrowOnHttpError() throws Exception {
         String url = "https://example.com/bad";
 
-        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
-                .thenReturn(httpResponse);
+        when(httpClient.send(any(HttpRequest.class), anyHandler())).thenReturn(httpResponse);
         when(httpResponse.statusCode()).thenReturn(403);
+        when(httpResponse.body()).thenReturn(body(new byte[0]));
 
         assertThatThrownBy(() -> scrapingService.scrape(url))
                 .isInstanceOf(IOException.class)
@@ -102,11 +482,43 @@ class ScrapingServiceTest {
     void shouldThrowOnConnectionFailure() throws Exception {
         String url = "https://example.com/fail";
 
-        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+        when(httpClient.send(any(HttpRequest.class), anyHandler()))
                 .thenThrow(new IOException("Connection refused"));
 
         assertThatThrownBy(() -> scrapingService.scrape(url))
                 .isInstanceOf(IOException.class)
                 .hasMessageContaining("Connection refused");
     }
+
+    private static HttpResponse.BodyHandler<InputStream> anyHandler() {
+        return any();
+    }
+
+    private static InputStream body(byte[] bytes) {
+        return new ByteArrayInputStream(bytes);
+    }
+
+    private static HttpHeaders headers(String... nameValues) {
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        for (int i = 0; i < nameValues.length; i += 2) {
+            map.put(nameValues[i], List.of(nameValues[i + 1]));
+        }
+        return HttpHeaders.of(map, (name, value) -> true);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] bytes, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, new Deflater(6, raw))) {
+            deflate.write(bytes);
+        }
+        return out.toByteArray();
+    }
 }
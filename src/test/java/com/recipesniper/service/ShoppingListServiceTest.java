@@ -19,6 +19,9 @@
 
 package com.recipesniper.service;
 
+import com.recipesniper.cache.JsonResponseCache;
+import com.recipesniper.cache.ResourceVersions;
+import com.recipesniper.dto.RecipeResponse;
 import com.recipesniper.dto.ShoppingListDetailResponse;
 import com.recipesniper.dto.ShoppingListResponse;
 import com.recipesniper.dto.UpdateShoppingListRequest;
@@ -55,12 +58,15 @@ class ShoppingListServiceTest {
     @Mock
     private RecipeRepository recipeRepository;
 
+    @Mock
+    private JsonResponseCache jsonResponseCache;
+
     private ShoppingListService shoppingListService;
 
     @BeforeEach
     void setUp() {
         shoppingListService = new ShoppingListService(
-                shoppingListRepository, recipeRepository,
+                shoppingListRepository, recipeRepository, jsonResponseCache, new ResourceVersions(),
                 OpenTelemetry.noop().getTracer("test"));
     }
 
@@ -201,17 +207,21 @@ class ShoppingListServiceTest {
         item.setShoppingList(list);
         list.getItems().add(item);
 
-        when(shoppingListRepository.findById(1L)).thenReturn(Optional.of(list));
+        when(shoppingListRepository.findWithItemsById(1L)).thenReturn(Optional.of(list));
+        when(recipeRepository.findSummariesByShoppingListId(1L)).thenReturn(List.of(
+                new RecipeResponse(1L, "https://example.com/cake", "Cake", 3, LocalDateTime.now())));
 
         ShoppingListDetailResponse response = shoppingListService.getShoppingListById(1L);
 
         assertThat(response.name()).isEqualTo("Weekly");
         assertThat(response.items()).hasSize(1);
+        assertThat(response.recipes()).hasSize(1);
+        assertThat(response.recipes().get(0).ingredientCount()).isEqualTo(3);
     }
 
     @Test
     void shouldThrowWhenShoppingListNotFound() {
-        when(shoppingListRepository.findById(99L)).thenReturn(Optional.empty());
+        when(shoppingListRepository.findWithItemsById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> shoppingListService.getShoppingListById(99L))
                 .isInstanceOf(IllegalArgumentException.class);
@@ -224,6 +234,7 @@ class ShoppingListServiceTest {
         shoppingListService.deleteShoppingList(1L);
 
         verify(shoppingListRepository).deleteById(1L);
+        verify(jsonResponseCache).invalidate(JsonResponseCache.shoppingListKey(1L));
     }
 
     @Test
@@ -257,6 +268,7 @@ class ShoppingListServiceTest {
         verify(shoppingListRepository).save(captor.capture());
         ShoppingList captured = captor.getValue();
         assertThat(captured.getName()).isEqualTo("Updated Weekly");
+        verify(jsonResponseCache).invalidate(JsonResponseCache.shoppingListKey(1L));
         assertThat(captured.getItems()).hasSize(2);
         assertThat(captured.getItems().get(0).getName()).isEqualTo("butter");
         assertThat(captured.getItems().get(1).getName()).isEqualTo("eggs");
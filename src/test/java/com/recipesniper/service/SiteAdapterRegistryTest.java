@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.service.IngredientExtractionService.ParsedIngredient;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SiteAdapterRegistryTest {
+
+    @Test
+    void shouldMatchHostAndItsSubdomains() {
+        SiteAdapter portal = adapter("portal", "example.com");
+        SiteAdapterRegistry registry = new SiteAdapterRegistry(List.of(portal));
+
+        assertThat(registry.find("example.com")).isSameAs(portal);
+        assertThat(registry.find("WWW.Example.com")).isSameAs(portal);
+        assertThat(registry.find("notexample.com")).isNull();
+        assertThat(registry.find("example.org")).isNull();
+        assertThat(registry.find(null)).isNull();
+    }
+
+    @Test
+    void shouldPreferMostSpecificSuffix() {
+        SiteAdapter portal = adapter("portal", "example.com");
+        SiteAdapter blogs = adapter("blogs", "blogs.example.com");
+        SiteAdapterRegistry registry = new SiteAdapterRegistry(List.of(portal, blogs));
+
+        assertThat(registry.find("www.blogs.example.com")).isSameAs(blogs);
+        assertThat(registry.find("www.example.com")).isSameAs(portal);
+    }
+
+    @Test
+    void shouldRejectHostClaimedTwice() {
+        List<SiteAdapter> adapters = List.of(adapter("one", "example.com"), adapter("two", "Example.com"));
+
+        assertThatThrownBy(() -> new SiteAdapterRegistry(adapters))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("example.com");
+    }
+
+    private static SiteAdapter adapter(String name, String host) {
+        return new SiteAdapter() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public Set<String> hostSuffixes() {
+                return Set.of(host);
+            }
+
+            @Override
+            public String cardSelector() {
+                return ".recipe";
+            }
+
+            @Override
+            public List<ParsedIngredient> extract(Document doc) {
+                return List.of();
+            }
+        };
+    }
+}
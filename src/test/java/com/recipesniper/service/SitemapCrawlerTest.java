@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.config.ScrapeProperties;
+import com.recipesniper.dto.CrawlStatusResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Crawls a fixture site served by a local HTTP server: robots.txt pointing at
+ * a sitemap index, which lists one gzipped and one plain sitemap.
+ */
+@ExtendWith(MockitoExtension.class)
+class SitemapCrawlerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private BulkImportService bulkImportService;
+
+    @Mock
+    private RecipeService recipeService;
+
+    private final Map<String, byte[]> pages = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ScrapingService scrapingService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        ScrapeProperties properties = new ScrapeProperties();
+        properties.getDefaults().setMaxAttempts(1);
+        scrapingService = new ScrapingService(
+                OpenTelemetry.noop().getTracer("test"),
+                new PageArchive(tempDir.resolve("pages"), false),
+                new PageStripper(PageStripper.Mode.FULL, new SiteAdapterRegistry(List.of())),
+                new SimpleMeterRegistry(),
+                DataSize.ofMegabytes(1),
+                properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldImportRecipeUrlsFromSitemapIndex() throws Exception {
+        passThroughDeduplication();
+        serveFixtureSite();
+
+        CrawlStatusResponse status = crawler(100).crawl(url("/"));
+
+        assertThat(status.state()).isEqualTo("COMPLETED");
+        assertThat(status.sitemaps()).isEqualTo(3);
+        assertThat(status.urlsSeen()).isEqualTo(6);
+        assertThat(status.recipeUrls()).isEqualTo(3);
+        assertThat(status.imported()).isEqualTo(3);
+        verify(recipeService).addRecipe(url("/recipes/lemon-tart"));
+        verify(recipeService).addRecipe(url("/recipes/pea-soup"));
+        verify(recipeService).addRecipe(url("/recipe/flatbread"));
+        assertThat(Files.list(tempDir.resolve("crawl"))).isEmpty();
+    }
+
+    @Test
+    void shouldFallBackToSitemapXmlWithoutRobotsTxt() throws Exception {
+        passThroughDeduplication();
+        serve("/sitemap.xml", urlset("/recipes/lemon-tart", "/about"));
+
+        CrawlStatusResponse status = crawler(100).crawl(url("/recipes/anything"));
+
+        assertThat(status.state()).isEqualTo("COMPLETED");
+        assertThat(status.imported()).isEqualTo(1);
+        verify(recipeService).addRecipe(url("/recipes/lemon-tart"));
+    }
+
+    @Test
+    void shouldCountFailedImportsAndCarryOn() throws Exception {
+        passThroughDeduplication();
+        serve("/sitemap.xml", urlset("/recipes/broken", "/recipes/pea-soup"));
+        when(recipeService.addRecipe(url("/recipes/broken"))).thenThrow(new IOException("HTTP 500"));
+
+        CrawlStatusResponse status = crawler(100).crawl(url("/"));
+
+        assertThat(status.state()).isEqualTo("COMPLETED");
+        assertThat(status.imported()).isEqualTo(1);
+        assertThat(status.failed()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldResumeFromCheckpointAfterFailedCrawl() throws Exception {
+        passThroughDeduplication();
+        serveFixtureSite();
+        when(recipeService.addRecipe(anyString())).thenReturn(null);
+        when(recipeService.addRecipe(url("/recipes/pea-soup")))
+                .thenThrow(new HostUnavailableException("circuit open", Duration.ofSeconds(30)))
+                .thenReturn(null);
+
+        CrawlStatusResponse failed = crawler(1).crawl(url("/"));
+
+        assertThat(failed.state()).isEqualTo("FAILED");
+        assertThat(Files.list(tempDir.resolve("crawl"))).isNotEmpty();
+
+        CrawlStatusResponse resumed = crawler(1).crawl(url("/"));
+
+        assertThat(resumed.state()).isEqualTo("COMPLETED");
+        verify(recipeService, times(1)).addRecipe(url("/recipes/lemon-tart"));
+        verify(recipeService, times(2)).addRecipe(url("/recipes/pea-soup"));
+        verify(recipeService, times(1)).addRecipe(url("/recipe/flatbread"));
+    }
+
+    @Test
+    void shouldSkipSitemapsThatAreNotXml() throws Exception {
+        serve("/robots.txt", "Sitemap: " + url("/sitemap.html"));
+        serve("/sitemap.html", "<html><body>Not a sitemap</body></html>");
+
+        CrawlStatusResponse status = crawler(100).crawl(url("/"));
+
+        assertThat(status.state()).isEqualTo("COMPLETED");
+        assertThat(status.failedSitemaps()).isEqualTo(1);
+        verify(recipeService, never()).addRecipe(anyString());
+    }
+
+    @Test
+    void shouldOnlyAcceptRecipePagesOnTheCrawledSite() {
+        SitemapCrawler crawler = crawler(100);
+        URI site = URI.create("https://www.example.com/");
+
+        assertThat(crawler.isRecipeUrl(site, "https://example.com/recipes/lemon-tart")).isTrue();
+        assertThat(crawler.isRecipeUrl(site, "https://www.example.com/recipe/flatbread")).isTrue();
+        assertThat(crawler.isRecipeUrl(site, "https://www.example.com/recipes/")).isFalse();
+        assertThat(crawler.isRecipeUrl(site, "https://www.example.com/recipes/tag/vegan")).isFalse();
+        assertThat(crawler.isRecipeUrl(site, "https://www.example.com/about")).isFalse();
+        assertThat(crawler.isRecipeUrl(site, "https://cdn.example.com/recipes/lemon-tart")).isFalse();
+    }
+
+    private void passThroughDeduplication() {
+        when(bulkImportService.deduplicate(anyList()))
+                .thenAnswer(inv -> new BulkImportService.Deduplicated(List.copyOf(inv.getArgument(0)), 0, 0, 0));
+    }
+
+    private SitemapCrawler crawler(int batchSize) {
+        return new SitemapCrawler(scrapingService, bulkImportService, recipeService,
+                new SimpleMeterRegistry(), OpenTelemetry.noop().getTracer("test"),
+                tempDir.resolve("crawl"), "(?i)/recipes?/.+",
+                "(?i)/(tags?|categor(y|ies)|authors?|page|search|collections?)/",
+                1_000, batchSize, DataSize.ofMegabytes(1), 10);
+    }
+
+    private void serveFixtureSite() throws IOException {
+        serve("/robots.txt", "User-agent: *\nDisallow: /admin/\n\nsitemap: " + url("/sitemap_index.xml") + "\n");
+        serve("/sitemap_index.xml", """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <sitemapindex xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+                  <sitemap><loc>%s</loc></sitemap>
+                  <sitemap><loc>%s</loc></sitemap>
+                </sitemapindex>
+                """.formatted(url("/sitemap-recipes.xml.gz"), url("/sitemap-pages.xml")));
+        pages.put("/sitemap-recipes.xml.gz",
+                gzip(urlset("/recipes/lemon-tart", "/recipes/pea-soup", "/recipes/tag/soup")));
+        serve("/sitemap-pages.xml", urlset("/about", "/recipe/flatbread", "/author/jo/"));
+    }
+
+    private String urlset(String... paths) {
+        StringBuilder xml = new StringBuilder("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+                """);
+        for (String path : paths) {
+            xml.append("  <url><loc>").append(url(path)).append("</loc><lastmod>2026-01-01</lastmod></url>\n");
+        }
+        return xml.append("</urlset>\n").toString();
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private void serve(String path, String content) {
+        pages.put(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = pages.get(exchange.getRequestURI().getPath());
+        if (body == null) {
+            exchange.sendResponseHeaders(404, -1);
+        } else {
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UrlCanonicalizerTest {
+
+    @Test
+    void shouldNormalizeSchemeHostPortAndFragment() {
+        assertThat(UrlCanonicalizer.canonicalize("HTTPS://WWW.Example.COM:443/Recipes/Cake#comments"))
+                .isEqualTo("https://www.example.com/Recipes/Cake");
+        assertThat(UrlCanonicalizer.canonicalize("http://example.com:8080"))
+                .isEqualTo("http://example.com:8080/");
+    }
+
+    @Test
+    void shouldStripTrailingSlashesFromNonRootPaths() {
+        assertThat(UrlCanonicalizer.canonicalize("https://example.com/recipes/cake//"))
+                .isEqualTo("https://example.com/recipes/cake");
+        assertThat(UrlCanonicalizer.canonicalize("https://example.com/"))
+                .isEqualTo("https://example.com/");
+    }
+
+    @Test
+    void shouldDropTrackingParametersAndSortTheRest() {
+        assertThat(UrlCanonicalizer.canonicalize(
+                "https://example.com/cake/?utm_source=pin&servings=4&fbclid=abc&UTM_Medium=social&print"))
+                .isEqualTo("https://example.com/cake?print&servings=4");
+        assertThat(UrlCanonicalizer.canonicalize("https://example.com/cake?utm_campaign=x&gclid=y"))
+                .isEqualTo("https://example.com/cake");
+    }
+
+    @Test
+    void shouldRejectNonHttpUrls() {
+        assertThatThrownBy(() -> UrlCanonicalizer.canonicalize("ftp://example.com/cake"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> UrlCanonicalizer.canonicalize("not a url"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
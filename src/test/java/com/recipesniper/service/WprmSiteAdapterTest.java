@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Bruce Snyder (bsnyder@apache.org)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.recipesniper.service;
+
+import com.recipesniper.service.IngredientExtractionService.ParsedIngredient;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class WprmSiteAdapterTest {
+
+    private final WprmSiteAdapter adapter = new WprmSiteAdapter(Set.of("budgetbytes.com"));
+
+    @Test
+    void shouldReadStructuredFieldsFromFixture() throws Exception {
+        Document doc = SiteAdapterFixtures.document("wprm-banana-bread.html", "https://www.budgetbytes.com/banana-bread/");
+
+        List<ParsedIngredient> ingredients = adapter.extract(doc);
+
+        assertThat(ingredients)
+                .extracting(ParsedIngredient::quantity, ParsedIngredient::unit, ParsedIngredient::name)
+                .containsExactly(
+                        tuple("3", null, "ripe bananas"),
+                        tuple("1/3", "cup", "melted butter"),
+                        tuple("3/4", "cup", "brown sugar"),
+                        tuple("1", "large", "egg"),
+                        tuple("1", "tsp", "vanilla extract"),
+                        tuple("1", "tsp", "baking soda"),
+                        tuple("1/4", "tsp", "salt"),
+                        tuple("1 1/2", "cups", "all-purpose flour"));
+        assertThat(ingredients.get(3).rawText()).isEqualTo("1 large egg beaten ($0.27)");
+    }
+
+    @Test
+    void shouldReturnNothingForPagesWithoutWprmMarkup() {
+        Document doc = Jsoup.parse("<ul class=\"ingredients\"><li>2 cups flour</li></ul>");
+
+        assertThat(adapter.extract(doc)).isEmpty();
+    }
+
+    @Test
+    void shouldExtractFixtureQuickly() throws Exception {
+        Document doc = SiteAdapterFixtures.document("wprm-banana-bread.html", "https://www.budgetbytes.com/banana-bread/");
+
+        double micros = SiteAdapterFixtures.averageMicros(() -> adapter.extract(doc));
+
+        // Typically a few tens of microseconds; the bound only catches a
+        // selector that has started scanning the whole comment section
+        assertThat(micros).isLessThan(2_000);
+    }
+}